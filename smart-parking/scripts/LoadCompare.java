@@ -0,0 +1,143 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load driver used for the platform vs virtual thread comparison (VIRTUAL_THREADS.md).
+ *
+ * Usage (JDK 21 source launcher, app already running):
+ *   java scripts/LoadCompare.java [baseUrl] [concurrency] [seconds]
+ *
+ * Runs two phases against the same server:
+ *   park  - each client parks a CAR, then frees the slot via /parking/exit-by-slot (only /park is timed)
+ *   slots - each client polls GET /parking/slots
+ * and prints throughput and p50/p99 latency of the 200 answers per phase. Other answers are counted
+ * separately and not timed: 4xx (park: "No slot available"), 503 (shed by admission control or a
+ * slot lock wait) and errors (other statuses, I/O failures).
+ *
+ * Start the server with a garage that has at least one CAR slot per client
+ * (--parking.layout.location=file:scripts/loadtest-garage.yml), otherwise the park phase mostly
+ * measures the "No slot available" answer.
+ */
+public class LoadCompare {
+
+    private static final Pattern PARKED = Pattern.compile("slot (\\d+)(?: on floor (\\d+))?");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+        // Warm up JIT, pools and Hibernate caches before measuring
+        run("warmup", client, baseUrl, concurrency, Math.max(3, seconds / 4), true);
+        run("warmup", client, baseUrl, concurrency, Math.max(3, seconds / 4), false);
+
+        print(run("park", client, baseUrl, concurrency, seconds, true));
+        print(run("slots", client, baseUrl, concurrency, seconds, false));
+    }
+
+    private record Result(String name, long rejected, long shed, long errors, double seconds, long[] latenciesMicros) {}
+
+    private static Result run(String name, HttpClient client, String baseUrl, int concurrency, int seconds,
+                              boolean park) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong shed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong plateSeq = new AtomicLong();
+        List<List<Long>> perClient = new ArrayList<>();
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                List<Long> latencies = new ArrayList<>();
+                perClient.add(latencies);
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            if (park) {
+                                String plate = "LT-" + plateSeq.incrementAndGet();
+                                long t0 = System.nanoTime();
+                                HttpResponse<String> response = client.send(post(baseUrl
+                                    + "/parking/park?vehicleType=CAR&licensePlate=" + plate),
+                                    HttpResponse.BodyHandlers.ofString());
+                                long micros = (System.nanoTime() - t0) / 1000;
+                                Matcher m = PARKED.matcher(response.body());
+                                if (response.statusCode() == 200 && m.find()) {
+                                    latencies.add(micros);
+                                    String exitUrl = baseUrl + "/parking/exit-by-slot?slotNumber=" + m.group(1)
+                                        + (m.group(2) != null ? "&floorNumber=" + m.group(2) : "");
+                                    client.send(post(exitUrl), HttpResponse.BodyHandlers.discarding());
+                                } else {
+                                    count(response.statusCode(), rejected, shed, errors);
+                                }
+                            } else {
+                                long t0 = System.nanoTime();
+                                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(
+                                    URI.create(baseUrl + "/parking/slots")).GET().build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                                long micros = (System.nanoTime() - t0) / 1000;
+                                if (response.statusCode() == 200) {
+                                    latencies.add(micros);
+                                } else {
+                                    count(response.statusCode(), rejected, shed, errors);
+                                }
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long[] all = perClient.stream().flatMap(List::stream).mapToLong(Long::longValue).toArray();
+        Arrays.sort(all);
+        return new Result(name, rejected.get(), shed.get(), errors.get(), elapsed, all);
+    }
+
+    private static void count(int status, AtomicLong rejected, AtomicLong shed, AtomicLong errors) {
+        if (status == 503) {
+            shed.incrementAndGet();
+        } else if (status >= 400 && status < 500) {
+            rejected.incrementAndGet();
+        } else {
+            errors.incrementAndGet();
+        }
+    }
+
+    private static HttpRequest post(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private static void print(Result r) {
+        long ok = r.latenciesMicros().length;
+        System.out.printf("%-6s ok=%d 4xx=%d 503=%d errors=%d throughput=%.1f ok/s p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+            r.name(), ok, r.rejected(), r.shed(), r.errors(), ok / r.seconds(),
+            percentile(r.latenciesMicros(), 0.50), percentile(r.latenciesMicros(), 0.99),
+            r.latenciesMicros().length > 0 ? r.latenciesMicros()[r.latenciesMicros().length - 1] / 1000.0 : 0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000.0;
+    }
+}
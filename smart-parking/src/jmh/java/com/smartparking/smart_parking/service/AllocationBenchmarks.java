@@ -0,0 +1,45 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.ParkingRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slot allocation: parkVehicle (first free CAR slot) and parkVehicleInSlot (a given free slot).
+ *
+ * Each operation runs in a transaction that is rolled back, like the startup warm-up, so the garage
+ * stays at the same occupancy for every invocation. The rollback is part of the measured time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AllocationBenchmarks {
+
+    @Benchmark
+    public ParkingRecord parkVehicle(GarageState garage) {
+        String plate = garage.nextPlate();
+        return garage.shadowTransaction.execute(status -> {
+            status.setRollbackOnly();
+            return garage.parkingService.parkVehicle(plate, "CAR");
+        });
+    }
+
+    @Benchmark
+    public ParkingRecord parkVehicleInSlot(GarageState garage) {
+        String plate = garage.nextPlate();
+        return garage.shadowTransaction.execute(status -> {
+            status.setRollbackOnly();
+            return garage.parkingService.parkVehicleInSlot(plate, "CAR",
+                    garage.freeCarSlot.getSlotNumber(), garage.freeCarSlot.getFloorNumber());
+        });
+    }
+}
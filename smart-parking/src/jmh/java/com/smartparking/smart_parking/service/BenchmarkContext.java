@@ -0,0 +1,81 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.SmartParkingApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Starts the application for a benchmark trial: fresh in-memory H2 database, a generated garage
+ * layout of the requested size, no startup warm-up (JMH does its own) and quiet logging.
+ */
+final class BenchmarkContext {
+
+    /** Slots per generated floor. */
+    static final int FLOOR_SIZE = 1000;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(int slots) throws IOException {
+        Path layout = writeLayout(slots);
+        // Command-line arguments: unlike builder properties they override application.properties
+        return new SpringApplicationBuilder(SmartParkingApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--parking.layout.location=" + layout.toUri(),
+                "--parking.warmup.enabled=false",
+                "--parking.metrics.occupancy-refresh-ms=3600000");
+    }
+
+    /**
+     * Writes a JSON layout with floors of FLOOR_SIZE slots split like the default garage:
+     * 25% BIKE, 50% CAR, 15% MICROBUS, 10% TRUCK (20 slots = the default garage).
+     */
+    static Path writeLayout(int slots) throws IOException {
+        StringBuilder json = new StringBuilder("{\"floors\":[");
+        int floor = 0;
+        for (int remaining = slots; remaining > 0; remaining -= FLOOR_SIZE) {
+            int size = Math.min(FLOOR_SIZE, remaining);
+            int bikes = size / 4;
+            int cars = size / 2;
+            int microbuses = size * 15 / 100;
+            int trucks = size - bikes - cars - microbuses;
+            if (floor > 0) {
+                json.append(',');
+            }
+            floor++;
+            json.append("{\"number\":").append(floor).append(",\"description\":\"Benchmark floor ").append(floor)
+                    .append("\",\"slots\":[");
+            int next = 1;
+            next = appendRange(json, "BIKE", next, bikes);
+            next = appendRange(json, "CAR", next, cars);
+            next = appendRange(json, "MICROBUS", next, microbuses);
+            appendRange(json, "TRUCK", next, trucks);
+            json.append("]}");
+        }
+        json.append("]}");
+
+        Path file = Files.createTempFile("bench-garage-" + slots + "-", ".json");
+        file.toFile().deleteOnExit();
+        return Files.writeString(file, json);
+    }
+
+    private static int appendRange(StringBuilder json, String type, int from, int count) {
+        if (count == 0) {
+            return from;
+        }
+        if (json.charAt(json.length() - 1) != '[') {
+            json.append(',');
+        }
+        json.append("{\"type\":\"").append(type).append("\",\"from\":").append(from)
+                .append(",\"count\":").append(count).append('}');
+        return from + count;
+    }
+}
@@ -0,0 +1,74 @@
+package com.smartparking.smart_parking.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exit billing: billable hours alone, and billable hours x hourly rate with the tariff lookup
+ * (query cache, see ReferenceDataCache). Billing does not depend on the garage size, so this runs
+ * against the default 20-slot garage.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BillingBenchmarks {
+
+    private static final String[] TYPES = {"BIKE", "CAR", "MICROBUS", "TRUCK", "OTHER"};
+    private static final int MASK = 1023;
+
+    @State(Scope.Benchmark)
+    public static class Tariffs {
+
+        ConfigurableApplicationContext context;
+        ParkingServiceDB parkingService;
+
+        // Durations up to two days and vehicle types (OTHER has no tariff: default rate)
+        final long[] durations = new long[MASK + 1];
+        final String[] types = new String[MASK + 1];
+        int next;
+
+        @Setup(Level.Trial)
+        public void start() throws Exception {
+            context = BenchmarkContext.start(20);
+            parkingService = context.getBean(ParkingServiceDB.class);
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i <= MASK; i++) {
+                durations[i] = random.nextLong(0, 2 * 24 * 60);
+                types[i] = TYPES[random.nextInt(TYPES.length)];
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int billableHours(Tariffs tariffs) {
+        return ParkingServiceDB.calculateBillableHours(tariffs.durations[tariffs.next++ & MASK]);
+    }
+
+    @Benchmark
+    public double charge(Tariffs tariffs) {
+        int i = tariffs.next++ & MASK;
+        return ParkingServiceDB.calculateBillableHours(tariffs.durations[i])
+                * tariffs.parkingService.getHourlyRate(tariffs.types[i]);
+    }
+}
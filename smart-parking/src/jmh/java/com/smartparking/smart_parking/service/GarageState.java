@@ -0,0 +1,88 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.SlotLayout;
+import com.smartparking.smart_parking.repository.SlotLayoutRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * A running application over a garage of "slots" slots, "occupancy" of each vehicle type's slots
+ * already taken. Occupied slots are the first ones in allocation order (floor, slot), so parkVehicle
+ * has to walk past them, as it does in a filling garage. Active records are inserted with JDBC
+ * (ids far above the sequence) instead of parked one by one.
+ */
+@State(Scope.Benchmark)
+public class GarageState {
+
+    private static final long PREFILL_ID_BASE = 1_000_000_000L;
+
+    @Param({"20", "1000", "50000"})
+    public int slots;
+
+    @Param({"0.0", "0.8"})
+    public double occupancy;
+
+    ConfigurableApplicationContext context;
+    ParkingServiceDB parkingService;
+    TransactionTemplate shadowTransaction;
+
+    /** A CAR slot that stays free (the last one), for parkVehicleInSlot. */
+    SlotLayout freeCarSlot;
+
+    private long plateSeq;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        context = BenchmarkContext.start(slots);
+        parkingService = context.getBean(ParkingServiceDB.class);
+        shadowTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        List<SlotLayout> layout = context.getBean(SlotLayoutRepository.class).findAllByOrderByFloorNumberAscSlotNumberAsc();
+        if (layout.size() != slots) {
+            throw new IllegalStateException("Expected a garage of " + slots + " slots, got " + layout.size());
+        }
+        Map<String, List<SlotLayout>> byType = layout.stream()
+                .collect(Collectors.groupingBy(SlotLayout::getVehicleType));
+        List<SlotLayout> cars = byType.get("CAR");
+        freeCarSlot = cars.get(cars.size() - 1);
+
+        Timestamp entry = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+        List<Object[]> rows = new ArrayList<>();
+        for (List<SlotLayout> typeSlots : byType.values()) {
+            int taken = Math.min((int) (typeSlots.size() * occupancy), typeSlots.size() - 1);
+            for (SlotLayout slot : typeSlots.subList(0, Math.max(0, taken))) {
+                rows.add(new Object[] {PREFILL_ID_BASE + rows.size(), slot.getVehicleType(),
+                        "PREFILL-" + rows.size(), slot.getSlotNumber(), slot.getFloorNumber(), entry});
+            }
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate("""
+                INSERT INTO parking_records (id, vehicle_type, license_plate, slot_number, floor_number, entry_time,
+                                             duration_minutes, billable_hours, charge, version)
+                VALUES (?, ?, ?, ?, ?, ?, 0, 0, 0, 0)
+                """, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    String nextPlate() {
+        return "BENCH-" + (++plateSeq);
+    }
+}
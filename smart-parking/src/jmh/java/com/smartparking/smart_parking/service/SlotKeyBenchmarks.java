@@ -0,0 +1,75 @@
+package com.smartparking.smart_parking.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a (floor, slot) -> value map for a whole garage, the lookup shape of the slot locks and
+ * slot view. Compares the SlotLockManager.SlotKey record with the "floor_slot" string keys of the
+ * original slot view, and a packed long. In memory only; no application context.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlotKeyBenchmarks {
+
+    @Param({"20", "1000", "50000"})
+    public int slots;
+
+    private int[] floors;
+    private int[] slotNumbers;
+
+    @Setup(Level.Trial)
+    public void layout() {
+        floors = new int[slots];
+        slotNumbers = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            floors[i] = i / BenchmarkContext.FLOOR_SIZE + 1;
+            slotNumbers[i] = i % BenchmarkContext.FLOOR_SIZE + 1;
+        }
+    }
+
+    @Benchmark
+    public Map<SlotLockManager.SlotKey, Integer> recordKeys() {
+        Map<SlotLockManager.SlotKey, Integer> map = new HashMap<>(slots * 4 / 3 + 1);
+        for (int i = 0; i < slots; i++) {
+            map.put(SlotLockManager.key(floors[i], slotNumbers[i]), i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<String, Integer> stringKeys() {
+        Map<String, Integer> map = new HashMap<>(slots * 4 / 3 + 1);
+        for (int i = 0; i < slots; i++) {
+            map.put(floors[i] + "_" + slotNumbers[i], i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Long, Integer> packedLongKeys() {
+        Map<Long, Integer> map = new HashMap<>(slots * 4 / 3 + 1);
+        for (int i = 0; i < slots; i++) {
+            map.put(((long) floors[i] << 32) | slotNumbers[i], i);
+        }
+        return map;
+    }
+}
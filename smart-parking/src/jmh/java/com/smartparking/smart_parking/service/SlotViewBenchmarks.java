@@ -0,0 +1,35 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.SlotDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slot view assembly (the kiosk's /parking/slots): one floor (at most BenchmarkContext.FLOOR_SIZE
+ * slots) and the whole garage.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlotViewBenchmarks {
+
+    @Benchmark
+    public List<SlotDTO> slotViewFloor(GarageState garage) {
+        return garage.parkingService.getAllSlotsByFloor(1);
+    }
+
+    @Benchmark
+    public List<SlotDTO> slotViewAll(GarageState garage) {
+        return garage.parkingService.getAllSlots();
+    }
+}
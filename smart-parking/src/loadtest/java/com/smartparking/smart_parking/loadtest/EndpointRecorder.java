@@ -0,0 +1,89 @@
+package com.smartparking.smart_parking.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies (HDR histogram, microseconds) and response classes of one endpoint. interval() hands
+ * out everything recorded since the previous call, so the warm-up can be dropped without stopping
+ * the clients.
+ */
+final class EndpointRecorder {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    final String name;
+    private final Recorder recorder = new Recorder(HIGHEST_MICROS, 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    EndpointRecorder(String name) {
+        this.name = name;
+    }
+
+    /** Result of one interval. */
+    record Interval(String name, Histogram histogram, long ok, long rejected, long shed, long failed) {
+
+        long requests() {
+            return ok + rejected + shed + failed;
+        }
+    }
+
+    /**
+     * @param intendedStartNanos when the request should have been sent (arrival or poll tick), so
+     *                           client-side queueing counts as latency (no coordinated omission)
+     * @param status HTTP status, or -1 if the request failed without an answer
+     */
+    void record(long intendedStartNanos, int status) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStartNanos);
+        recorder.recordValue(Math.min(Math.max(micros, 0), HIGHEST_MICROS));
+        if (status >= 200 && status < 300) {
+            ok.increment();
+        } else if (status == 503) {
+            shed.increment();
+        } else if (status >= 400 && status < 500) {
+            rejected.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    Interval interval() {
+        return new Interval(name, recorder.getIntervalHistogram(), ok.sumThenReset(), rejected.sumThenReset(),
+                shed.sumThenReset(), failed.sumThenReset());
+    }
+
+    static void printHeader(PrintStream out) {
+        out.printf(Locale.ROOT, "%-26s %9s %9s %8s %8s %8s %8s %9s %9s %9s %9s %9s%n", "endpoint", "requests",
+                "req/s", "2xx", "4xx", "503", "failed", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms");
+    }
+
+    static void print(PrintStream out, Interval interval, double seconds) {
+        Histogram h = interval.histogram();
+        out.printf(Locale.ROOT, "%-26s %9d %9.1f %8d %8d %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n", interval.name(),
+                interval.requests(), interval.requests() / seconds, interval.ok(), interval.rejected(),
+                interval.shed(), interval.failed(), millis(h, 50), millis(h, 90), millis(h, 99), millis(h, 99.9),
+                h.getTotalCount() > 0 ? h.getMaxValue() / 1000.0 : 0);
+    }
+
+    /** Full percentile distribution in the .hgrm format (plot with HdrHistogram's plotFiles.html). */
+    static void writeHgrm(Interval interval, Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            interval.histogram().outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static double millis(Histogram h, double percentile) {
+        return h.getTotalCount() > 0 ? h.getValueAtPercentile(percentile) / 1000.0 : 0;
+    }
+}
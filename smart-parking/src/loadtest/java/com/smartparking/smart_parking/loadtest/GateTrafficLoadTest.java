@@ -0,0 +1,293 @@
+package com.smartparking.smart_parking.loadtest;
+
+import com.smartparking.smart_parking.SmartParkingApplication;
+import com.smartparking.smart_parking.model.GarageLayout;
+import com.smartparking.smart_parking.model.GarageLayout.FloorSpec;
+import com.smartparking.smart_parking.model.GarageLayout.SlotRange;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-model gate traffic against an in-process instance (embedded H2), for capacity sizing and
+ * regression checks before a rollout. See LOAD_TESTING.md.
+ *
+ *   mvn -Ploadtest -DskipTests verify -Dloadtest.args="arrivals=50 duration=120"
+ *
+ * - Vehicles arrive as a Poisson process (arrivals per second), with a type drawn from "mix".
+ *   Each one parks (POST /parking/park), stays for a log-normal dwell time around the type's mean
+ *   from "dwell" (simulated minutes, compressed by time-scale) and leaves (POST /parking/exit-by-slot).
+ * - "kiosks" displays each poll GET /parking/slots every poll-ms.
+ * - Every request is its own virtual thread, so a slow server never slows the arrivals down.
+ *   Latency is measured from the intended send time (arrival, dwell end, poll tick).
+ *
+ * After "warmup" seconds the histograms are reset; after "duration" more seconds the run stops and
+ * prints requests, throughput, response classes and p50 / p90 / p99 / p99.9 / max per endpoint.
+ * Full distributions are written as .hgrm files to "out". base-url drives an already running
+ * instance instead of starting one (its garage is used as is).
+ */
+public class GateTrafficLoadTest {
+
+    private static final Pattern PARKED = Pattern.compile("slot (\\d+)(?: on floor (\\d+))?");
+    private static final double DWELL_SIGMA = 0.6;
+    private static final int FLOOR_SIZE = 1000;
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("duration", "60");
+        DEFAULTS.put("warmup", "15");
+        DEFAULTS.put("arrivals", "5");
+        DEFAULTS.put("kiosks", "10");
+        DEFAULTS.put("poll-ms", "1000");
+        DEFAULTS.put("slots", "1000");
+        DEFAULTS.put("time-scale", "600");
+        DEFAULTS.put("mix", "BIKE:25,CAR:50,MICROBUS:15,TRUCK:10");
+        DEFAULTS.put("dwell", "BIKE:45,CAR:120,MICROBUS:180,TRUCK:240");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("out", "target/loadtest");
+        DEFAULTS.put("base-url", "");
+    }
+
+    private final Map<String, String> options;
+    private final HttpClient client;
+    private final ExecutorService clients = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("loadtest-", 0).factory());
+    private final EndpointRecorder park = new EndpointRecorder("POST /parking/park");
+    private final EndpointRecorder exit = new EndpointRecorder("POST /parking/exit-by-slot");
+    private final EndpointRecorder slots = new EndpointRecorder("GET /parking/slots");
+    private final AtomicLong plates = new AtomicLong();
+    private volatile boolean running = true;
+    private String baseUrl;
+
+    private GateTrafficLoadTest(Map<String, String> options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0 || !DEFAULTS.containsKey(arg.substring(0, eq))) {
+                System.err.println("Unknown option " + arg + "; options (with defaults): " + DEFAULTS);
+                System.exit(2);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        new GateTrafficLoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        Map<String, Integer> mix = weights(options.get("mix"));
+        Map<String, Integer> dwell = weights(options.get("dwell"));
+        ConfigurableApplicationContext app = null;
+        baseUrl = options.get("base-url");
+        if (baseUrl.isBlank()) {
+            app = start(Integer.parseInt(options.get("slots")), mix);
+            baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+        }
+        System.out.println("Load test against " + baseUrl + " " + options);
+
+        try {
+            long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("warmup")));
+            long end = warmupEnd + TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("duration")));
+            startKiosks(Integer.parseInt(options.get("kiosks")), Long.parseLong(options.get("poll-ms")));
+
+            SplittableRandom random = new SplittableRandom(Long.parseLong(options.get("seed")));
+            double arrivalsPerSecond = Double.parseDouble(options.get("arrivals"));
+            double timeScale = Double.parseDouble(options.get("time-scale"));
+            List<String> types = new ArrayList<>(mix.keySet());
+            int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+            boolean warm = false;
+            long measuredFrom = 0;
+            long next = System.nanoTime();
+            while (next < end) {
+                next += (long) (-Math.log(1 - random.nextDouble()) / arrivalsPerSecond * 1e9);
+                sleepUntil(next);
+                if (!warm && next >= warmupEnd) {
+                    List.of(park, exit, slots).forEach(EndpointRecorder::interval);
+                    measuredFrom = System.nanoTime();
+                    warm = true;
+                }
+                String type = pick(types, mix, totalWeight, random);
+                long dwellMillis = dwellMillis(dwell.getOrDefault(type, 120), timeScale, random);
+                long arrival = next;
+                clients.execute(() -> vehicle(arrival, type, dwellMillis));
+            }
+
+            running = false;
+            double seconds = (System.nanoTime() - measuredFrom) / 1e9;
+            report(List.of(park.interval(), exit.interval(), slots.interval()), seconds);
+        } finally {
+            running = false;
+            clients.shutdownNow();
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    // ===================== CLIENTS =====================
+
+    private void vehicle(long arrival, String type, long dwellMillis) {
+        String plate = "LT-" + plates.incrementAndGet();
+        HttpResponse<String> parked = send(park, arrival,
+                "/parking/park?vehicleType=" + type + "&licensePlate=" + plate);
+        Matcher slot = parked != null && parked.statusCode() == 200 ? PARKED.matcher(parked.body()) : null;
+        if (slot == null || !slot.find()) {
+            return; // full for this type, shed or failed: the driver goes elsewhere
+        }
+        long leave = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(dwellMillis);
+        sleepUntil(leave);
+        if (running) {
+            send(exit, leave, "/parking/exit-by-slot?slotNumber=" + slot.group(1)
+                    + (slot.group(2) != null ? "&floorNumber=" + slot.group(2) : ""));
+        }
+    }
+
+    private void startKiosks(int kiosks, long pollMillis) {
+        long period = TimeUnit.MILLISECONDS.toNanos(pollMillis);
+        long start = System.nanoTime();
+        for (int i = 0; i < kiosks; i++) {
+            long first = start + period * i / Math.max(1, kiosks);
+            clients.execute(() -> {
+                // Fixed rate: a late answer does not push the schedule back, it shows up as latency
+                for (long tick = first; running; tick += period) {
+                    sleepUntil(tick);
+                    if (running) {
+                        send(slots, tick, "/parking/slots");
+                    }
+                }
+            });
+        }
+    }
+
+    private HttpResponse<String> send(EndpointRecorder recorder, long intendedStart, String path) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        request = recorder == slots ? request.GET() : request.POST(HttpRequest.BodyPublishers.noBody());
+        try {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (running) {
+                recorder.record(intendedStart, response.statusCode());
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (IOException e) {
+            if (running) {
+                recorder.record(intendedStart, -1);
+            }
+            return null;
+        }
+    }
+
+    // ===================== SETUP / REPORT =====================
+
+    /** Starts the application on a fresh H2 database with a garage of "slots" slots split by the traffic mix. */
+    private static ConfigurableApplicationContext start(int slots, Map<String, Integer> mix) throws IOException {
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        List<FloorSpec> floors = new ArrayList<>();
+        for (int remaining = slots; remaining > 0; remaining -= FLOOR_SIZE) {
+            int size = Math.min(FLOOR_SIZE, remaining);
+            List<SlotRange> ranges = new ArrayList<>();
+            int from = 1;
+            for (Map.Entry<String, Integer> type : mix.entrySet()) {
+                int count = Math.max(1, size * type.getValue() / totalWeight);
+                ranges.add(new SlotRange(type.getKey(), from, null, count));
+                from += count;
+            }
+            floors.add(new FloorSpec(floors.size() + 1, "Load test floor " + (floors.size() + 1), ranges));
+        }
+        Path layout = Files.createTempFile("loadtest-garage-", ".json");
+        layout.toFile().deleteOnExit();
+        Files.writeString(layout, JsonMapper.builder().build().writeValueAsString(new GarageLayout(floors)));
+
+        // Command-line arguments: unlike builder properties they override application.properties
+        return new SpringApplicationBuilder(SmartParkingApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--parking.layout.location=" + layout.toUri());
+    }
+
+    private void report(List<EndpointRecorder.Interval> intervals, double seconds) throws IOException {
+        Path out = Path.of(options.get("out"));
+        Files.createDirectories(out);
+        System.out.printf(Locale.ROOT, "%nMeasured %.1f s (4xx = rejected, e.g. no free slot; 503 = shed by admission control)%n", seconds);
+        EndpointRecorder.printHeader(System.out);
+        for (EndpointRecorder.Interval interval : intervals) {
+            EndpointRecorder.print(System.out, interval, seconds);
+            EndpointRecorder.writeHgrm(interval, out.resolve(interval.name().replaceAll("[^A-Za-z]+", "-")
+                    .replaceAll("^-|-$", "").toLowerCase(Locale.ROOT) + ".hgrm"));
+        }
+        System.out.println("Latency distributions (.hgrm, ms): " + out.toAbsolutePath());
+    }
+
+    private static Map<String, Integer> weights(String spec) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            int colon = entry.lastIndexOf(':');
+            weights.put(entry.substring(0, colon).trim().toUpperCase(Locale.ROOT),
+                    Integer.parseInt(entry.substring(colon + 1).trim()));
+        }
+        return weights;
+    }
+
+    private static String pick(List<String> types, Map<String, Integer> mix, int totalWeight, SplittableRandom random) {
+        int r = random.nextInt(totalWeight);
+        for (String type : types) {
+            r -= mix.get(type);
+            if (r < 0) {
+                return type;
+            }
+        }
+        return types.get(types.size() - 1);
+    }
+
+    /** Log-normal around the mean (simulated minutes), compressed to real time. */
+    private static long dwellMillis(int meanMinutes, double timeScale, SplittableRandom random) {
+        double mu = Math.log(meanMinutes) - DWELL_SIGMA * DWELL_SIGMA / 2;
+        double minutes = Math.exp(mu + DWELL_SIGMA * random.nextGaussian());
+        return (long) (minutes * 60_000 / timeScale);
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.smartparking.smart_parking.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors for remote I/O that should not hold servlet request threads.
+ *
+ * Supabase calls run on virtual threads (one per task): a slow upstream parks a cheap
+ * virtual thread instead of a Tomcat worker. Controllers return the CompletableFuture and
+ * Spring MVC completes the response asynchronously (spring.mvc.async.request-timeout).
+ *
+ * Bulk slot provisioning runs on its own virtual threads and streams progress (SseEmitter).
+ *
+ * The email outbox sends on its own thread, so a slow SMTP server never holds the shared
+ * @Scheduled thread (replica heartbeat, JWKS refresh, sweeps, gauges).
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService supabaseExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("supabase-", 0).factory());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService provisioningExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("provisioning-", 0).factory());
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService emailOutboxExecutor() {
+        return Executors.newSingleThreadExecutor(Thread.ofPlatform().name("email-outbox-", 0).daemon().factory());
+    }
+}
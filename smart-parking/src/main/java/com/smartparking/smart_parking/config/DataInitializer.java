@@ -1,24 +1,27 @@
 package com.smartparking.smart_parking.config;
 
 import com.smartparking.smart_parking.model.Admin;
-import com.smartparking.smart_parking.model.Floor;
 import com.smartparking.smart_parking.model.ParkingCharge;
-import com.smartparking.smart_parking.model.ParkingSlot;
 import com.smartparking.smart_parking.repository.AdminRepository;
-import com.smartparking.smart_parking.repository.FloorRepository;
 import com.smartparking.smart_parking.repository.ParkingChargeRepository;
-import com.smartparking.smart_parking.repository.ParkingSlotRepository;
+import com.smartparking.smart_parking.service.GarageLayoutLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+// Runs before StartupWarmup, which warms up against the seeded data
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class DataInitializer implements CommandLineRunner {
 
-    @Autowired
-    private ParkingSlotRepository slotRepository;
-    
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+
     @Autowired
     private AdminRepository adminRepository;
     
@@ -26,51 +29,20 @@ public class DataInitializer implements CommandLineRunner {
     private ParkingChargeRepository chargeRepository;
     
     @Autowired
-    private FloorRepository floorRepository;
+    private GarageLayoutLoader layoutLoader;
+
+    @Value("${parking.layout.location:}")
+    private String layoutLocation;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
     @Override
     public void run(String... args) throws Exception {
-        // Initialize default floor (Floor 1) if no floors exist
-        Floor defaultFloor = null;
-        if (floorRepository.count() == 0) {
-            defaultFloor = new Floor();
-            defaultFloor.setFloorNumber(1);
-            defaultFloor.setDescription("Ground Floor");
-            defaultFloor = floorRepository.save(defaultFloor);
-            System.out.println("Initialized default floor (Floor 1).");
-        } else {
-            // Get existing floor 1 or create it
-            defaultFloor = floorRepository.findByFloorNumber(1)
-                    .orElseGet(() -> {
-                        Floor floor = new Floor();
-                        floor.setFloorNumber(1);
-                        floor.setDescription("Ground Floor");
-                        return floorRepository.save(floor);
-                    });
-        }
-        
-        // Initialize parking slots (only if no slots exist)
-        if (slotRepository.count() == 0) {
-            // Create 20 slots on the default floor
-            // Distribute by vehicle type: 5 bikes, 10 cars, 3 microbuses, 2 trucks
-            String[] vehicleTypes = {"BIKE", "BIKE", "BIKE", "BIKE", "BIKE",
-                                     "CAR", "CAR", "CAR", "CAR", "CAR", "CAR", "CAR", "CAR", "CAR", "CAR",
-                                     "MICROBUS", "MICROBUS", "MICROBUS",
-                                     "TRUCK", "TRUCK"};
-            
-            for (int i = 1; i <= 20; i++) {
-                ParkingSlot slot = new ParkingSlot();
-                slot.setSlotNumber(i);
-                slot.setFloor(defaultFloor);
-                slot.setVehicleType(vehicleTypes[i - 1]);
-                slot.setOccupied(false);
-                slot.setVehicle(null);
-                slotRepository.save(slot);
-            }
-            System.out.println("Initialized 20 parking slots on Floor 1 in the database.");
+        // Floors and slots from the garage layout file (floors that already have slots are left alone;
+        // the default layout is skipped once any slot exists)
+        if (layoutLocation != null && !layoutLocation.isBlank()) {
+            log.info("{}", layoutLoader.loadAndSeed(layoutLocation.trim()));
         }
         
         // Initialize default admin users (pre-verified so they can login without OTP flow)
@@ -95,7 +67,7 @@ public class DataInitializer implements CommandLineRunner {
             operator.setEmailVerified(true);
             adminRepository.save(operator);
             
-            System.out.println("Initialized default admin users (admin/admin123, operator/operator123).");
+            log.info("Initialized default admin users (admin/admin123, operator/operator123)");
         }
         
         // Initialize default parking charges
@@ -111,7 +83,7 @@ public class DataInitializer implements CommandLineRunner {
                 chargeRepository.save(charge);
             }
             
-            System.out.println("Initialized default parking charges.");
+            log.info("Initialized default parking charges");
         }
     }
 }
@@ -0,0 +1,77 @@
+package com.smartparking.smart_parking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary / read-replica routing, enabled by setting parking.datasource.replica.url.
+ *
+ * The primary pool is the usual spring.datasource.* (+ spring.datasource.hikari.*); the replica
+ * pool is parking.datasource.replica.*. JPA and everything else see a single
+ * LazyConnectionDataSourceProxy over a ReadWriteRoutingDataSource.
+ * Without a replica URL this class is inactive and Boot's single pool is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "parking.datasource.replica", name = "url")
+public class DataSourceRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource replicaDataSource(@Value("${parking.datasource.replica.url}") String url,
+                                              @Value("${parking.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${parking.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                              @Value("${parking.datasource.replica.maximum-pool-size:10}") int maxPoolSize,
+                                              @Value("${parking.datasource.replica.connection-timeout-ms:2000}") long connectionTimeoutMs) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maxPoolSize);
+        dataSource.setConnectionTimeout(connectionTimeoutMs);
+        dataSource.setReadOnly(true);
+        // Do not fail startup when the replica is down: reads simply stay on the primary
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${parking.datasource.replica.max-lag-ms:5000}") long maxLagMs,
+                                               MeterRegistry meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primary, replica, maxLagMs, System::currentTimeMillis);
+        Gauge.builder("parking.datasource.replica.lag", monitor, ReplicaLagMonitor::getLagMs)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, replicaLagMonitor, meterRegistry);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,108 @@
+package com.smartparking.smart_parking.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Runtime control of the hot-path log categories (GET/PUT /admin/logging).
+ *
+ * - Hot paths log to categories instead of class loggers: parking.gate (park / exit events) and
+ *   parking.slots (slot view). Both are at INFO by default, so their DEBUG detail is off.
+ * - parking.logging.sample-every ("category:N,...") lets one in N events of a category through
+ *   once its level is lowered, so DEBUG can be switched on under full gate traffic without
+ *   flooding stdout. WARN and ERROR are never sampled.
+ */
+@Component
+public class LogSampling {
+
+    public static final String GATE = "parking.gate";
+    public static final String SLOTS = "parking.slots";
+
+    /** Level and sampling of one category; level null = inherited. */
+    public record CategorySettings(String category, String level, String effectiveLevel, int sampleEvery) {
+    }
+
+    private final LoggingSystem loggingSystem;
+    private final SamplingTurboFilter filter;
+    private final Set<String> categories = new LinkedHashSet<>(List.of(GATE, SLOTS));
+
+    public LogSampling(LoggingSystem loggingSystem, @Value("${parking.logging.sample-every:}") String sampleEvery) {
+        this.loggingSystem = loggingSystem;
+        this.filter = installFilter();
+        for (String entry : sampleEvery.split(",")) {
+            int colon = entry.lastIndexOf(':');
+            if (colon > 0) {
+                String category = entry.substring(0, colon).trim();
+                filter.setSampleEvery(category, Integer.parseInt(entry.substring(colon + 1).trim()));
+                categories.add(category);
+            }
+        }
+    }
+
+    public synchronized List<CategorySettings> getCategories() {
+        List<CategorySettings> settings = new ArrayList<>();
+        for (String category : categories) {
+            settings.add(describe(category));
+        }
+        return settings;
+    }
+
+    /**
+     * Changes the level and/or sampling of a category (either may be null to keep it).
+     * @throws RuntimeException for an unknown level name
+     */
+    public synchronized CategorySettings update(String category, String level, Integer sampleEvery) {
+        if (category == null || category.isBlank()) {
+            throw new RuntimeException("Log category is required");
+        }
+        if (level != null) {
+            LogLevel logLevel;
+            try {
+                logLevel = LogLevel.valueOf(level.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unknown log level: " + level);
+            }
+            loggingSystem.setLogLevel(category, logLevel);
+        }
+        if (sampleEvery != null) {
+            filter.setSampleEvery(category, sampleEvery);
+        }
+        categories.add(category);
+        return describe(category);
+    }
+
+    private CategorySettings describe(String category) {
+        LoggerConfiguration configuration = loggingSystem.getLoggerConfiguration(category);
+        String configured = configuration != null && configuration.getConfiguredLevel() != null
+                ? configuration.getConfiguredLevel().name() : null;
+        String effective = configuration != null ? configuration.getEffectiveLevel().name() : null;
+        return new CategorySettings(category, configured, effective, filter.getSampleEvery(category));
+    }
+
+    // Logback is re-initialised per application context, so the filter is looked up or added here
+    private static SamplingTurboFilter installFilter() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        return context.getTurboFilterList().stream()
+                .filter(SamplingTurboFilter.class::isInstance)
+                .map(SamplingTurboFilter.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    SamplingTurboFilter filter = new SamplingTurboFilter();
+                    filter.setContext(context);
+                    filter.start();
+                    context.addTurboFilter(filter);
+                    return filter;
+                });
+    }
+}
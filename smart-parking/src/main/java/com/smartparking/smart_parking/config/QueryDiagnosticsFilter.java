@@ -0,0 +1,121 @@
+package com.smartparking.smart_parking.config;
+
+import com.smartparking.smart_parking.service.QueryDiagnostics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Opens a QueryDiagnostics scope around each request and reports it in response headers:
+ *
+ *   X-Query-Count: 3            statements prepared
+ *   X-Query-Entities: 20        entities loaded
+ *   Server-Timing: db;dur=1.42  time spent executing them (ms)
+ *
+ * The headers are written just before the response is committed (first body write), which for
+ * JSON endpoints is after the controller has returned. Async endpoints (SSE, CompletableFuture)
+ * only report the work done on the request thread. The request is then added to the per-endpoint
+ * aggregate behind GET /admin/diagnostics/queries. parking.diagnostics.enabled=false turns it off.
+ */
+@Component
+public class QueryDiagnosticsFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String ENTITIES_HEADER = "X-Query-Entities";
+
+    private final QueryDiagnostics diagnostics;
+    private final boolean enabled;
+
+    public QueryDiagnosticsFilter(QueryDiagnostics diagnostics,
+                                  @Value("${parking.diagnostics.enabled:true}") boolean enabled) {
+        this.diagnostics = diagnostics;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryDiagnostics.Counters counters = diagnostics.begin();
+        HeaderWritingResponse wrapped = new HeaderWritingResponse(response, counters);
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            wrapped.writeHeaders();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            diagnostics.end(pattern != null ? request.getMethod() + " " + pattern : null, counters);
+        }
+    }
+
+    private static final class HeaderWritingResponse extends HttpServletResponseWrapper {
+
+        private final QueryDiagnostics.Counters counters;
+        private boolean written;
+
+        HeaderWritingResponse(HttpServletResponse response, QueryDiagnostics.Counters counters) {
+            super(response);
+            this.counters = counters;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(QUERY_COUNT_HEADER, String.valueOf(counters.getStatements()));
+            setHeader(ENTITIES_HEADER, String.valueOf(counters.getEntitiesLoaded()));
+            addHeader("Server-Timing", "db;dur=" + String.format(Locale.ROOT, "%.2f", counters.getDbMicros() / 1000.0));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
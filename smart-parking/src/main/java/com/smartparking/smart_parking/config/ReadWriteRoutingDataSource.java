@@ -0,0 +1,77 @@
+package com.smartparking.smart_parking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions (@Transactional(readOnly = true)) to the replica, everything else
+ * to the primary.
+ *
+ * - Must sit behind a LazyConnectionDataSourceProxy: the physical connection is then fetched on
+ *   the first statement, after the transaction manager has published the read-only flag.
+ * - The replica is only chosen while ReplicaLagMonitor reports it within the staleness cap.
+ * - If the replica cannot hand out a connection the read falls back to the primary and the
+ *   replica is taken out of rotation until the next successful lag check.
+ *
+ * Metrics: counter "parking.datasource.routing" (target = primary | replica | fallback).
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final DataSource primary;
+    private final ReplicaLagMonitor replicaMonitor;
+    private final MeterRegistry meterRegistry;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      ReplicaLagMonitor replicaMonitor, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicaMonitor = replicaMonitor;
+        this.meterRegistry = meterRegistry;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && replicaMonitor.isUsable() ? REPLICA : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            count(PRIMARY);
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = determineTargetDataSource().getConnection();
+            count(REPLICA);
+            return connection;
+        } catch (SQLException e) {
+            replicaMonitor.markDown("connection failed: " + e.getMessage());
+            count("fallback");
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credentials belong to the pools; route the same way
+        return getConnection();
+    }
+
+    private void count(String target) {
+        meterRegistry.counter("parking.datasource.routing", "target", target).increment();
+    }
+}
@@ -0,0 +1,90 @@
+package com.smartparking.smart_parking.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.smartparking.smart_parking.service.ReferenceDataCache;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size and age limits for the Hibernate second-level / query cache (Caffeine via JCache).
+ *
+ * - Every region gets at most parking.cache.max-entries entries and drops them
+ *   parking.cache.expire-after-write-seconds after they were cached. Both are "region:value" lists;
+ *   "default" applies to regions without their own entry.
+ * - ReferenceDataCache evicts only this node's cache, so the age also bounds how long other
+ *   nodes keep serving floors, charges or a slot layout changed elsewhere.
+ * - Hibernate's update-timestamps region is never bounded: cached query results are only
+ *   checked against it, an evicted timestamp would let stale results through.
+ * - Regions are created here up front (missing_cache_strategy=fail): a new cached entity without
+ *   limits fails at startup instead of getting an unbounded cache.
+ */
+@Configuration
+public class ReferenceCacheConfig {
+
+    static final String DEFAULT = "default";
+
+    // Own manager per application context (tests start several); never the provider's shared default
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${parking.cache.max-entries:default:1000}") String maxEntries,
+                                              @Value("${parking.cache.expire-after-write-seconds:default:600}") String expireAfterWrite) {
+        Map<String, Long> sizes = parse(maxEntries);
+        Map<String, Long> ages = parse(expireAfterWrite);
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("smart-parking-" + UUID.randomUUID()), getClass().getClassLoader());
+        List<String> regions = new ArrayList<>(ReferenceDataCache.REGIONS);
+        regions.add(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+        for (String region : regions) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(limit(sizes, region)));
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(limit(ages, region))));
+            cacheManager.createCache(region, configuration);
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    static Map<String, Long> parse(String limits) {
+        Map<String, Long> parsed = new HashMap<>();
+        for (String entry : limits.split(",")) {
+            int colon = entry.lastIndexOf(':');
+            if (colon > 0) {
+                parsed.put(entry.substring(0, colon).trim(), Long.parseLong(entry.substring(colon + 1).trim()));
+            }
+        }
+        return parsed;
+    }
+
+    private static long limit(Map<String, Long> limits, String region) {
+        Long limit = limits.getOrDefault(region, limits.get(DEFAULT));
+        if (limit == null || limit <= 0) {
+            throw new IllegalStateException("No positive cache limit for region " + region
+                    + " (parking.cache.max-entries / parking.cache.expire-after-write-seconds need a \"default\" entry)");
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,109 @@
+package com.smartparking.smart_parking.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Measures how far the read replica lags behind the primary with a heartbeat row.
+ *
+ * Every parking.datasource.replica.heartbeat-ms the current time is written to
+ * replica_heartbeat on the primary and read back from the replica; the difference is the lag.
+ * The replica is usable only while the lag is within max-lag-ms and the read succeeded.
+ * Until the first successful check it is not used.
+ *
+ * A check's verdict only holds until the measured lag plus the time since the check reaches
+ * max-lag-ms: if checks stop running (scheduler busy, primary writes failing), the replica
+ * drops out of rotation on its own instead of staying "usable" while it falls behind.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+    private final LongSupplier clock;
+
+    private volatile long lagMs = -1;
+    private volatile boolean usable;
+    // Clock time up to which the last good check guarantees the cap
+    private volatile long usableUntil = Long.MIN_VALUE;
+    private boolean tableReady;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMs, LongSupplier clock) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMs = maxLagMs;
+        this.clock = clock;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${parking.datasource.replica.heartbeat-ms:1000}")
+    public void check() {
+        long now = clock.getAsLong();
+        try {
+            if (!tableReady) {
+                primary.execute(CREATE_TABLE);
+                tableReady = true;
+            }
+            if (primary.update("UPDATE replica_heartbeat SET beat_millis = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, ?)", now);
+            }
+        } catch (RuntimeException e) {
+            // Primary trouble is not the replica's fault: keep the last verdict, which expires on its own
+            log.warn("Replica heartbeat write failed: {}", e.getMessage());
+            return;
+        }
+        try {
+            List<Long> beats = replica.queryForList("SELECT beat_millis FROM replica_heartbeat WHERE id = 1", Long.class);
+            if (beats.isEmpty()) {
+                markUnusable(-1, "no heartbeat replicated yet");
+                return;
+            }
+            long lag = Math.max(0, now - beats.get(0));
+            if (lag > maxLagMs) {
+                markUnusable(lag, "lag " + lag + " ms exceeds " + maxLagMs + " ms");
+                return;
+            }
+            if (!usable) {
+                log.info("Read replica usable again (lag {} ms)", lag);
+            }
+            lagMs = lag;
+            usableUntil = now + maxLagMs - lag;
+            usable = true;
+        } catch (RuntimeException e) {
+            markUnusable(-1, e.getMessage());
+        }
+    }
+
+    /** Called by the router when a replica connection fails: stop routing until the next good check. */
+    public void markDown(String reason) {
+        markUnusable(lagMs, reason);
+    }
+
+    public boolean isUsable() {
+        return usable && clock.getAsLong() <= usableUntil;
+    }
+
+    /** Last measured lag in ms, -1 if unknown. */
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    private void markUnusable(long lag, String reason) {
+        if (usable) {
+            log.warn("Read replica not used, reads go to the primary: {}", reason);
+        }
+        lagMs = lag;
+        usableUntil = Long.MIN_VALUE;
+        usable = false;
+    }
+}
@@ -0,0 +1,87 @@
+package com.smartparking.smart_parking.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback filter that lets through one in N events per logger category (longest name prefix wins,
+ * "parking.gate" also covers "parking.gate.exit"). WARN and ERROR are never sampled, and only
+ * events that pass the logger's level are counted, so a category at INFO costs nothing for its
+ * DEBUG calls. Rates are changed at runtime through LogSampling.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final Sampler ALL = new Sampler(1);
+
+    private final Map<String, Sampler> rates = new ConcurrentHashMap<>();
+    // Logger name -> sampler of its category (or ALL), cleared whenever a rate changes
+    private final Map<String, Sampler> resolved = new ConcurrentHashMap<>();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format == null: isDebugEnabled() style checks, which must not use up a sample
+        if (format == null || rates.isEmpty() || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Sampler sampler = resolved.computeIfAbsent(logger.getName(), this::samplerFor);
+        return sampler.next() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /** Lets one in sampleEvery events of the category through; 1 or less removes sampling. */
+    public void setSampleEvery(String category, int sampleEvery) {
+        if (sampleEvery <= 1) {
+            rates.remove(category);
+        } else {
+            rates.put(category, new Sampler(sampleEvery));
+        }
+        resolved.clear();
+    }
+
+    public int getSampleEvery(String category) {
+        Sampler sampler = rates.get(category);
+        return sampler != null ? sampler.every : 1;
+    }
+
+    public Map<String, Integer> getSampleRates() {
+        Map<String, Integer> copy = new TreeMap<>();
+        rates.forEach((category, sampler) -> copy.put(category, sampler.every));
+        return copy;
+    }
+
+    private Sampler samplerFor(String loggerName) {
+        String name = loggerName;
+        while (true) {
+            Sampler sampler = rates.get(name);
+            if (sampler != null) {
+                return sampler;
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                return ALL;
+            }
+            name = name.substring(0, dot);
+        }
+    }
+
+    private static final class Sampler {
+        private final int every;
+        private final AtomicLong events = new AtomicLong();
+
+        private Sampler(int every) {
+            this.every = every;
+        }
+
+        boolean next() {
+            return every <= 1 || events.getAndIncrement() % every == 0;
+        }
+    }
+}
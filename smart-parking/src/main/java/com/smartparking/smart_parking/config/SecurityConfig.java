@@ -1,5 +1,6 @@
 package com.smartparking.smart_parking.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -8,9 +9,16 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Security config: permit all HTTP (auth is handled by AdminController sessions)
  * and expose BCrypt PasswordEncoder for signup/login.
+ * BCrypt checks run on their own small bounded pool so a login burst cannot take every core.
  */
 @Configuration
 @EnableWebSecurity
@@ -28,4 +36,24 @@ public class SecurityConfig {
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
+
+    /**
+     * Bounded pool for password verification. When all threads are busy and the queue is full,
+     * submissions are rejected (AbortPolicy) and the login is answered with 429.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService passwordHashExecutor(
+            @Value("${admin.login.hash-threads:0}") int threads,
+            @Value("${admin.login.hash-queue-capacity:64}") int queueCapacity) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
 }
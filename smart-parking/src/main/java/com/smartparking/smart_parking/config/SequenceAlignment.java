@@ -0,0 +1,92 @@
+package com.smartparking.smart_parking.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+
+/**
+ * Moves the pooled id sequences past the ids already in their tables.
+ *
+ * Tables that used IDENTITY ids before switching to sequences get their *_seq created by
+ * ddl-auto starting at 1, so the first inserts would collide with existing rows. At startup,
+ * before any runner or request writes, every sequence behind max(id) of its table is restarted
+ * at max(id) + allocationSize (the pooled optimizer hands out the block ending at that value).
+ * Sequences that are already ahead are left alone, so restarts and other nodes are unaffected.
+ * Databases without sequences (Hibernate's table emulation, e.g. MySQL) get next_val raised.
+ */
+@Component
+public class SequenceAlignment implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceAlignment.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbc;
+
+    public SequenceAlignment(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        align();
+    }
+
+    /** Returns the number of sequences that had to be moved. */
+    public int align() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        int moved = 0;
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> type = entity.getJavaType();
+            Table table = type.getAnnotation(Table.class);
+            SequenceGenerator generator = sequenceGenerator(type);
+            if (table == null || generator == null) {
+                continue;
+            }
+            if (align(dialect, table.name(), generator.sequenceName(), generator.allocationSize())) {
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    private boolean align(Dialect dialect, String table, String sequence, int allocationSize) {
+        Long maxId = jdbc.queryForObject("SELECT max(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return false;
+        }
+        long restartAt = maxId + allocationSize;
+        if (!dialect.getSequenceSupport().supportsSequences()) {
+            return jdbc.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val <= ?", restartAt, maxId) > 0;
+        }
+        // Consumes one value; a sequence that is ahead just skips a block
+        Long next = jdbc.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+        if (next != null && next > maxId) {
+            return false;
+        }
+        jdbc.execute(dialect.getSequenceSupport().getRestartSequenceString(sequence, restartAt));
+        log.info("Sequence {} was at {}, behind max id {} of {}; restarted at {}", sequence, next, maxId, table, restartAt);
+        return true;
+    }
+
+    private static SequenceGenerator sequenceGenerator(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            SequenceGenerator generator = field.getAnnotation(SequenceGenerator.class);
+            if (generator != null) {
+                return generator;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,165 @@
+package com.smartparking.smart_parking.config;
+
+import com.smartparking.smart_parking.model.ParkingCharge;
+import com.smartparking.smart_parking.model.ParkingRecord;
+import com.smartparking.smart_parking.repository.FloorRepository;
+import com.smartparking.smart_parking.repository.ParkingChargeRepository;
+import com.smartparking.smart_parking.repository.ParkingRecordRepository;
+import com.smartparking.smart_parking.repository.SlotLayoutRepository;
+import com.smartparking.smart_parking.service.ParkingMetrics;
+import com.smartparking.smart_parking.service.ParkingServiceDB;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm-up before the instance reports ready (/actuator/health/readiness).
+ *
+ * Runs as the last startup runner: Spring Boot only switches readiness to ACCEPTING_TRAFFIC once
+ * all runners are done, so the load balancer keeps gate traffic away until the warm-up finishes.
+ *
+ * 1. In parallel: active parking records and the slot view, the slot layout, floors and tariffs
+ *    (fills the second-level / query caches and opens pool connections).
+ * 2. Synthetic park + slot view + exit per tariff vehicle type, parking.warmup.iterations times,
+ *    each in a shadow transaction that is always rolled back, so nothing is written and the
+ *    Hibernate / JIT paths of the gate calls are hot before the first real car arrives.
+ *    The warm-up's gate calls run unmetered, so parking.park / exit / slots.view only see real traffic.
+ *
+ * A failing warm-up is reported and does not stop the application. Duration: timer "parking.warmup".
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    static final String PLATE_PREFIX = "WARMUP-";
+
+    private final ParkingServiceDB parkingService;
+    private final ParkingMetrics parkingMetrics;
+    private final ParkingRecordRepository recordRepo;
+    private final SlotLayoutRepository slotLayoutRepo;
+    private final FloorRepository floorRepo;
+    private final ParkingChargeRepository chargeRepo;
+    private final TransactionTemplate shadowTransaction;
+    private final Timer warmupTimer;
+    private final boolean enabled;
+    private final int iterations;
+    private final long loadTimeoutMs;
+
+    public StartupWarmup(ParkingServiceDB parkingService, ParkingMetrics parkingMetrics, ParkingRecordRepository recordRepo,
+                         SlotLayoutRepository slotLayoutRepo, FloorRepository floorRepo,
+                         ParkingChargeRepository chargeRepo, PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${parking.warmup.enabled:true}") boolean enabled,
+                         @Value("${parking.warmup.iterations:50}") int iterations,
+                         @Value("${parking.warmup.load-timeout-ms:30000}") long loadTimeoutMs) {
+        this.parkingService = parkingService;
+        this.parkingMetrics = parkingMetrics;
+        this.recordRepo = recordRepo;
+        this.slotLayoutRepo = slotLayoutRepo;
+        this.floorRepo = floorRepo;
+        this.chargeRepo = chargeRepo;
+        this.shadowTransaction = new TransactionTemplate(transactionManager);
+        this.warmupTimer = Timer.builder("parking.warmup").register(meterRegistry);
+        this.enabled = enabled;
+        this.iterations = Math.max(0, iterations);
+        this.loadTimeoutMs = loadTimeoutMs;
+    }
+
+    /** What the warm-up touched, for the startup report. */
+    public record WarmupReport(int activeRecords, int layoutSlots, int tariffs, int syntheticCycles, long millis) {
+
+        @Override
+        public String toString() {
+            return "Warm-up done in " + millis + " ms: " + activeRecords + " active record(s), " + layoutSlots
+                    + " slot(s) in layout, " + tariffs + " tariff(s), " + syntheticCycles + " synthetic park/exit cycle(s)";
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            log.info("{}", warmUp());
+        } catch (Exception e) {
+            log.warn("Warm-up failed, continuing cold", e);
+        }
+    }
+
+    public WarmupReport warmUp() throws Exception {
+        long start = System.nanoTime();
+
+        List<ParkingCharge> tariffs;
+        int activeRecords;
+        int layoutSlots;
+        try (ExecutorService loaders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("warmup-", 0).factory())) {
+            CompletableFuture<Integer> records = CompletableFuture.supplyAsync(() -> {
+                int active = recordRepo.findByExitTimeIsNullOrderByEntryTimeDesc().size();
+                parkingMetrics.unmetered(parkingService::getAllSlots);
+                return active;
+            }, loaders);
+            CompletableFuture<Integer> layout = CompletableFuture.supplyAsync(
+                    () -> slotLayoutRepo.findAllByOrderByFloorNumberAscSlotNumberAsc().size(), loaders);
+            CompletableFuture<List<ParkingCharge>> charges = CompletableFuture.supplyAsync(() -> {
+                floorRepo.findAllByOrderByFloorNumberAsc();
+                return chargeRepo.findAll();
+            }, loaders);
+            CompletableFuture.allOf(records, layout, charges).get(loadTimeoutMs, TimeUnit.MILLISECONDS);
+            activeRecords = records.join();
+            layoutSlots = layout.join();
+            tariffs = charges.join();
+        }
+
+        int cycles = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (ParkingCharge tariff : tariffs) {
+                if (tariff.isActive() && shadowParkAndExit(tariff.getVehicleType(), i)) {
+                    cycles++;
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        warmupTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        return new WarmupReport(activeRecords, layoutSlots, tariffs.size(), cycles, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /**
+     * One park / slot view / exit cycle in a transaction that is rolled back. The gate calls join it
+     * (OptimisticRetry does not open its own transaction inside an active one).
+     * @return false if the type has no free slot right now
+     */
+    private boolean shadowParkAndExit(String vehicleType, int iteration) {
+        Boolean done = parkingMetrics.unmetered(() -> shadowTransaction.execute(status -> {
+            status.setRollbackOnly();
+            ParkingRecord parked;
+            try {
+                parked = parkingService.parkVehicle(PLATE_PREFIX + vehicleType + "-" + iteration, vehicleType);
+            } catch (RuntimeException e) {
+                return false;
+            }
+            parkingService.getAllSlotsByFloor(parked.getFloorNumber());
+            parkingService.exitVehicleBySlot(parked.getSlotNumber(), parked.getFloorNumber());
+            return true;
+        }));
+        return Boolean.TRUE.equals(done);
+    }
+}
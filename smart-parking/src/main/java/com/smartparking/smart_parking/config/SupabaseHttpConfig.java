@@ -0,0 +1,71 @@
+package com.smartparking.smart_parking.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * HTTP client used for Supabase REST/Auth calls.
+ *
+ * - Pooled keep-alive connections (supabase.http.max-connections / max-connections-per-route)
+ * - Connect, response and pool-wait timeouts, so a slow Supabase cannot hold a request thread
+ * - Idle and expired connections are evicted in the background
+ * - Apache's own retries are disabled; SupabaseHttpClient decides what is safe to retry
+ */
+@Configuration
+public class SupabaseHttpConfig {
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient supabaseApacheHttpClient(
+            @Value("${supabase.http.max-connections:50}") int maxConnections,
+            @Value("${supabase.http.max-connections-per-route:20}") int maxConnectionsPerRoute,
+            @Value("${supabase.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${supabase.http.response-timeout-ms:5000}") long responseTimeoutMs,
+            @Value("${supabase.http.pool-timeout-ms:1000}") long poolTimeoutMs) {
+        return buildHttpClient(maxConnections, maxConnectionsPerRoute, connectTimeoutMs, responseTimeoutMs, poolTimeoutMs);
+    }
+
+    @Bean
+    public RestTemplate supabaseRestTemplate(@Qualifier("supabaseApacheHttpClient") CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    /**
+     * Builds the pooled client; also used directly by tests against a local stub server.
+     */
+    public static CloseableHttpClient buildHttpClient(int maxConnections, int maxConnectionsPerRoute,
+                                                      long connectTimeoutMs, long responseTimeoutMs,
+                                                      long poolTimeoutMs) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnectionsPerRoute)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .setTimeToLive(TimeValue.ofMinutes(5))
+                .build())
+            .build();
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                .build())
+            .disableAutomaticRetries()
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofSeconds(30))
+            .build();
+    }
+}
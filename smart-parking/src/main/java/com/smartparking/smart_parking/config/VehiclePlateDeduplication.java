@@ -0,0 +1,87 @@
+package com.smartparking.smart_parking.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Merges vehicles rows that share a license plate, left over from when every entry inserted a
+ * new row, and then adds the unique key on license_plate.
+ *
+ * ddl-auto cannot add ux_vehicles_license_plate while duplicates exist, and the registry's
+ * lookup by plate would fail on them. At startup, before any runner or request writes, each
+ * duplicated plate keeps its lowest id: the visits of all its rows are added up (a legacy row
+ * without a count is one visit), the latest entry wins, parking_slots.vehicle_id is moved to
+ * the kept row and the other rows are deleted. Nothing happens when there are no duplicates.
+ */
+@Component
+public class VehiclePlateDeduplication implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(VehiclePlateDeduplication.class);
+
+    static final String ADD_UNIQUE_KEY = "ALTER TABLE vehicles ADD CONSTRAINT ux_vehicles_license_plate UNIQUE (license_plate)";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+
+    public VehiclePlateDeduplication(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        deduplicate();
+    }
+
+    /** Returns the number of plates that had more than one row. */
+    public int deduplicate() {
+        List<String> plates = jdbc.queryForList(
+                "SELECT license_plate FROM vehicles GROUP BY license_plate HAVING COUNT(*) > 1", String.class);
+        if (plates.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> plates.forEach(this::merge));
+        jdbc.execute(ADD_UNIQUE_KEY);
+        log.info("Merged duplicate vehicles rows for {} plate(s) and added ux_vehicles_license_plate", plates.size());
+        return plates.size();
+    }
+
+    private void merge(String licensePlate) {
+        List<VehicleRow> rows = jdbc.query(
+                "SELECT id, vehicle_type, entry_time, visit_count FROM vehicles WHERE license_plate = ? ORDER BY id",
+                (rs, i) -> new VehicleRow(rs.getLong("id"), rs.getString("vehicle_type"),
+                        rs.getTimestamp("entry_time"), rs.getInt("visit_count")),
+                licensePlate);
+        VehicleRow kept = rows.get(0);
+        VehicleRow latest = kept;
+        int visits = 0;
+        for (VehicleRow row : rows) {
+            visits += Math.max(1, row.visitCount());
+            if (isAfter(row.entryTime(), latest.entryTime())) {
+                latest = row;
+            }
+        }
+        for (VehicleRow row : rows.subList(1, rows.size())) {
+            jdbc.update("UPDATE parking_slots SET vehicle_id = ? WHERE vehicle_id = ?", kept.id(), row.id());
+            jdbc.update("DELETE FROM vehicles WHERE id = ?", row.id());
+        }
+        jdbc.update("UPDATE vehicles SET vehicle_type = ?, entry_time = ?, visit_count = ? WHERE id = ?",
+                latest.vehicleType(), latest.entryTime(), visits, kept.id());
+    }
+
+    private static boolean isAfter(Timestamp candidate, Timestamp current) {
+        return candidate != null && (current == null || candidate.after(current));
+    }
+
+    private record VehicleRow(long id, String vehicleType, Timestamp entryTime, int visitCount) {
+    }
+}
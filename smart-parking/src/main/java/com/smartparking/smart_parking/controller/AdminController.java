@@ -1,19 +1,40 @@
 package com.smartparking.smart_parking.controller;
 
+import com.smartparking.smart_parking.config.LogSampling;
 import com.smartparking.smart_parking.exception.AccountNotActivatedException;
 import com.smartparking.smart_parking.exception.EmailNotVerifiedException;
+import com.smartparking.smart_parking.exception.LoginThrottledException;
 import com.smartparking.smart_parking.model.*;
 import com.smartparking.smart_parking.service.AdminService;
+import com.smartparking.smart_parking.service.AdminSessionStore;
+import com.smartparking.smart_parking.service.AdminTokenService;
+import com.smartparking.smart_parking.service.AuditJournal;
+import com.smartparking.smart_parking.service.LoginRateLimiter;
+import com.smartparking.smart_parking.service.QueryDiagnostics;
+import com.smartparking.smart_parking.service.SupabaseService;
+import com.smartparking.smart_parking.service.SupabaseJwtVerifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
 @RestController
 @RequestMapping("/admin")
@@ -22,13 +43,70 @@ public class AdminController {
     
     private final AdminService adminService;
     
-    // Simple session management (in production, use JWT or Spring Security)
-    private final Map<String, Admin> activeSessions = new HashMap<>();
-    // Map to store Supabase tokens -> backend sessions (bridge)
-    private final Map<String, String> supabaseTokenToSession = new HashMap<>();
+    // Concurrent session store with sliding expiry (backend tokens + Supabase token bridge)
+    private final AdminSessionStore sessionStore;
     
-    public AdminController(AdminService adminService) {
+    // Stateless signed tokens (admin.token.mode=signed), verifiable on any node
+    private final AdminTokenService tokenService;
+    
+    // Local verification of Supabase access tokens (no network call per token)
+    private final SupabaseJwtVerifier jwtVerifier;
+    
+    // Per-username / per-IP token buckets checked before any password hashing
+    private final LoginRateLimiter loginRateLimiter;
+    
+    // Supabase REST/Auth calls; the *Async variants run on virtual threads
+    private final SupabaseService supabaseService;
+    
+    // Use the first X-Forwarded-For hop as client IP (only behind a trusted proxy)
+    private final boolean trustForwardedFor;
+    
+    // Bulk slot provisioning with streamed progress; at most maxProvisioningJobs run at once
+    private static final String PROVISIONING_RETRY_AFTER_SECONDS = "30";
+    private final ExecutorService provisioningExecutor;
+    private final long provisioningTimeoutMs;
+    private final Semaphore provisioningJobs;
+    
+    // Runtime log level / sampling of the hot-path categories
+    private final LogSampling logSampling;
+    
+    // Per-endpoint statement counts / DB time
+    private final QueryDiagnostics queryDiagnostics;
+    
+    public AdminController(AdminService adminService, AdminSessionStore sessionStore,
+                           AdminTokenService tokenService, SupabaseJwtVerifier jwtVerifier,
+                           LoginRateLimiter loginRateLimiter, SupabaseService supabaseService,
+                           @Value("${admin.login.trust-forwarded-for:false}") boolean trustForwardedFor,
+                           @Qualifier("provisioningExecutor") ExecutorService provisioningExecutor,
+                           @Value("${parking.provisioning.stream-timeout-ms:600000}") long provisioningTimeoutMs,
+                           @Value("${parking.provisioning.max-concurrent-jobs:2}") int maxProvisioningJobs,
+                           LogSampling logSampling, QueryDiagnostics queryDiagnostics) {
         this.adminService = adminService;
+        this.sessionStore = sessionStore;
+        this.tokenService = tokenService;
+        this.jwtVerifier = jwtVerifier;
+        this.loginRateLimiter = loginRateLimiter;
+        this.supabaseService = supabaseService;
+        this.trustForwardedFor = trustForwardedFor;
+        this.provisioningExecutor = provisioningExecutor;
+        this.provisioningTimeoutMs = provisioningTimeoutMs;
+        this.provisioningJobs = new Semaphore(maxProvisioningJobs);
+        this.logSampling = logSampling;
+        this.queryDiagnostics = queryDiagnostics;
+    }
+    
+    /**
+     * Strips an optional "Bearer " prefix from the Authorization header value.
+     */
+    private static String normalizeToken(String token) {
+        if (token == null) {
+            return null;
+        }
+        token = token.trim();
+        if (token.startsWith("Bearer ")) {
+            token = token.substring(7).trim();
+        }
+        return token.isEmpty() ? null : token;
     }
     
     /**
@@ -36,80 +114,75 @@ public class AdminController {
      * Supports both backend session tokens and Supabase JWT tokens
      */
     private boolean isValidToken(String token) {
-        if (token == null || token.trim().isEmpty()) {
+        token = normalizeToken(token);
+        if (token == null) {
             return false;
         }
         
-        // Check if it's a backend session token
-        if (activeSessions.containsKey(token)) {
+        // Signed token: verified locally, no session lookup
+        if (tokenService.isSignedToken(token)) {
+            return tokenService.verify(token) != null;
+        }
+        
+        // Backend session token, or a Supabase token that already has a bridge session
+        if (sessionStore.get(token) != null) {
             return true;
         }
         
-        // Check if it's a Supabase JWT token (starts with "eyJ" - JWT base64 header)
-        // For Supabase tokens, we'll create a bridge session
+        // Supabase JWT (starts with "eyJ" - JWT base64 header): verify signature, expiry and
+        // claims locally, then bridge it to a backend session that expires with the token
         if (token.startsWith("eyJ")) {
-            // Check if we already have a session for this Supabase token
-            if (supabaseTokenToSession.containsKey(token)) {
-                String sessionToken = supabaseTokenToSession.get(token);
-                return activeSessions.containsKey(sessionToken);
-            }
-            
-            // Create a bridge session for Supabase token
-            // In production, you should validate the JWT properly
-            // For now, we'll create a temporary admin session
-            try {
-                // Create a default admin session for Supabase-authenticated users
-                // You can enhance this by extracting user info from JWT
-                String sessionToken = "supabase_" + System.currentTimeMillis();
-                Admin supabaseAdmin = new Admin();
-                supabaseAdmin.setUsername("supabase_user");
-                supabaseAdmin.setRole("ADMIN");
-                supabaseAdmin.setActive(true);
-                
-                activeSessions.put(sessionToken, supabaseAdmin);
-                supabaseTokenToSession.put(token, sessionToken);
-                
-                return true;
-            } catch (Exception e) {
+            SupabaseJwtVerifier.Claims claims = jwtVerifier.verify(token);
+            if (claims == null) {
                 return false;
             }
+            Admin supabaseAdmin = new Admin();
+            supabaseAdmin.setUsername(claims.email() != null ? claims.email() : claims.subject());
+            supabaseAdmin.setEmail(claims.email());
+            supabaseAdmin.setRole("ADMIN");
+            supabaseAdmin.setActive(true);
+            sessionStore.bridge(token, supabaseAdmin, claims.expiresAt().toEpochMilli());
+            return true;
         }
         
         return false;
     }
     
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma >= 0 ? forwarded.substring(0, comma) : forwarded).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+    
     /**
      * Gets admin from token (supports both session tokens and Supabase tokens)
      */
     private Admin getAdminFromToken(String token) {
-        if (token == null) {
-            return null;
-        }
-        
-        // Backend session token
-        if (activeSessions.containsKey(token)) {
-            return activeSessions.get(token);
-        }
-        
-        // Supabase token - get bridge session
-        if (token.startsWith("eyJ") && supabaseTokenToSession.containsKey(token)) {
-            String sessionToken = supabaseTokenToSession.get(token);
-            return activeSessions.get(sessionToken);
+        token = normalizeToken(token);
+        if (tokenService.isSignedToken(token)) {
+            return tokenService.verify(token);
         }
-        
-        return null;
+        return sessionStore.get(token);
     }
     
     // ===================== AUTHENTICATION =====================
     
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestParam String username, 
-                                    @RequestParam String password) {
+                                    @RequestParam String password,
+                                    HttpServletRequest request) {
         try {
+            loginRateLimiter.acquire(username, clientIp(request));
             Admin admin = adminService.authenticate(username, password);
             if (admin != null) {
-                String sessionToken = "session_" + System.currentTimeMillis();
-                activeSessions.put(sessionToken, admin);
+                String sessionToken = tokenService.isSignedMode()
+                    ? tokenService.issue(admin)
+                    : sessionStore.create(admin);
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", true);
                 response.put("token", sessionToken);
@@ -141,8 +214,15 @@ public class AdminController {
                 "success", false,
                 "message", "Account not activated"
             ));
+        } catch (LoginThrottledException e) {
+            return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+                ));
         } catch (Exception e) {
-            System.err.println("Login error: " + e.getMessage());
+            log.error("Login failed", e);
             return ResponseEntity.status(500).body(Map.of(
                 "success", false,
                 "message", e.getMessage()
@@ -192,32 +272,38 @@ public class AdminController {
     
     /**
      * Confirm email verified after Supabase verifyOtp. Requires Supabase access token in Authorization header.
+     * Async: the token lookup may call Supabase, so the request thread is released while it runs.
      */
     @PostMapping(value = "/confirm-email-verified", consumes = "application/json", produces = "application/json")
-    public ResponseEntity<?> confirmEmailVerified(
+    public CompletableFuture<ResponseEntity<?>> confirmEmailVerified(
             @RequestBody Map<String, String> request,
             @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        try {
-            String email = request != null ? request.get("email") : null;
-            if (email == null || email.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Email is required"));
-            }
-            String token = null;
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                token = authHeader.substring(7).trim();
-            }
-            if (token == null || token.isEmpty()) {
-                return ResponseEntity.status(401).body(Map.of("success", false, "message", "Authorization token is required"));
-            }
-            adminService.confirmEmailVerified(email.trim(), token);
-            return ResponseEntity.ok(Map.of("success", true, "message", "Email verified. You can now log in."));
-        } catch (RuntimeException e) {
-            String msg = e.getMessage() != null ? e.getMessage() : "Verification failed";
-            return ResponseEntity.badRequest().body(Map.of("success", false, "message", msg));
-        } catch (Exception e) {
-            String msg = e.getMessage() != null ? e.getMessage() : "Verification failed";
-            return ResponseEntity.status(500).body(Map.of("success", false, "message", "Verification failed: " + msg));
-        }
+        String email = request != null ? request.get("email") : null;
+        if (email == null || email.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(Map.of("success", false, "message", "Email is required")));
+        }
+        String token = null;
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            token = authHeader.substring(7).trim();
+        }
+        if (token == null || token.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.status(401).body(Map.of("success", false, "message", "Authorization token is required")));
+        }
+        return supabaseService.getUserEmailFromAccessTokenAsync(token)
+            .<ResponseEntity<?>>thenApply(tokenEmail -> {
+                adminService.markEmailVerifiedBySupabase(email.trim(), tokenEmail);
+                return ResponseEntity.ok(Map.of("success", true, "message", "Email verified. You can now log in."));
+            })
+            .exceptionally(ex -> {
+                Throwable e = unwrap(ex);
+                String msg = e.getMessage() != null ? e.getMessage() : "Verification failed";
+                if (e instanceof RuntimeException) {
+                    return ResponseEntity.badRequest().body(Map.of("success", false, "message", msg));
+                }
+                return ResponseEntity.status(500).body(Map.of("success", false, "message", "Verification failed: " + msg));
+            });
     }
 
     /**
@@ -260,20 +346,19 @@ public class AdminController {
     
     @PostMapping("/logout")
     public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
-        String token = authHeader;
-        if (token != null && token.startsWith("Bearer ")) token = token.substring(7).trim();
-        if (token != null && !token.isEmpty() && activeSessions.containsKey(token)) {
-            activeSessions.remove(token);
+        String token = normalizeToken(authHeader);
+        if (tokenService.isSignedToken(token)) {
+            tokenService.revoke(token);
+        } else {
+            sessionStore.invalidate(token);
         }
         return ResponseEntity.ok(Map.of("success", true));
     }
     
     @GetMapping("/verify")
     public ResponseEntity<?> verifySession(@RequestHeader(value = "Authorization", required = false) String authHeader) {
-        String token = authHeader;
-        if (token != null && token.startsWith("Bearer ")) token = token.substring(7).trim();
-        if (token != null && !token.isEmpty() && activeSessions.containsKey(token)) {
-            Admin admin = activeSessions.get(token);
+        Admin admin = getAdminFromToken(authHeader);
+        if (admin != null) {
             return ResponseEntity.ok(Map.of(
                 "valid", true,
                 "admin", Map.of(
@@ -326,17 +411,14 @@ public class AdminController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Floor number is required"));
             }
             
-            System.out.println("Creating floor: " + floorNum + ", description: " + desc);
             Floor floor = adminService.createFloor(floorNum, desc);
-            System.out.println("Floor created successfully: " + floor.getId());
+            log.info("Floor {} created (id {})", floorNum, floor.getId());
             return ResponseEntity.ok(floor);
         } catch (RuntimeException e) {
-            System.err.println("Error creating floor: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Floor creation rejected: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error creating floor: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Floor creation failed", e);
             return ResponseEntity.status(500).body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
     }
@@ -363,6 +445,58 @@ public class AdminController {
     
     // ===================== SLOT MANAGEMENT =====================
     
+    /**
+     * Creates a floor directly in Supabase (service role, bypasses RLS), so it requires an admin
+     * token. Async: runs on a virtual thread, so a slow Supabase does not hold a request thread.
+     */
+    @PostMapping("/supabase/floors")
+    public CompletableFuture<ResponseEntity<?>> createSupabaseFloor(
+            @RequestBody Map<String, Object> body,
+            @RequestHeader(value = "Authorization", required = false) String token) {
+        if (!isValidToken(token)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).body(Map.of("error", "Unauthorized")));
+        }
+        Object floorNumber = body != null ? body.get("floorNumber") : null;
+        if (floorNumber == null) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(Map.of("error", "Floor number is required")));
+        }
+        Integer floorNum;
+        try {
+            floorNum = Integer.valueOf(floorNumber.toString());
+        } catch (NumberFormatException e) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(Map.of("error", "Invalid floor number")));
+        }
+        String desc = body.get("description") != null ? body.get("description").toString() : null;
+        return supabaseService.createFloorDirectAsync(floorNum, desc)
+            .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+            .exceptionally(AdminController::supabaseError);
+    }
+    
+    /**
+     * Lists floors directly from Supabase (service role). Admin token and async, like createSupabaseFloor.
+     */
+    @GetMapping("/supabase/floors")
+    public CompletableFuture<ResponseEntity<?>> getSupabaseFloors(
+            @RequestHeader(value = "Authorization", required = false) String token) {
+        if (!isValidToken(token)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).body(Map.of("error", "Unauthorized")));
+        }
+        return supabaseService.getAllFloorsDirectAsync()
+            .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+            .exceptionally(AdminController::supabaseError);
+    }
+    
+    private static ResponseEntity<?> supabaseError(Throwable ex) {
+        Throwable e = unwrap(ex);
+        return ResponseEntity.status(502).body(Map.of("error", e.getMessage() != null ? e.getMessage() : "Supabase request failed"));
+    }
+    
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+    
     @PostMapping("/slots/add")
     public ResponseEntity<?> addSlots(
             @RequestParam Integer floorNumber,
@@ -384,6 +518,70 @@ public class AdminController {
         }
     }
     
+    /**
+     * Same as /slots/add for very large floors: answers immediately with an event stream
+     * ("progress" after each batch, then "done" or "error"). The slots are committed together.
+     * Requires an admin token. Only parking.provisioning.max-concurrent-jobs streams run at once;
+     * beyond that the request is answered 503 with Retry-After instead of being queued.
+     */
+    @PostMapping(value = "/slots/add/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> addSlotsStreaming(
+            @RequestParam Integer floorNumber,
+            @RequestParam String vehicleType,
+            @RequestParam int startSlotNumber,
+            @RequestParam int numberOfSlots,
+            @RequestHeader(value = "Authorization", required = false) String token) {
+        if (!isValidToken(token)) {
+            return ResponseEntity.status(401).body(errorStream("Unauthorized"));
+        }
+        if (!provisioningJobs.tryAcquire()) {
+            return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, PROVISIONING_RETRY_AFTER_SECONDS)
+                .body(errorStream("Too many slot provisioning jobs running, try again later"));
+        }
+        SseEmitter emitter = new SseEmitter(provisioningTimeoutMs);
+        try {
+            provisioningExecutor.execute(() -> {
+                try {
+                    List<ParkingSlot> slots = adminService.addSlotsToFloor(floorNumber, vehicleType, startSlotNumber, numberOfSlots,
+                            written -> sendEvent(emitter, "progress", Map.of("created", written, "total", numberOfSlots)));
+                    sendEvent(emitter, "done", Map.of(
+                        "success", true,
+                        "message", "Added " + slots.size() + " slots to floor " + floorNumber
+                    ));
+                } catch (RuntimeException e) {
+                    sendEvent(emitter, "error", Map.of("error", e.getMessage() != null ? e.getMessage() : "Slot provisioning failed"));
+                } finally {
+                    provisioningJobs.release();
+                }
+                emitter.complete();
+            });
+        } catch (RejectedExecutionException e) {
+            provisioningJobs.release();
+            return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, PROVISIONING_RETRY_AFTER_SECONDS)
+                .body(errorStream("Slot provisioning is shutting down"));
+        }
+        return ResponseEntity.ok(emitter);
+    }
+    
+    // A stream that carries a single "error" event, for requests refused before any work starts
+    private static SseEmitter errorStream(String message) {
+        SseEmitter emitter = new SseEmitter();
+        sendEvent(emitter, "error", Map.of("error", message));
+        emitter.complete();
+        return emitter;
+    }
+    
+    // A client that went away does not abort provisioning; the remaining events are dropped
+    private static void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropped provisioning event {}: {}", name, e.getMessage());
+        }
+    }
+    
     @GetMapping("/floors/{floorNumber}/slots")
     public ResponseEntity<?> getSlotsByFloor(@PathVariable Integer floorNumber) {
         try {
@@ -610,4 +808,73 @@ public class AdminController {
             return ResponseEntity.internalServerError().build();
         }
     }
+    
+    @GetMapping("/audit-logs/verify")
+    public ResponseEntity<?> verifyAuditJournal() {
+        try {
+            List<AuditJournal.SegmentVerification> segments = adminService.verifyAuditJournal();
+            boolean valid = segments.stream().allMatch(AuditJournal.SegmentVerification::valid);
+            return ResponseEntity.ok(Map.of("valid", valid, "segments", segments));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // ===================== LOGGING =====================
+    
+    @GetMapping("/logging")
+    public ResponseEntity<?> getLogging(@RequestHeader(value = "Authorization", required = false) String token) {
+        if (!isValidToken(token)) {
+            return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+        }
+        return ResponseEntity.ok(logSampling.getCategories());
+    }
+    
+    /**
+     * Body: {"level": "DEBUG", "sampleEvery": 100}; either field may be left out.
+     * Works for any logger name, e.g. org.hibernate.SQL to see the SQL of a running node.
+     */
+    @PutMapping("/logging/{category}")
+    public ResponseEntity<?> updateLogging(
+            @PathVariable String category,
+            @RequestBody Map<String, Object> body,
+            @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            if (!isValidToken(token)) {
+                return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+            }
+            
+            String level = body.get("level") != null ? body.get("level").toString() : null;
+            Integer sampleEvery = body.get("sampleEvery") != null
+                ? Integer.valueOf(body.get("sampleEvery").toString()) : null;
+            LogSampling.CategorySettings settings = logSampling.update(category, level, sampleEvery);
+            log.info("Logging for {} changed: level={}, sampleEvery={}", category, settings.level(), settings.sampleEvery());
+            return ResponseEntity.ok(settings);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // ===================== DIAGNOSTICS =====================
+    
+    /**
+     * Statements, DB time and entities loaded per endpoint since start-up or the last reset,
+     * endpoints with the most statements per request first.
+     */
+    @GetMapping("/diagnostics/queries")
+    public ResponseEntity<?> getQueryDiagnostics(@RequestHeader(value = "Authorization", required = false) String token) {
+        if (!isValidToken(token)) {
+            return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+        }
+        return ResponseEntity.ok(queryDiagnostics.getEndpointStats());
+    }
+    
+    @DeleteMapping("/diagnostics/queries")
+    public ResponseEntity<?> resetQueryDiagnostics(@RequestHeader(value = "Authorization", required = false) String token) {
+        if (!isValidToken(token)) {
+            return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+        }
+        queryDiagnostics.reset();
+        return ResponseEntity.ok(Map.of("message", "Query diagnostics reset"));
+    }
 }
@@ -1,9 +1,14 @@
 package com.smartparking.smart_parking.controller;
 
+import com.smartparking.smart_parking.exception.GateOverloadedException;
+import com.smartparking.smart_parking.exception.SlotBusyException;
 import com.smartparking.smart_parking.model.ExitDTO;
 import com.smartparking.smart_parking.model.ParkingRecord;
 import com.smartparking.smart_parking.model.SlotDTO;
+import com.smartparking.smart_parking.service.GateAdmissionControl;
 import com.smartparking.smart_parking.service.ParkingServiceDB;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,9 +20,11 @@ import java.util.List;
 public class ParkingController {
 
     private final ParkingServiceDB parkingServiceDB;
+    private final GateAdmissionControl admission;
 
-    public ParkingController(ParkingServiceDB parkingServiceDB) {
+    public ParkingController(ParkingServiceDB parkingServiceDB, GateAdmissionControl admission) {
         this.parkingServiceDB = parkingServiceDB;
+        this.admission = admission;
     }
 
     // ================= PARK VEHICLE =================
@@ -28,7 +35,7 @@ public class ParkingController {
             @RequestParam(required = false) Integer preferredSlot,
             @RequestParam(required = false) Integer floorNumber) {
 
-        try {
+        try (GateAdmissionControl.Permit permit = admission.acquire(floorNumber)) {
             ParkingRecord record;
             if (preferredSlot != null && preferredSlot > 0) {
                 // Try to park in the preferred slot (AI suggestion)
@@ -44,6 +51,10 @@ public class ParkingController {
 
             return ResponseEntity.ok(message);
 
+        } catch (GateOverloadedException e) {
+            return overloaded(e);
+        } catch (SlotBusyException e) {
+            return busy(e);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -55,7 +66,7 @@ public class ParkingController {
             @RequestParam int slotNumber,
             @RequestParam(required = false) Integer floorNumber) {
 
-        try {
+        try (GateAdmissionControl.Permit permit = admission.acquire(floorNumber)) {
             ParkingRecord record =
                     parkingServiceDB.exitVehicleBySlot(slotNumber, floorNumber);
 
@@ -72,6 +83,10 @@ public class ParkingController {
 
             return ResponseEntity.ok(exitDTO);
 
+        } catch (GateOverloadedException e) {
+            return overloaded(e);
+        } catch (SlotBusyException e) {
+            return busy(e);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -93,4 +108,18 @@ public class ParkingController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    // Slot lock wait timed out: transient, the client should retry
+    private static ResponseEntity<?> busy(SlotBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+
+    // Floor at its admission limit: rejected before any work was done
+    private static ResponseEntity<?> overloaded(GateOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
 }
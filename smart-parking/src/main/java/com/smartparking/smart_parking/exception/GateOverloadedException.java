@@ -0,0 +1,20 @@
+package com.smartparking.smart_parking.exception;
+
+/**
+ * Thrown by GateAdmissionControl when a floor is at its concurrency limit and the wait queue
+ * is full or the queued request waited longer than parking.admission.queue-timeout-ms.
+ * Nothing was executed, so the request is safe to retry after retryAfterSeconds.
+ */
+public class GateOverloadedException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public GateOverloadedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.smartparking.smart_parking.exception;
+
+/**
+ * Thrown when a login attempt is rejected before any password hashing happens
+ * (rate limit per username/IP exceeded, or the password-hashing pool is saturated).
+ * retryAfterSeconds is sent back as the Retry-After header.
+ */
+public class LoginThrottledException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
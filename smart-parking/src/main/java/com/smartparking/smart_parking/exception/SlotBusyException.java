@@ -0,0 +1,12 @@
+package com.smartparking.smart_parking.exception;
+
+/**
+ * Thrown when a slot lock could not be acquired within parking.locks.wait-timeout-ms
+ * (another park/exit/override on the same slot is taking too long). Safe to retry.
+ */
+public class SlotBusyException extends RuntimeException {
+
+    public SlotBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package com.smartparking.smart_parking.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Head of the audit journal's hash chain at one sequence, kept in the database so that whoever
+ * can write the segment files cannot also rewrite the anchor. Rows are only ever inserted.
+ */
+@Entity
+@Table(name = "audit_journal_checkpoints")
+public class AuditJournalCheckpoint {
+
+    /** Journal sequence of the entry the hash belongs to */
+    @Id
+    private Long sequence;
+
+    /** Hex SHA-256 chain hash of that entry */
+    @Column(nullable = false, length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    protected AuditJournalCheckpoint() {
+    }
+
+    public AuditJournalCheckpoint(long sequence, String hash, LocalDateTime createdAt) {
+        this.sequence = sequence;
+        this.hash = hash;
+        this.createdAt = createdAt;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 public class AuditLog {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_logs_id")
+    @SequenceGenerator(name = "audit_logs_id", sequenceName = "audit_logs_seq", allocationSize = 50)
     private Long id;
     
     private String adminUsername;
@@ -0,0 +1,7 @@
+package com.smartparking.smart_parking.model;
+
+/**
+ * Row count for one floor (floorNumber null = records without a floor).
+ */
+public record FloorCount(Integer floorNumber, long count) {
+}
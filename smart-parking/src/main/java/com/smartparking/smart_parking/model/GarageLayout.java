@@ -0,0 +1,35 @@
+package com.smartparking.smart_parking.model;
+
+import java.util.List;
+
+/**
+ * Garage layout as described in a layout file (parking.layout.location, JSON or YAML):
+ * floors with slot ranges per vehicle type. A range is either from/to (inclusive) or
+ * from/count; slot numbers are the slot positions on the floor.
+ *
+ * <pre>
+ * floors:
+ *   - number: 1
+ *     description: Ground Floor
+ *     slots:
+ *       - { type: CAR, from: 1, to: 200 }
+ *       - { type: BIKE, from: 201, count: 50 }
+ * </pre>
+ */
+public record GarageLayout(List<FloorSpec> floors) {
+
+    public record FloorSpec(Integer number, String description, List<SlotRange> slots) {
+    }
+
+    public record SlotRange(String type, Integer from, Integer to, Integer count) {
+
+        /** Last slot number of the range (inclusive). */
+        public int last() {
+            return to != null ? to : from + count - 1;
+        }
+
+        public int size() {
+            return last() - from + 1;
+        }
+    }
+}
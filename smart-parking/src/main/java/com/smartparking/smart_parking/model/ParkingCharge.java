@@ -1,8 +1,12 @@
 package com.smartparking.smart_parking.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "parking-charges")
 @Table(name = "parking_charges")
 public class ParkingCharge {
     
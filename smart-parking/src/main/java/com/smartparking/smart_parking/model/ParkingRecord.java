@@ -1,6 +1,7 @@
 package com.smartparking.smart_parking.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
@@ -8,7 +9,8 @@ import java.time.LocalDateTime;
 public class ParkingRecord {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parking_records_id")
+    @SequenceGenerator(name = "parking_records_id", sequenceName = "parking_records_seq", allocationSize = 50)
     private Long id;
 
     private String vehicleType;
@@ -23,12 +25,22 @@ public class ParkingRecord {
     private int billableHours;  // Minimum 1 hour, rounded up to next hour
     private double charge;
 
+    // Optimistic locking: an exit and an admin override on the same record cannot both win
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
     // ===== getters & setters =====
 
     public Long getId() {
         return id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public String getVehicleType() {
         return vehicleType;
     }
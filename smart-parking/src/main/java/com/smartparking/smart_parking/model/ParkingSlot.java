@@ -1,13 +1,16 @@
 package com.smartparking.smart_parking.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "parking_slots")
 public class ParkingSlot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence: ids are handed out in blocks of 50, so inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parking_slots_id")
+    @SequenceGenerator(name = "parking_slots_id", sequenceName = "parking_slots_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -23,10 +26,17 @@ public class ParkingSlot {
     @Column(nullable = false)
     private boolean isOccupied;
 
-    @OneToOne
+    // Many-to-one: registry rows are reused across visits (one row per plate)
+    @ManyToOne
     @JoinColumn(name = "vehicle_id")
     private VehicleEntity vehicle;
 
+    // Optimistic locking: concurrent updates of the same slot fail instead of overwriting each other
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
     // ===== Constructors =====
 
     public ParkingSlot() {
@@ -45,6 +55,10 @@ public class ParkingSlot {
         return id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -0,0 +1,36 @@
+package com.smartparking.smart_parking.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A logged-out signed admin token, shared by every node until the token would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_admin_tokens")
+public class RevokedAdminToken {
+
+    /** base64url of the token's 8-byte id */
+    @Id
+    @Column(length = 16)
+    private String tokenId;
+
+    /** Token expiry, epoch seconds */
+    @Column(nullable = false)
+    private long expiresAt;
+
+    protected RevokedAdminToken() {
+    }
+
+    public RevokedAdminToken(String tokenId, long expiresAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
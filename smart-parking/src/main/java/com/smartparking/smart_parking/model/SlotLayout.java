@@ -0,0 +1,55 @@
+package com.smartparking.smart_parking.model;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+
+/**
+ * Read-only slot layout: where each slot is and which vehicle type it takes, without occupancy.
+ *
+ * Mapped over parking_slots through a subselect, so park/exit writes to parking_slots do not
+ * invalidate its cached queries. Layout changes (new or deleted slots) evict it explicitly
+ * through ReferenceDataCache.
+ */
+@Entity
+@Immutable
+@Subselect("""
+    SELECT s.id, s.slot_number, f.floor_number, s.vehicle_type
+    FROM parking_slots s LEFT JOIN floors f ON f.id = s.floor_id
+""")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "slot-layout")
+public class SlotLayout {
+
+    @Id
+    private Long id;
+
+    private int slotNumber;
+
+    private Integer floorNumber;
+
+    private String vehicleType;
+
+    protected SlotLayout() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public int getSlotNumber() {
+        return slotNumber;
+    }
+
+    public Integer getFloorNumber() {
+        return floorNumber;
+    }
+
+    public String getVehicleType() {
+        return vehicleType;
+    }
+}
@@ -0,0 +1,15 @@
+package com.smartparking.smart_parking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the slot view: a slot with its floor and, if occupied, the active parking record
+ * (licensePlate, recordVehicleType and entryTime are null for a free slot).
+ */
+public record SlotViewRow(int slotNumber, Integer floorNumber, String slotVehicleType,
+                          String licensePlate, String recordVehicleType, LocalDateTime entryTime) {
+
+    public boolean occupied() {
+        return entryTime != null;
+    }
+}
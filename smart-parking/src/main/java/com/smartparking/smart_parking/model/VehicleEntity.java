@@ -1,20 +1,35 @@
 package com.smartparking.smart_parking.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
+/**
+ * Vehicle registry: one row per license plate, updated on every entry (see VehicleRegistry).
+ */
 @Entity
-@Table(name = "vehicles")
+@Table(name = "vehicles", indexes = {
+    @Index(name = "ux_vehicles_license_plate", columnList = "licensePlate", unique = true)
+})
 public class VehicleEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicles_id")
+    @SequenceGenerator(name = "vehicles_id", sequenceName = "vehicles_seq", allocationSize = 50)
     private Long id;
 
     private String vehicleType;
+
+    @Column(nullable = false)
     private String licensePlate;
+
+    // Time of the latest entry
     private LocalDateTime entryTime;
 
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int visitCount;
+
     // ===== getters and setters =====
 
     public Long getId() {
@@ -48,4 +63,12 @@ public class VehicleEntity {
     public void setEntryTime(LocalDateTime entryTime) {
         this.entryTime = entryTime;
     }
+
+    public int getVisitCount() {
+        return visitCount;
+    }
+
+    public void setVisitCount(int visitCount) {
+        this.visitCount = visitCount;
+    }
 }
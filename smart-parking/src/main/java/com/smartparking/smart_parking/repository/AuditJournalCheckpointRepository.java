@@ -0,0 +1,11 @@
+package com.smartparking.smart_parking.repository;
+
+import com.smartparking.smart_parking.model.AuditJournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface AuditJournalCheckpointRepository extends JpaRepository<AuditJournalCheckpoint, Long> {
+
+    Optional<AuditJournalCheckpoint> findTopByOrderBySequenceDesc();
+}
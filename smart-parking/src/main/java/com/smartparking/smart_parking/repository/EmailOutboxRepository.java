@@ -0,0 +1,62 @@
+package com.smartparking.smart_parking.repository;
+
+import com.smartparking.smart_parking.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Ids of due messages, oldest first (one dispatcher batch). SENDING rows whose claim has run
+     * out (nextAttemptAt is the claim deadline) are due again.
+     */
+    @Query("""
+        SELECT e.id FROM EmailOutbox e
+        WHERE e.status IN :statuses AND e.nextAttemptAt <= :now
+        ORDER BY e.nextAttemptAt
+    """)
+    List<Long> findDueIds(@Param("statuses") Collection<String> statuses, @Param("now") LocalDateTime now,
+                          Pageable page);
+
+    /**
+     * Claims the given messages for one dispatcher run: only rows that are still due switch to
+     * SENDING, so two instances never claim the same message.
+     * @return number of messages claimed
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE EmailOutbox e
+        SET e.status = :sending, e.claimToken = :token, e.nextAttemptAt = :claimUntil
+        WHERE e.id IN :ids AND e.status IN :statuses AND e.nextAttemptAt <= :now
+    """)
+    int claim(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<String> statuses,
+              @Param("sending") String sending, @Param("token") String token,
+              @Param("now") LocalDateTime now, @Param("claimUntil") LocalDateTime claimUntil);
+
+    List<EmailOutbox> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    /**
+     * Moves undelivered messages past their expiry to EXPIRED and clears their body.
+     * @return number of messages expired
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE EmailOutbox e
+        SET e.status = :expired, e.body = '', e.claimToken = NULL
+        WHERE e.status IN :statuses AND e.expiresAt <= :now
+    """)
+    int expire(@Param("statuses") Collection<String> statuses, @Param("expired") String expired,
+               @Param("now") LocalDateTime now);
+
+    long countByStatus(String status);
+}
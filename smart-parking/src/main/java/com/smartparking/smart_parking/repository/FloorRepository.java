@@ -1,15 +1,29 @@
 package com.smartparking.smart_parking.repository;
 
 import com.smartparking.smart_parking.model.Floor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface FloorRepository extends JpaRepository<Floor, Long> {
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "floor-queries")
+    })
     Optional<Floor> findByFloorNumber(Integer floorNumber);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "floor-queries")
+    })
+    List<Floor> findAllByOrderByFloorNumberAsc();
+    
     boolean existsByFloorNumber(Integer floorNumber);
 }
@@ -1,10 +1,32 @@
 package com.smartparking.smart_parking.repository;
 
 import com.smartparking.smart_parking.model.ParkingCharge;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.util.List;
 import java.util.Optional;
 
 public interface ParkingChargeRepository extends JpaRepository<ParkingCharge, Long> {
+    
+    // Query cache (region "charge-queries"); rows come from the "parking-charges" entity cache
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "charge-queries")
+    })
     Optional<ParkingCharge> findByVehicleType(String vehicleType);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "charge-queries")
+    })
     Optional<ParkingCharge> findByVehicleTypeAndActiveTrue(String vehicleType);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "charge-queries")
+    })
+    @Override
+    List<ParkingCharge> findAll();
 }
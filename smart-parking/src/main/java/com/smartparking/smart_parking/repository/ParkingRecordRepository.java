@@ -1,5 +1,6 @@
 package com.smartparking.smart_parking.repository;
 
+import com.smartparking.smart_parking.model.FloorCount;
 import com.smartparking.smart_parking.model.ParkingRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -27,6 +28,11 @@ public interface ParkingRecordRepository
      */
     Optional<ParkingRecord> findBySlotNumberAndFloorNumberAndExitTimeIsNull(int slotNumber, Integer floorNumber);
     
+    /**
+     * Oldest active parking record for a slot number on any floor (admin overrides without a floor)
+     */
+    Optional<ParkingRecord> findFirstBySlotNumberAndExitTimeIsNullOrderByIdAsc(int slotNumber);
+    
     /**
      * Finds all completed parking records (exit_time IS NOT NULL)
      */
@@ -37,6 +43,12 @@ public interface ParkingRecordRepository
      */
     List<ParkingRecord> findByExitTimeIsNullOrderByEntryTimeDesc();
     
+    /**
+     * Active records per floor (occupancy metrics)
+     */
+    @Query("SELECT new com.smartparking.smart_parking.model.FloorCount(p.floorNumber, COUNT(p)) FROM ParkingRecord p WHERE p.exitTime IS NULL GROUP BY p.floorNumber")
+    List<FloorCount> countActiveByFloor();
+    
     /**
      * Finds records by vehicle type
      */
@@ -58,6 +70,12 @@ public interface ParkingRecordRepository
     @Query("SELECT p FROM ParkingRecord p WHERE p.entryTime >= :startDate AND p.entryTime <= :endDate AND p.exitTime IS NOT NULL ORDER BY p.exitTime DESC")
     List<ParkingRecord> findByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
+    /**
+     * Number of records findByDateRange would return (dashboard)
+     */
+    @Query("SELECT COUNT(p) FROM ParkingRecord p WHERE p.entryTime >= :startDate AND p.entryTime <= :endDate AND p.exitTime IS NOT NULL")
+    long countByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
     /**
      * Finds records for today
      */
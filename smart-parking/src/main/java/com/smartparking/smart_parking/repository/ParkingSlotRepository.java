@@ -1,8 +1,12 @@
 package com.smartparking.smart_parking.repository;
 
 import com.smartparking.smart_parking.model.Floor;
+import com.smartparking.smart_parking.model.FloorCount;
 import com.smartparking.smart_parking.model.ParkingSlot;
+import com.smartparking.smart_parking.model.SlotViewRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,11 +19,53 @@ public interface ParkingSlotRepository extends JpaRepository<ParkingSlot, Long>
     
     boolean existsBySlotNumberAndFloor(int slotNumber, Floor floor);
     
+    // Conflict check for bulk provisioning: one query for the whole range
+    @Query("SELECT s.slotNumber FROM ParkingSlot s WHERE s.floor = :floor AND s.slotNumber BETWEEN :first AND :last ORDER BY s.slotNumber")
+    List<Integer> findSlotNumbersInRange(@Param("floor") Floor floor, @Param("first") int first, @Param("last") int last);
+    
     List<ParkingSlot> findByFloor(Floor floor);
     
+    boolean existsByFloor(Floor floor);
+    
+    // Slots per floor (capacity for the occupancy metrics)
+    @Query("SELECT new com.smartparking.smart_parking.model.FloorCount(f.floorNumber, COUNT(s)) FROM ParkingSlot s JOIN s.floor f GROUP BY f.floorNumber")
+    List<FloorCount> countByFloor();
+    
     List<ParkingSlot> findByFloorOrderBySlotNumberAsc(Floor floor);
     
     List<ParkingSlot> findByFloorAndVehicleType(Floor floor, String vehicleType);
     
     Optional<ParkingSlot> findBySlotNumberAndFloorFloorNumber(int slotNumber, Integer floorNumber);
+    
+    Optional<ParkingSlot> findFirstBySlotNumberAndFloorIsNull(int slotNumber);
+    
+    // Slot number without a floor: the first such slot on any floor
+    Optional<ParkingSlot> findFirstBySlotNumberOrderByIdAsc(int slotNumber);
+    
+    // Slots holding an active parking record on the same floor (dashboard)
+    @Query("""
+        SELECT COUNT(s) FROM ParkingSlot s JOIN s.floor f
+        WHERE EXISTS (SELECT 1 FROM ParkingRecord r
+                      WHERE r.slotNumber = s.slotNumber AND r.floorNumber = f.floorNumber AND r.exitTime IS NULL)
+    """)
+    long countOccupied();
+    
+    /**
+     * Slot view in one statement: every slot with its floor and active record (exit_time IS NULL),
+     * sorted by floor and slot. floorNumber null = all floors. If a slot ever had two active
+     * records, the newest comes first. Legacy slots without a floor are listed first in the
+     * all-floors view and matched with active records that have no floor number.
+     */
+    @Query("""
+        SELECT new com.smartparking.smart_parking.model.SlotViewRow(
+            s.slotNumber, f.floorNumber, s.vehicleType, r.licensePlate, r.vehicleType, r.entryTime)
+        FROM ParkingSlot s
+        LEFT JOIN s.floor f
+        LEFT JOIN ParkingRecord r
+            ON r.slotNumber = s.slotNumber AND r.exitTime IS NULL
+            AND (r.floorNumber = f.floorNumber OR (f IS NULL AND r.floorNumber IS NULL))
+        WHERE :floorNumber IS NULL OR f.floorNumber = :floorNumber
+        ORDER BY f.floorNumber NULLS FIRST, s.slotNumber, r.entryTime DESC
+    """)
+    List<SlotViewRow> findSlotView(@Param("floorNumber") Integer floorNumber);
 }
@@ -0,0 +1,22 @@
+package com.smartparking.smart_parking.repository;
+
+import com.smartparking.smart_parking.model.RevokedAdminToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface RevokedAdminTokenRepository extends JpaRepository<RevokedAdminToken, String> {
+
+    // Revocations still in force, copied into memory by every node
+    List<RevokedAdminToken> findByExpiresAtGreaterThan(long now);
+
+    // Revocations of tokens that have expired by now are no longer needed
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedAdminToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") long now);
+}
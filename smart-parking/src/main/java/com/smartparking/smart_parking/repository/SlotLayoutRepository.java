@@ -0,0 +1,38 @@
+package com.smartparking.smart_parking.repository;
+
+import com.smartparking.smart_parking.model.SlotLayout;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Cached slot layout queries (region "slot-layout-queries"), evicted by ReferenceDataCache.
+ */
+public interface SlotLayoutRepository extends Repository<SlotLayout, Long> {
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "slot-layout-queries")
+    })
+    List<SlotLayout> findAllByOrderByFloorNumberAscSlotNumberAsc();
+
+    /**
+     * Free slots for a vehicle type in allocation order, in one statement: slots without an active
+     * record (exit_time IS NULL) on the same floor and slot number. Not cached (occupancy).
+     */
+    @Query("""
+        SELECT l FROM SlotLayout l
+        WHERE l.vehicleType = :vehicleType
+          AND NOT EXISTS (SELECT 1 FROM ParkingRecord r
+                          WHERE r.slotNumber = l.slotNumber AND r.exitTime IS NULL
+                            AND (r.floorNumber = l.floorNumber OR (l.floorNumber IS NULL AND r.floorNumber IS NULL)))
+        ORDER BY l.floorNumber, l.slotNumber
+    """)
+    List<SlotLayout> findFree(@Param("vehicleType") String vehicleType, Limit limit);
+}
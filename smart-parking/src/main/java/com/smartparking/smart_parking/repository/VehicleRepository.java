@@ -2,11 +2,29 @@ package com.smartparking.smart_parking.repository;
 
 import com.smartparking.smart_parking.model.VehicleEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface VehicleRepository
         extends JpaRepository<VehicleEntity, Long> {
     
+    // license_plate is unique (one registry row per plate)
     Optional<VehicleEntity> findByLicensePlate(String licensePlate);
+    
+    /**
+     * Entry of a known vehicle by id: a single UPDATE, no SELECT.
+     * @return 1 if the row (still) exists with this plate, 0 otherwise
+     */
+    @Modifying
+    @Query("""
+        UPDATE VehicleEntity v
+        SET v.vehicleType = :vehicleType, v.entryTime = :entryTime, v.visitCount = v.visitCount + 1
+        WHERE v.id = :id AND v.licensePlate = :licensePlate
+    """)
+    int recordEntry(@Param("id") Long id, @Param("licensePlate") String licensePlate,
+                    @Param("vehicleType") String vehicleType, @Param("entryTime") LocalDateTime entryTime);
 }
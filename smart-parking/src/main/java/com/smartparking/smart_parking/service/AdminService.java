@@ -2,9 +2,14 @@ package com.smartparking.smart_parking.service;
 
 import com.smartparking.smart_parking.exception.AccountNotActivatedException;
 import com.smartparking.smart_parking.exception.EmailNotVerifiedException;
+import com.smartparking.smart_parking.exception.LoginThrottledException;
 import com.smartparking.smart_parking.model.*;
 import com.smartparking.smart_parking.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,6 +19,13 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 
@@ -41,15 +53,37 @@ public class AdminService {
     @Autowired
     private ParkingServiceDB parkingService;
     
+    @Autowired
+    private SlotLockManager slotLocks;
+    
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+    
     @Autowired
     private EmailService emailService;
 
-    @Autowired(required = false)
-    private SupabaseService supabaseService;
+    @Autowired
+    private AuditJournal auditJournal;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    @Qualifier("passwordHashExecutor")
+    private ExecutorService passwordHashExecutor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${parking.provisioning.max-slots:10000}")
+    private int maxSlotsPerRequest;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int provisioningChunkSize;
+
     private static final int OTP_EXPIRY_MINUTES = 5;
     private static final SecureRandom RANDOM = new SecureRandom();
     
@@ -67,7 +101,7 @@ public class AdminService {
         Admin admin = adminOpt.get();
         String stored = admin.getPassword();
         boolean passwordMatches = (stored != null && stored.startsWith("$2"))
-            ? passwordEncoder.matches(password, stored)
+            ? matchesOnHashPool(password, stored)
             : (stored != null && stored.equals(password));
         if (!passwordMatches) {
             return null;
@@ -82,6 +116,30 @@ public class AdminService {
         return admin;
     }
     
+    /**
+     * Runs the BCrypt check on the bounded password-hash pool.
+     * @throws LoginThrottledException if the pool is saturated or the check takes too long
+     */
+    private boolean matchesOnHashPool(String password, String stored) {
+        Future<Boolean> result;
+        try {
+            result = passwordHashExecutor.submit(() -> passwordEncoder.matches(password, stored));
+        } catch (RejectedExecutionException e) {
+            throw new LoginThrottledException("Too many login attempts in progress. Try again shortly.", 1);
+        }
+        try {
+            return result.get(5, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new LoginThrottledException("Too many login attempts in progress. Try again shortly.", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Login interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password check failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+    
     /**
      * Signup: ADMIN only. active=false, emailVerified=false.
      * OTP is sent by Supabase via frontend signInWithOtp; backend only creates the admin.
@@ -159,22 +217,18 @@ public class AdminService {
     }
 
     /**
-     * Confirms email as verified after Supabase verifyOtp succeeds.
-     * Validates the Supabase access token and marks the Admin as emailVerified=true, active=true.
+     * Marks the Admin as verified once the Supabase token's email is known, after Supabase
+     * verifyOtp succeeds. The token lookup (SupabaseService.getUserEmailFromAccessTokenAsync)
+     * runs before this, so no transaction is held while it waits on Supabase.
+     *
+     * @param tokenEmail email resolved from the Supabase access token, or null if the token was rejected
      */
     @Transactional
-    public void confirmEmailVerified(String email, String supabaseAccessToken) {
+    public void markEmailVerifiedBySupabase(String email, String tokenEmail) {
         if (email == null || email.trim().isEmpty()) {
             throw new RuntimeException("Email is required");
         }
         email = email.trim().toLowerCase();
-        if (supabaseAccessToken == null || supabaseAccessToken.trim().isEmpty()) {
-            throw new RuntimeException("Authorization token is required");
-        }
-        if (supabaseService == null) {
-            throw new RuntimeException("Supabase is not configured");
-        }
-        String tokenEmail = supabaseService.getUserEmailFromAccessToken(supabaseAccessToken.trim());
         if (tokenEmail == null || !tokenEmail.trim().toLowerCase().equals(email)) {
             throw new RuntimeException("Invalid or expired verification token");
         }
@@ -252,19 +306,13 @@ public class AdminService {
     }
     
     // ===================== DASHBOARD STATISTICS =====================
+    // Reporting reads are readOnly transactions: with a replica configured they are served from it
     
+    @Transactional(readOnly = true)
     public DashboardStatsDTO getDashboardStats() {
-        List<ParkingSlot> allSlots = slotRepo.findAll();
-        int totalSlots = allSlots.size();
-        
-        // Count occupied slots (slots with active parking records)
-        int occupiedSlots = (int) allSlots.stream()
-            .filter(slot -> {
-                Optional<ParkingRecord> activeRecord = 
-                    recordRepo.findBySlotNumberAndExitTimeIsNull(slot.getSlotNumber());
-                return activeRecord.isPresent();
-            })
-            .count();
+        // Counted in the database: one statement each instead of a lookup per slot
+        int totalSlots = (int) slotRepo.count();
+        int occupiedSlots = (int) slotRepo.countOccupied();
         
         int availableSlots = totalSlots - occupiedSlots;
         
@@ -276,8 +324,7 @@ public class AdminService {
         LocalDateTime startOfDay = today.atStartOfDay();
         LocalDateTime endOfDay = today.plusDays(1).atStartOfDay();
         
-        List<ParkingRecord> todayRecords = recordRepo.findByDateRange(startOfDay, endOfDay);
-        int vehiclesParkedToday = todayRecords.size();
+        int vehiclesParkedToday = (int) recordRepo.countByDateRange(startOfDay, endOfDay);
         
         // Calculate today's revenue
         Double todayRevenue = recordRepo.calculateTodayRevenue(startOfDay, endOfDay);
@@ -360,6 +407,7 @@ public class AdminService {
     
     // ===================== VEHICLE HISTORY =====================
     
+    @Transactional(readOnly = true)
     public List<ParkingRecord> getVehicleHistory(LocalDateTime startDate, LocalDateTime endDate, 
                                                  String vehicleType, Integer slotNumber) {
         List<ParkingRecord> records;
@@ -411,12 +459,15 @@ public class AdminService {
             charge.setActive(true);
         }
         
-        return chargeRepo.save(charge);
+        ParkingCharge saved = chargeRepo.save(charge);
+        referenceDataCache.evictCharges();
+        return saved;
     }
     
     // ===================== MANUAL OVERRIDE =====================
     
     public ParkingRecord forceExitVehicle(int slotNumber, Integer floorNumber, String adminUsername) {
+        // exitVehicleBySlot holds the slot lock until its transaction commits
         ParkingRecord record = parkingService.exitVehicleBySlot(slotNumber, floorNumber);
         logAction(adminUsername, "FORCE_EXIT", 
             "Force exited vehicle from slot " + slotNumber + (floorNumber != null ? " on floor " + floorNumber : ""), 
@@ -425,17 +476,17 @@ public class AdminService {
     }
     
     public ParkingRecord updateLicensePlate(int slotNumber, String newLicensePlate, String adminUsername) {
-        Optional<ParkingRecord> recordOpt = 
-            recordRepo.findBySlotNumberAndExitTimeIsNull(slotNumber);
-        
-        if (recordOpt.isEmpty()) {
-            throw new RuntimeException("No active vehicle in slot " + slotNumber);
-        }
-        
-        ParkingRecord record = recordOpt.get();
-        String oldLicensePlate = record.getLicensePlate();
-        record.setLicensePlate(newLicensePlate);
-        recordRepo.save(record);
+        // Read and write in one retried transaction: a concurrent exit bumps the record's
+        // version, so the update re-reads instead of overwriting it
+        String[] oldPlate = new String[1];
+        ParkingRecord record = optimisticRetry.execute("update-license", () -> {
+            ParkingRecord active = recordRepo.findBySlotNumberAndExitTimeIsNull(slotNumber)
+                .orElseThrow(() -> new RuntimeException("No active vehicle in slot " + slotNumber));
+            oldPlate[0] = active.getLicensePlate();
+            active.setLicensePlate(newLicensePlate);
+            return recordRepo.save(active);
+        });
+        String oldLicensePlate = oldPlate[0];
         
         logAction(adminUsername, "UPDATE_LICENSE_PLATE",
             "Updated license plate from " + oldLicensePlate + " to " + newLicensePlate,
@@ -446,72 +497,80 @@ public class AdminService {
     
     public ParkingRecord changeSlot(int slotNumber, int newSlotNumber, Integer floorNumber, String adminUsername) {
         // Find active record by slot and floor
-        Optional<ParkingRecord> recordOpt;
-        if (floorNumber != null) {
-            recordOpt = recordRepo.findBySlotNumberAndFloorNumberAndExitTimeIsNull(slotNumber, floorNumber);
-        } else {
-            recordOpt = recordRepo.findAll()
-                    .stream()
-                    .filter(r -> r.getSlotNumber() == slotNumber && r.getExitTime() == null)
-                    .findFirst();
-        }
-        
+        Optional<ParkingRecord> recordOpt = findActiveRecord(slotNumber, floorNumber);
         if (recordOpt.isEmpty()) {
             throw new RuntimeException("No active vehicle in slot " + slotNumber + 
                 (floorNumber != null ? " on floor " + floorNumber : ""));
         }
-        
-        ParkingRecord record = recordOpt.get();
-        Integer recordFloorNumber = record.getFloorNumber();
-        
-        // Check if new slot is available
-        Optional<ParkingRecord> newSlotRecord = 
-            recordRepo.findBySlotNumberAndFloorNumberAndExitTimeIsNull(newSlotNumber, recordFloorNumber);
-        
-        if (newSlotRecord.isPresent()) {
-            throw new RuntimeException("Slot " + newSlotNumber + 
-                (recordFloorNumber != null ? " on floor " + recordFloorNumber : "") + " is already occupied");
-        }
-        
-        record.setSlotNumber(newSlotNumber);
-        recordRepo.save(record);
-        
-        // Update slot states - find by slot number and floor
-        Optional<ParkingSlot> oldSlotOpt = slotRepo.findAll()
-                .stream()
-                .filter(s -> s.getSlotNumber() == slotNumber && 
-                           (s.getFloor() != null ? s.getFloor().getFloorNumber() : null) == recordFloorNumber)
-                .findFirst();
-        
-        Optional<ParkingSlot> newSlotOpt = slotRepo.findAll()
-                .stream()
-                .filter(s -> s.getSlotNumber() == newSlotNumber &&
-                           (s.getFloor() != null ? s.getFloor().getFloorNumber() : null) == recordFloorNumber)
-                .findFirst();
-        
-        if (oldSlotOpt.isPresent()) {
-            ParkingSlot oldSlot = oldSlotOpt.get();
-            oldSlot.setOccupied(false);
-            oldSlot.setVehicle(null);
-            slotRepo.save(oldSlot);
-        }
-        
-        if (newSlotOpt.isPresent()) {
-            ParkingSlot newSlot = newSlotOpt.get();
-            newSlot.setOccupied(true);
-            // Note: Vehicle reference would need to be updated if we track it in slot
-            slotRepo.save(newSlot);
-        }
+        Integer recordFloorNumber = recordOpt.get().getFloorNumber();
+        
+        // Lock both slots (fixed order, held until commit), then re-check: the vehicle may have
+        // left or the target may have been taken while we were looking
+        ParkingRecord moved = optimisticRetry.execute("change-slot", () -> {
+            slotLocks.acquireForTransaction("change-slot",
+                SlotLockManager.key(recordFloorNumber, slotNumber),
+                SlotLockManager.key(recordFloorNumber, newSlotNumber));
+            ParkingRecord record = recordRepo.findBySlotNumberAndFloorNumberAndExitTimeIsNull(slotNumber, recordFloorNumber)
+                .orElseThrow(() -> new RuntimeException("No active vehicle in slot " + slotNumber + 
+                    (recordFloorNumber != null ? " on floor " + recordFloorNumber : "")));
+            
+            // Check if new slot is available
+            Optional<ParkingRecord> newSlotRecord = 
+                recordRepo.findBySlotNumberAndFloorNumberAndExitTimeIsNull(newSlotNumber, recordFloorNumber);
+            
+            if (newSlotRecord.isPresent()) {
+                throw new RuntimeException("Slot " + newSlotNumber + 
+                    (recordFloorNumber != null ? " on floor " + recordFloorNumber : "") + " is already occupied");
+            }
+            
+            record.setSlotNumber(newSlotNumber);
+            recordRepo.save(record);
+            
+            // Update slot states - find by slot number and floor
+            Optional<ParkingSlot> oldSlotOpt = findSlot(slotNumber, recordFloorNumber);
+            Optional<ParkingSlot> newSlotOpt = findSlot(newSlotNumber, recordFloorNumber);
+            
+            if (oldSlotOpt.isPresent()) {
+                ParkingSlot oldSlot = oldSlotOpt.get();
+                oldSlot.setOccupied(false);
+                oldSlot.setVehicle(null);
+                slotRepo.save(oldSlot);
+            }
+            
+            if (newSlotOpt.isPresent()) {
+                ParkingSlot newSlot = newSlotOpt.get();
+                newSlot.setOccupied(true);
+                // Note: Vehicle reference would need to be updated if we track it in slot
+                slotRepo.save(newSlot);
+            }
+            
+            return record;
+        });
         
         logAction(adminUsername, "CHANGE_SLOT",
             "Changed slot from " + slotNumber + " to " + newSlotNumber,
             "{\"oldSlot\":" + slotNumber + ",\"newSlot\":" + newSlotNumber + "}");
         
-        return record;
+        return moved;
+    }
+    
+    private Optional<ParkingRecord> findActiveRecord(int slotNumber, Integer floorNumber) {
+        if (floorNumber != null) {
+            return recordRepo.findBySlotNumberAndFloorNumberAndExitTimeIsNull(slotNumber, floorNumber);
+        }
+        return recordRepo.findFirstBySlotNumberAndExitTimeIsNullOrderByIdAsc(slotNumber);
+    }
+    
+    private Optional<ParkingSlot> findSlot(int slotNumber, Integer floorNumber) {
+        if (floorNumber != null) {
+            return slotRepo.findBySlotNumberAndFloorFloorNumber(slotNumber, floorNumber);
+        }
+        return slotRepo.findFirstBySlotNumberAndFloorIsNull(slotNumber);
     }
     
     // ===================== SLOT HISTORY & ACTIONS =====================
     
+    @Transactional(readOnly = true)
     public List<ParkingRecord> getSlotHistory(int slotNumber, int limit) {
         List<ParkingRecord> records = recordRepo.findBySlotNumberAndExitTimeIsNotNullOrderByExitTimeDesc(slotNumber);
         return records.stream()
@@ -520,34 +579,29 @@ public class AdminService {
     }
     
     public void markSlotAvailable(int slotNumber, Integer floorNumber, String adminUsername) {
-        Optional<ParkingSlot> slotOpt;
-        if (floorNumber != null) {
-            slotOpt = slotRepo.findBySlotNumberAndFloorFloorNumber(slotNumber, floorNumber);
-        } else {
-            slotOpt = slotRepo.findAll()
-                    .stream()
-                    .filter(s -> s.getSlotNumber() == slotNumber)
-                    .findFirst();
-        }
-        
-        if (slotOpt.isEmpty()) {
-            throw new RuntimeException("Slot " + slotNumber + 
-                (floorNumber != null ? " on floor " + floorNumber : "") + " not found");
-        }
-        
-        ParkingSlot slot = slotOpt.get();
-        Integer slotFloorNumber = slot.getFloor() != null ? slot.getFloor().getFloorNumber() : null;
-        
-        // Check if there's an active record
-        Optional<ParkingRecord> activeRecord = recordRepo.findBySlotNumberAndFloorNumberAndExitTimeIsNull(slotNumber, slotFloorNumber);
-        if (activeRecord.isPresent()) {
-            throw new RuntimeException("Cannot mark slot as available. Vehicle is still parked. Use Force Exit instead.");
-        }
-        
-        // Mark slot as available
-        slot.setOccupied(false);
-        slot.setVehicle(null);
-        slotRepo.save(slot);
+        // Load, check and save in one transaction under the slot lock (held until commit). A park
+        // that committed before the lock was taken bumps the slot's @Version; the save then fails
+        // and OptimisticRetry re-runs this against fresh state.
+        optimisticRetry.execute("mark-available", () -> {
+            Optional<ParkingSlot> slotOpt = floorNumber != null
+                ? slotRepo.findBySlotNumberAndFloorFloorNumber(slotNumber, floorNumber)
+                : slotRepo.findFirstBySlotNumberOrderByIdAsc(slotNumber);
+            ParkingSlot slot = slotOpt.orElseThrow(() -> new RuntimeException("Slot " + slotNumber +
+                (floorNumber != null ? " on floor " + floorNumber : "") + " not found"));
+            Integer slotFloorNumber = slot.getFloor() != null ? slot.getFloor().getFloorNumber() : null;
+            
+            slotLocks.acquireForTransaction("mark-available", SlotLockManager.key(slotFloorNumber, slotNumber));
+            // Check if there's an active record
+            Optional<ParkingRecord> activeRecord = recordRepo.findBySlotNumberAndFloorNumberAndExitTimeIsNull(slotNumber, slotFloorNumber);
+            if (activeRecord.isPresent()) {
+                throw new RuntimeException("Cannot mark slot as available. Vehicle is still parked. Use Force Exit instead.");
+            }
+            
+            // Mark slot as available
+            slot.setOccupied(false);
+            slot.setVehicle(null);
+            return slotRepo.save(slot);
+        });
         
         logAction(adminUsername, "MARK_SLOT_AVAILABLE",
             "Manually marked slot " + slotNumber + " as available",
@@ -565,6 +619,7 @@ public class AdminService {
     
     // ===================== AUDIT LOGS =====================
     
+    @Transactional(readOnly = true)
     public List<AuditLog> getAuditLogs(String adminUsername, LocalDateTime startDate, LocalDateTime endDate) {
         if (adminUsername != null && !adminUsername.isEmpty()) {
             return auditRepo.findByAdminUsernameOrderByTimestampDesc(adminUsername);
@@ -577,13 +632,35 @@ public class AdminService {
         return auditRepo.findAllOrderByTimestampDesc();
     }
     
+    /**
+     * Verifies the audit journal (CRCs + hash chain) segment by segment and against the latest checkpoint.
+     */
+    public List<AuditJournal.SegmentVerification> verifyAuditJournal() {
+        if (!auditJournal.isEnabled()) {
+            throw new RuntimeException("Audit journal is not enabled (audit.journal.enabled=false)");
+        }
+        return auditJournal.verifyAll();
+    }
+    
+    /**
+     * Records an admin action. Goes to the append-only journal when audit.journal.enabled=true,
+     * after the caller's transaction commits; the audit_logs table is written as a projection
+     * (inside the transaction) unless audit.journal.db-projection=false.
+     */
     private void logAction(String adminUsername, String action, String description, String details) {
+        LocalDateTime timestamp = LocalDateTime.now();
+        if (auditJournal.isEnabled()) {
+            auditJournal.appendAfterCommit(timestamp, adminUsername, action, description, details);
+        }
+        if (!auditJournal.isDatabaseProjectionEnabled()) {
+            return;
+        }
         AuditLog log = new AuditLog();
         log.setAdminUsername(adminUsername);
         log.setAction(action);
         log.setDescription(description);
         log.setDetails(details);
-        log.setTimestamp(LocalDateTime.now());
+        log.setTimestamp(timestamp);
         auditRepo.save(log);
     }
     
@@ -605,13 +682,13 @@ public class AdminService {
         floor.setFloorNumber(floorNumber);
         floor.setDescription(description);
         
-        return floorRepo.save(floor);
+        Floor saved = floorRepo.save(floor);
+        referenceDataCache.evictFloors();
+        return saved;
     }
     
     public List<Floor> getAllFloors() {
-        return floorRepo.findAll().stream()
-                .sorted((f1, f2) -> Integer.compare(f1.getFloorNumber(), f2.getFloorNumber()))
-                .collect(Collectors.toList());
+        return floorRepo.findAllByOrderByFloorNumberAsc();
     }
     
     public Floor getFloorByNumber(Integer floorNumber) {
@@ -623,6 +700,19 @@ public class AdminService {
     
     @Transactional
     public List<ParkingSlot> addSlotsToFloor(Integer floorNumber, String vehicleType, int startSlotNumber, int numberOfSlots) {
+        return addSlotsToFloor(floorNumber, vehicleType, startSlotNumber, numberOfSlots, null);
+    }
+    
+    /**
+     * Bulk slot provisioning: one range query for conflicts, then JDBC-batched inserts flushed
+     * in chunks of hibernate.jdbc.batch_size (the persistence context is cleared after each
+     * chunk, so memory stays flat for very large floors). All slots are created or none.
+     *
+     * @param progress optional, called with the number of slots written so far after each chunk
+     */
+    @Transactional
+    public List<ParkingSlot> addSlotsToFloor(Integer floorNumber, String vehicleType, int startSlotNumber,
+                                             int numberOfSlots, IntConsumer progress) {
         // Validate floor exists
         Floor floor = floorRepo.findByFloorNumber(floorNumber)
                 .orElseThrow(() -> new RuntimeException("Floor " + floorNumber + " does not exist"));
@@ -640,30 +730,55 @@ public class AdminService {
         if (numberOfSlots < 1) {
             throw new RuntimeException("Number of slots must be at least 1");
         }
+        if (numberOfSlots > maxSlotsPerRequest) {
+            throw new RuntimeException("At most " + maxSlotsPerRequest + " slots can be added per request");
+        }
+        if (startSlotNumber > Integer.MAX_VALUE - numberOfSlots + 1) {
+            throw new RuntimeException("Slot numbers out of range");
+        }
+        int lastSlotNumber = startSlotNumber + numberOfSlots - 1;
+        
+        List<Integer> existing = slotRepo.findSlotNumbersInRange(floor, startSlotNumber, lastSlotNumber);
+        if (!existing.isEmpty()) {
+            throw new RuntimeException(describeExistingSlots(existing) + " on floor " + floorNumber);
+        }
         
-        List<ParkingSlot> createdSlots = new ArrayList<>();
+        int chunkSize = Math.max(1, provisioningChunkSize);
+        List<ParkingSlot> createdSlots = new ArrayList<>(numberOfSlots);
         
         for (int i = 0; i < numberOfSlots; i++) {
-            int slotNumber = startSlotNumber + i;
-            
-            // Check if slot already exists on this floor
-            if (slotRepo.existsBySlotNumberAndFloor(slotNumber, floor)) {
-                throw new RuntimeException("Slot " + slotNumber + " already exists on floor " + floorNumber);
-            }
-            
             ParkingSlot slot = new ParkingSlot();
-            slot.setSlotNumber(slotNumber);
+            slot.setSlotNumber(startSlotNumber + i);
             slot.setFloor(floor);
             slot.setVehicleType(vehicleType);
             slot.setOccupied(false);
             slot.setVehicle(null);
+            entityManager.persist(slot);
+            createdSlots.add(slot);
             
-            createdSlots.add(slotRepo.save(slot));
+            int written = i + 1;
+            if (written % chunkSize == 0 || written == numberOfSlots) {
+                entityManager.flush();
+                entityManager.clear();
+                if (progress != null) {
+                    progress.accept(written);
+                }
+            }
         }
         
+        referenceDataCache.evictSlotLayout();
         return createdSlots;
     }
     
+    private static String describeExistingSlots(List<Integer> existing) {
+        if (existing.size() == 1) {
+            return "Slot " + existing.get(0) + " already exists";
+        }
+        String listed = existing.stream().limit(10).map(String::valueOf).collect(Collectors.joining(", "));
+        return "Slots " + listed + (existing.size() > 10 ? " (+" + (existing.size() - 10) + " more)" : "")
+                + " already exist";
+    }
+    
     public List<ParkingSlot> getSlotsByFloor(Integer floorNumber) {
         Floor floor = floorRepo.findByFloorNumber(floorNumber)
                 .orElseThrow(() -> new RuntimeException("Floor " + floorNumber + " not found"));
@@ -690,6 +805,7 @@ public class AdminService {
         }
         
         slotRepo.delete(slot);
+        referenceDataCache.evictSlotLayout();
         
         logAction(adminUsername, "DELETE_SLOT",
             "Deleted slot " + slot.getSlotNumber() + " from floor " + floorNumber,
@@ -0,0 +1,203 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.Admin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory admin sessions with sliding expiry.
+ *
+ * - Tokens are "session_" + 32 random bytes (base64url), so concurrent logins never collide.
+ * - Every successful lookup pushes expiry forward by the TTL.
+ * - The store is capped; at the cap, expired sessions are dropped first, otherwise the
+ *   session closest to expiry (the least recently used one) is evicted. That is a scan of the
+ *   store, paid only by logins at the cap and small next to the BCrypt check before it.
+ * - A scheduled sweeper removes expired sessions so idle entries don't accumulate.
+ *
+ * Supabase access tokens are bridged to a backend session so they share the same expiry.
+ */
+@Component
+public class AdminSessionStore {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminSessionStore.class);
+
+    private static final String TOKEN_PREFIX = "session_";
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    // Supabase access token -> backend session token
+    private final Map<String, String> bridgedTokens = new ConcurrentHashMap<>();
+
+    private final long ttlMillis;
+    private final int maxSessions;
+    private final LongSupplier clock;
+
+    @Autowired
+    public AdminSessionStore(@Value("${admin.session.ttl-minutes:30}") long ttlMinutes,
+                             @Value("${admin.session.max-sessions:10000}") int maxSessions) {
+        this(ttlMinutes, maxSessions, System::currentTimeMillis);
+    }
+
+    AdminSessionStore(long ttlMinutes, int maxSessions, LongSupplier clock) {
+        this.ttlMillis = ttlMinutes * 60_000L;
+        this.maxSessions = maxSessions;
+        this.clock = clock;
+    }
+
+    private static final class Session {
+        final Admin admin;
+        final String bridgedToken;
+        // Absolute limit for sliding expiry (the external token's own expiry for bridged sessions)
+        final long notAfter;
+        volatile long expiresAt;
+
+        Session(Admin admin, String bridgedToken, long notAfter, long expiresAt) {
+            this.admin = admin;
+            this.bridgedToken = bridgedToken;
+            this.notAfter = notAfter;
+            this.expiresAt = Math.min(expiresAt, notAfter);
+        }
+    }
+
+    /**
+     * Creates a session for an authenticated admin and returns its token.
+     */
+    public String create(Admin admin) {
+        return put(admin, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the backend session for an external (Supabase) token, creating it if needed.
+     * The session never outlives notAfterMillis (the external token's expiry).
+     */
+    public Admin bridge(String externalToken, Admin admin, long notAfterMillis) {
+        String sessionToken = bridgedTokens.get(externalToken);
+        if (sessionToken != null) {
+            Admin existing = get(sessionToken);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        bridgedTokens.put(externalToken, put(admin, externalToken, notAfterMillis));
+        return admin;
+    }
+
+    /**
+     * Looks up a session (backend or bridged token) and slides its expiry.
+     * @return the admin, or null if the token is unknown or expired
+     */
+    public Admin get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            String sessionToken = bridgedTokens.get(token);
+            if (sessionToken == null) {
+                return null;
+            }
+            token = sessionToken;
+            session = sessions.get(sessionToken);
+            if (session == null) {
+                return null;
+            }
+        }
+        long now = clock.getAsLong();
+        if (session.expiresAt <= now) {
+            remove(token, session);
+            return null;
+        }
+        session.expiresAt = Math.min(now + ttlMillis, session.notAfter);
+        return session.admin;
+    }
+
+    /**
+     * Ends a session. Accepts either the backend token or a bridged external token.
+     */
+    public void invalidate(String token) {
+        if (token == null) {
+            return;
+        }
+        String sessionToken = bridgedTokens.getOrDefault(token, token);
+        Session session = sessions.get(sessionToken);
+        if (session != null) {
+            remove(sessionToken, session);
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    @Scheduled(fixedDelayString = "${admin.session.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            if (entry.getValue().expiresAt <= now && remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.debug("Session sweep removed {} expired sessions, {} active", removed, sessions.size());
+        }
+    }
+
+    private String put(Admin admin, String bridgedToken, long notAfter) {
+        if (sessions.size() >= maxSessions) {
+            makeRoom();
+        }
+        String token = newToken();
+        sessions.put(token, new Session(admin, bridgedToken, notAfter, clock.getAsLong() + ttlMillis));
+        return token;
+    }
+
+    /**
+     * Drops every expired session; if none was, evicts the one closest to expiry.
+     */
+    private void makeRoom() {
+        long now = clock.getAsLong();
+        String victim = null;
+        Session victimSession = null;
+        boolean freed = false;
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            Session session = entry.getValue();
+            if (session.expiresAt <= now) {
+                freed |= remove(entry.getKey(), session);
+            } else if (victimSession == null || session.expiresAt < victimSession.expiresAt) {
+                victim = entry.getKey();
+                victimSession = session;
+            }
+        }
+        if (!freed && victim != null) {
+            remove(victim, victimSession);
+        }
+    }
+
+    private boolean remove(String token, Session session) {
+        if (!sessions.remove(token, session)) {
+            return false;
+        }
+        if (session.bridgedToken != null) {
+            bridgedTokens.remove(session.bridgedToken, token);
+        }
+        return true;
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return TOKEN_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,241 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.Admin;
+import com.smartparking.smart_parking.model.RevokedAdminToken;
+import com.smartparking.smart_parking.repository.RevokedAdminTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stateless, HMAC-signed admin tokens for multi-node deployments.
+ *
+ * Token format: "session_v1." + base64url(payload) + "." + base64url(HMAC-SHA256(payload))
+ * Payload:      version, adminId, expiry (epoch seconds), 8-byte token id, role, username
+ *
+ * Any node configured with the same admin.token.secret verifies a token locally, with no
+ * shared session state. The "session_" prefix keeps the frontend token checks working.
+ *
+ * Logout stores the token id in revoked_admin_tokens until the token's own expiry. verify()
+ * only checks the in-memory revocations (no database access per request); each node copies
+ * the table's unexpired rows into memory every admin.token.revocation-sync-ms. A logout is
+ * therefore effective at once on the node that handled it and within one sync interval on the
+ * others. If the database is unreachable, verification keeps working with the revocations
+ * synced so far.
+ *
+ * Signed mode requires admin.token.secret: with a per-process key, tokens would only be
+ * accepted by the node that issued them.
+ */
+@Service
+public class AdminTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminTokenService.class);
+
+    private static final String TOKEN_PREFIX = "session_v1.";
+    private static final byte PAYLOAD_VERSION = 1;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final boolean signedMode;
+    private final long ttlSeconds;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+    private final RevokedAdminTokenRepository revokedRepo;
+
+    // Revocations known to this node: token id -> expiry (epoch seconds), dropped once the token would have expired
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    public AdminTokenService(@Value("${admin.token.mode:session}") String mode,
+                             @Value("${admin.token.secret:}") String secret,
+                             @Value("${admin.token.ttl-minutes:60}") long ttlMinutes,
+                             RevokedAdminTokenRepository revokedRepo) {
+        this.signedMode = "signed".equalsIgnoreCase(mode.trim());
+        this.ttlSeconds = ttlMinutes * 60;
+        this.revokedRepo = revokedRepo;
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            if (signedMode) {
+                throw new IllegalStateException("admin.token.mode=signed requires admin.token.secret "
+                    + "(at least 32 bytes, the same on every node)");
+            }
+            // Session mode never issues signed tokens; a random key makes sure none verify either
+            keyBytes = new byte[32];
+            RANDOM.nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length < 32) {
+                throw new IllegalArgumentException("admin.token.secret must be at least 32 bytes");
+            }
+        }
+        this.key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /** True when /admin/login should issue signed tokens instead of in-memory sessions. */
+    public boolean isSignedMode() {
+        return signedMode;
+    }
+
+    /** True if the token has the signed-token shape (it may still be invalid). */
+    public boolean isSignedToken(String token) {
+        return token != null && token.startsWith(TOKEN_PREFIX);
+    }
+
+    /**
+     * Issues a signed token for an authenticated admin.
+     */
+    public String issue(Admin admin) {
+        byte[] role = admin.getRole().getBytes(StandardCharsets.UTF_8);
+        byte[] username = admin.getUsername().getBytes(StandardCharsets.UTF_8);
+        byte[] tokenId = new byte[8];
+        RANDOM.nextBytes(tokenId);
+        long expiresAt = nowSeconds() + ttlSeconds;
+
+        ByteBuffer payload = ByteBuffer.allocate(1 + 8 + 8 + 8 + 2 + role.length + 2 + username.length);
+        payload.put(PAYLOAD_VERSION);
+        payload.putLong(admin.getId() != null ? admin.getId() : 0L);
+        payload.putLong(expiresAt);
+        payload.put(tokenId);
+        payload.putShort((short) role.length).put(role);
+        payload.putShort((short) username.length).put(username);
+
+        byte[] bytes = payload.array();
+        return TOKEN_PREFIX + ENCODER.encodeToString(bytes) + "." + ENCODER.encodeToString(sign(bytes));
+    }
+
+    /**
+     * Verifies signature, expiry and revocation.
+     * @return a detached Admin (id, username, role) or null if the token is not valid
+     */
+    public Admin verify(String token) {
+        Claims claims = parse(token);
+        if (claims == null) {
+            return null;
+        }
+        Admin admin = new Admin();
+        admin.setId(claims.adminId != 0L ? claims.adminId : null);
+        admin.setUsername(claims.username);
+        admin.setRole(claims.role);
+        admin.setActive(true);
+        return admin;
+    }
+
+    /**
+     * Revokes a token on every node until it expires (used by logout).
+     */
+    public void revoke(String token) {
+        Claims claims = parse(token);
+        if (claims != null) {
+            revokedRepo.save(new RevokedAdminToken(claims.tokenId, claims.expiresAt));
+            revoked.put(claims.tokenId, claims.expiresAt);
+        }
+    }
+
+    /**
+     * Copies revocations made on other nodes into memory.
+     */
+    @Scheduled(fixedDelayString = "${admin.token.revocation-sync-ms:5000}")
+    public void syncRevocations() {
+        if (!signedMode) {
+            return;
+        }
+        try {
+            List<RevokedAdminToken> rows = revokedRepo.findByExpiresAtGreaterThan(nowSeconds());
+            rows.forEach(row -> revoked.putIfAbsent(row.getTokenId(), row.getExpiresAt()));
+        } catch (RuntimeException e) {
+            log.warn("Admin token revocation sync failed, keeping {} known revocations: {}", revoked.size(), e.toString());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${admin.session.sweep-interval-ms:60000}")
+    public void purgeRevoked() {
+        long now = nowSeconds();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        if (signedMode) {
+            int removed = revokedRepo.deleteExpired(now);
+            if (removed > 0) {
+                log.debug("Purged {} expired admin token revocations", removed);
+            }
+        }
+    }
+
+    private record Claims(long adminId, long expiresAt, String tokenId, String role, String username) {}
+
+    private Claims parse(String token) {
+        if (!isSignedToken(token)) {
+            return null;
+        }
+        int dot = token.indexOf('.', TOKEN_PREFIX.length());
+        if (dot < 0) {
+            return null;
+        }
+        try {
+            byte[] payload = DECODER.decode(token.substring(TOKEN_PREFIX.length(), dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return null;
+            }
+            ByteBuffer buf = ByteBuffer.wrap(payload);
+            if (buf.get() != PAYLOAD_VERSION) {
+                return null;
+            }
+            long adminId = buf.getLong();
+            long expiresAt = buf.getLong();
+            byte[] tokenId = new byte[8];
+            buf.get(tokenId);
+            String role = readString(buf);
+            String username = readString(buf);
+            if (expiresAt <= nowSeconds()) {
+                return null;
+            }
+            String id = ENCODER.encodeToString(tokenId);
+            if (revoked.containsKey(id)) {
+                return null;
+            }
+            return new Claims(adminId, expiresAt, id, role, username);
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort() & 0xFFFF];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
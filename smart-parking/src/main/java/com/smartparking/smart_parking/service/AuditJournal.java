@@ -0,0 +1,631 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.AuditJournalCheckpoint;
+import com.smartparking.smart_parking.repository.AuditJournalCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped audit journal.
+ *
+ * Every admin action is appended to a segment file that is mapped into memory, so a write
+ * is a buffer copy plus a CRC and a SHA-256 step (microseconds, no database round trip).
+ * Segments rotate when full. Each entry carries a CRC32C of its body and the SHA-256 of
+ * (previous hash || entry fields), so an entry edited, dropped or reordered in place breaks the chain.
+ *
+ * The chain is unkeyed: someone who can write the segment files could cut off the tail or
+ * re-hash rewritten entries consistently. Every audit.journal.checkpoint-ms the current head
+ * (sequence, hash) is therefore inserted into audit_journal_checkpoints; verifyAll() checks
+ * that the journal still reaches the latest checkpoint with the same hash. Entries written
+ * after the latest checkpoint are only covered by the chain itself.
+ *
+ * Segment layout:
+ *   header (64 bytes): magic, version, first sequence, hash of the last entry of the previous segment
+ *   entries:           [int bodyLength][int crc32c][body] ... terminated by a zero length
+ *   body:              sequence, timestamp, adminUsername, action, description, details, hash
+ *
+ * The audit_logs table is kept as an optional projection (audit.journal.db-projection).
+ */
+@Component
+public class AuditJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+
+    private static final int MAGIC = 0x41554A31; // "AUJ1"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int HASH_SIZE = 32;
+    private static final int ENTRY_OVERHEAD = 8; // length + crc
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final boolean enabled;
+    private final boolean databaseProjection;
+    private final boolean forceOnWrite;
+    private final Path directory;
+    private final int segmentSize;
+    private final CheckpointStore checkpoints;
+
+    private final CRC32C crc = new CRC32C();
+    private final MessageDigest digest;
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private Path segmentPath;
+    private long nextSequence = 1;
+    private byte[] lastHash = new byte[HASH_SIZE];
+    private volatile long checkpointedSequence;
+
+    @Autowired
+    public AuditJournal(@Value("${audit.journal.enabled:false}") boolean enabled,
+                        @Value("${audit.journal.db-projection:true}") boolean databaseProjection,
+                        @Value("${audit.journal.force-on-write:false}") boolean forceOnWrite,
+                        @Value("${audit.journal.dir:audit-journal}") String directory,
+                        @Value("${audit.journal.segment-size-kb:65536}") int segmentSizeKb,
+                        AuditJournalCheckpointRepository checkpointRepo) {
+        this(enabled, databaseProjection, forceOnWrite, directory, segmentSizeKb, new CheckpointStore() {
+            @Override
+            public Checkpoint latest() {
+                return checkpointRepo.findTopByOrderBySequenceDesc()
+                    .map(row -> new Checkpoint(row.getSequence(), HexFormat.of().parseHex(row.getHash())))
+                    .orElse(null);
+            }
+
+            @Override
+            public void save(Checkpoint checkpoint) {
+                checkpointRepo.save(new AuditJournalCheckpoint(checkpoint.sequence(),
+                    HexFormat.of().formatHex(checkpoint.hash()), LocalDateTime.now()));
+            }
+        });
+    }
+
+    AuditJournal(boolean enabled, boolean databaseProjection, boolean forceOnWrite, String directory,
+                 int segmentSizeKb, CheckpointStore checkpoints) {
+        this.enabled = enabled;
+        this.databaseProjection = databaseProjection;
+        this.forceOnWrite = forceOnWrite;
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSizeKb * 1024;
+        if (segmentSize < HEADER_SIZE + 1024) {
+            throw new IllegalArgumentException("audit.journal.segment-size-kb is too small");
+        }
+        this.digest = newDigest();
+        this.checkpoints = checkpoints;
+    }
+
+    public record Entry(long sequence, LocalDateTime timestamp, String adminUsername, String action,
+                        String description, String details) {}
+
+    /** Chain head at one sequence, stored outside the segment files. */
+    public record Checkpoint(long sequence, byte[] hash) {}
+
+    /** Where checkpoints are kept; saved sequences only ever increase. */
+    interface CheckpointStore {
+        /** Latest checkpoint, or null if there is none. */
+        Checkpoint latest();
+
+        void save(Checkpoint checkpoint);
+    }
+
+    /**
+     * Outcome of verifying one segment (or, with segment "checkpoint", of the latest checkpoint).
+     * firstBadOffset is -1 when the segment is intact.
+     */
+    public record SegmentVerification(String segment, long firstSequence, long entries, boolean valid,
+                                      long firstBadOffset, String message) {}
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** True when audit_logs should still be written alongside the journal (or instead of it, when disabled). */
+    public boolean isDatabaseProjectionEnabled() {
+        return !enabled || databaseProjection;
+    }
+
+    @PostConstruct
+    public synchronized void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = listSegments();
+            if (segments.isEmpty()) {
+                openNewSegment();
+            } else {
+                recover(segments);
+            }
+            Checkpoint latest = latestCheckpoint();
+            if (latest != null) {
+                checkpointedSequence = latest.sequence();
+                if (latest.sequence() >= nextSequence) {
+                    log.error("Audit journal ends at sequence {} but sequence {} was checkpointed: entries are missing",
+                        nextSequence - 1, latest.sequence());
+                }
+            }
+            log.info("Audit journal open at {} (segment {}, next sequence {})",
+                directory.toAbsolutePath(), segmentPath.getFileName(), nextSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open audit journal in " + directory, e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        checkpoint();
+        try {
+            segment.force();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit journal segment {}: {}", segmentPath, e.getMessage());
+        } finally {
+            channel = null;
+            segment = null;
+        }
+    }
+
+    // ===================== WRITE =====================
+
+    /**
+     * Appends one entry and returns its sequence number.
+     */
+    public synchronized long append(LocalDateTime timestamp, String adminUsername, String action,
+                                    String description, String details) {
+        if (!enabled) {
+            throw new IllegalStateException("Audit journal is disabled (audit.journal.enabled=false)");
+        }
+        if (segment == null) {
+            throw new IllegalStateException("Audit journal is closed");
+        }
+        long sequence = nextSequence;
+
+        ByteBuffer body = encodeFields(sequence, timestamp, adminUsername, action, description, details);
+        int fieldsLength = body.position();
+        byte[] hash = chainHash(lastHash, body.array(), fieldsLength);
+        body.put(hash);
+        int bodyLength = body.position();
+
+        if (ENTRY_OVERHEAD + bodyLength + 4 > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Audit entry of " + bodyLength + " bytes does not fit in a segment");
+        }
+        if (segment.remaining() < ENTRY_OVERHEAD + bodyLength + 4) {
+            rotate();
+        }
+
+        crc.reset();
+        crc.update(body.array(), 0, bodyLength);
+        int entryStart = segment.position();
+        segment.position(entryStart + 4);
+        segment.putInt((int) crc.getValue());
+        segment.put(body.array(), 0, bodyLength);
+        // Length goes in last so a torn write never looks like a complete entry
+        segment.putInt(entryStart, bodyLength);
+        if (forceOnWrite) {
+            segment.force();
+        }
+
+        lastHash = hash;
+        nextSequence = sequence + 1;
+        return sequence;
+    }
+
+    /**
+     * Appends once the current transaction has committed, or right away outside a transaction, so
+     * actions that roll back never reach the journal. The action has committed by then, so a failed
+     * append is logged instead of thrown.
+     */
+    public void appendAfterCommit(LocalDateTime timestamp, String adminUsername, String action,
+                                  String description, String details) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(timestamp, adminUsername, action, description, details);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    append(timestamp, adminUsername, action, description, details);
+                } catch (RuntimeException e) {
+                    log.error("Failed to journal committed admin action {} by {}: {}", action, adminUsername, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Records the current chain head in the checkpoint store if it moved past the last checkpoint.
+     * Never overwrites a checkpoint: after entries went missing, the old one keeps failing verification.
+     */
+    @Scheduled(fixedDelayString = "${audit.journal.checkpoint-ms:10000}")
+    public void checkpoint() {
+        Checkpoint head;
+        synchronized (this) {
+            if (segment == null || nextSequence - 1 <= checkpointedSequence) {
+                return;
+            }
+            head = new Checkpoint(nextSequence - 1, lastHash.clone());
+        }
+        try {
+            checkpoints.save(head);
+            checkpointedSequence = head.sequence();
+        } catch (RuntimeException e) {
+            log.warn("Failed to checkpoint audit journal at sequence {}: {}", head.sequence(), e.getMessage());
+        }
+    }
+
+    private Checkpoint latestCheckpoint() {
+        try {
+            return checkpoints.latest();
+        } catch (RuntimeException e) {
+            log.warn("Failed to read audit journal checkpoints: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void rotate() {
+        try {
+            segment.force();
+            channel.close();
+            openNewSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rotate audit journal segment", e);
+        }
+    }
+
+    private void openNewSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.putInt(MAGIC);
+        segment.putShort(VERSION);
+        segment.putShort((short) 0);
+        segment.putLong(nextSequence);
+        segment.put(lastHash);
+        segment.position(HEADER_SIZE);
+        segmentPath = path;
+    }
+
+    /**
+     * Reopens the newest segment and positions after its last intact entry. A segment with a
+     * damaged tail (crash mid-write or tampering) is left untouched as evidence and sealed;
+     * writing continues in a new segment chained to the last intact entry. When the newest
+     * segment's header is unreadable, the chain continues from the last intact entry of the
+     * segments before it.
+     */
+    private void recover(List<Path> segments) throws IOException {
+        Path path = segments.get(segments.size() - 1);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentPath = path;
+        ScanResult scan = scan(segment, null);
+        if (scan.firstSequence > 0) {
+            nextSequence = scan.lastSequence + 1;
+            lastHash = scan.lastHash;
+        } else {
+            for (int i = segments.size() - 2; i >= 0; i--) {
+                ScanResult previous = scanFile(segments.get(i));
+                if (previous.firstSequence > 0) {
+                    nextSequence = previous.lastSequence + 1;
+                    lastHash = previous.lastHash;
+                    break;
+                }
+            }
+        }
+        if (scan.error == null) {
+            segment.position((int) scan.endOffset);
+            return;
+        }
+        log.warn("Audit journal segment {} is damaged at offset {} ({}); sealing it and starting a new segment",
+            path.getFileName(), scan.endOffset, scan.error);
+        channel.close();
+        if (scan.entries == 0) {
+            // The new segment would reuse this file name
+            Files.move(path, path.resolveSibling(path.getFileName() + ".damaged"));
+        }
+        openNewSegment();
+    }
+
+    private static ScanResult scanFile(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            return scan(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()), null);
+        }
+    }
+
+    // ===================== READ / VERIFY =====================
+
+    /**
+     * Replays every entry of every segment in order.
+     */
+    public synchronized void replay(Consumer<Entry> consumer) {
+        for (Path path : listSegmentsUnchecked()) {
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                scan(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()), consumer);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to replay audit journal segment " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Verifies CRCs, sequence continuity and the hash chain of every segment, including
+     * the link from each segment header to the previous segment's last entry, and that the
+     * journal still contains the latest checkpointed entry unchanged (last result, "checkpoint").
+     */
+    public synchronized List<SegmentVerification> verifyAll() {
+        List<SegmentVerification> results = new ArrayList<>();
+        Checkpoint checkpoint = latestCheckpoint();
+        long probe = checkpoint != null ? checkpoint.sequence() : -1;
+        byte[] checkpointedEntryHash = null;
+        byte[] expectedPrevHash = null;
+        long expectedSequence = -1;
+        for (Path path : listSegmentsUnchecked()) {
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                ScanResult scan = scan(buf, null, probe);
+                if (scan.probeHash != null) {
+                    checkpointedEntryHash = scan.probeHash;
+                }
+                String error = scan.error;
+                if (error == null && expectedPrevHash != null) {
+                    if (!Arrays.equals(expectedPrevHash, scan.headerPrevHash)) {
+                        error = "header does not chain to previous segment";
+                    } else if (scan.firstSequence != expectedSequence) {
+                        error = "expected first sequence " + expectedSequence + " but found " + scan.firstSequence;
+                    }
+                }
+                results.add(new SegmentVerification(path.getFileName().toString(), scan.firstSequence,
+                    scan.entries, error == null, error == null ? -1 : scan.endOffset, error == null ? "OK" : error));
+                expectedPrevHash = scan.lastHash;
+                expectedSequence = scan.lastSequence + 1;
+            } catch (IOException e) {
+                results.add(new SegmentVerification(path.getFileName().toString(), -1, 0, false, 0, e.getMessage()));
+            }
+        }
+        if (checkpoint != null) {
+            String error = checkpointedEntryHash == null
+                ? "journal does not contain checkpointed sequence " + checkpoint.sequence()
+                : !Arrays.equals(checkpointedEntryHash, checkpoint.hash())
+                    ? "entry " + checkpoint.sequence() + " does not match its checkpoint"
+                    : null;
+            results.add(new SegmentVerification("checkpoint", checkpoint.sequence(), 0, error == null, -1,
+                error == null ? "OK" : error));
+        }
+        return results;
+    }
+
+    /**
+     * Verifies a single segment file on its own (header chain seed, CRCs, sequences, hashes).
+     */
+    public static SegmentVerification verifySegment(Path path) {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ScanResult scan = scan(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()), null);
+            return new SegmentVerification(path.getFileName().toString(), scan.firstSequence, scan.entries,
+                scan.error == null, scan.error == null ? -1 : scan.endOffset, scan.error == null ? "OK" : scan.error);
+        } catch (IOException e) {
+            return new SegmentVerification(path.getFileName().toString(), -1, 0, false, 0, e.getMessage());
+        }
+    }
+
+    private static final class ScanResult {
+        long firstSequence = -1;
+        long lastSequence;
+        long entries;
+        long endOffset = HEADER_SIZE;
+        byte[] headerPrevHash = new byte[HASH_SIZE];
+        byte[] lastHash = new byte[HASH_SIZE];
+        byte[] probeHash;
+        String error;
+    }
+
+    private static ScanResult scan(ByteBuffer buf, Consumer<Entry> consumer) {
+        return scan(buf, consumer, -1);
+    }
+
+    /**
+     * Sequential pass over a segment. Stops at the zero terminator or at the first entry that fails
+     * a check; endOffset is then the offset of that entry and error describes it. probeHash is the
+     * hash of the intact entry with sequence probeSequence, if the segment has it.
+     */
+    private static ScanResult scan(ByteBuffer buf, Consumer<Entry> consumer, long probeSequence) {
+        ScanResult result = new ScanResult();
+        if (buf.limit() < HEADER_SIZE || buf.getInt(0) != MAGIC) {
+            result.error = "not an audit journal segment";
+            result.endOffset = 0;
+            return result;
+        }
+        if (buf.getShort(4) != VERSION) {
+            result.error = "unsupported segment version " + buf.getShort(4);
+            result.endOffset = 0;
+            return result;
+        }
+        result.firstSequence = buf.getLong(8);
+        buf.get(16, result.headerPrevHash);
+        result.lastSequence = result.firstSequence - 1;
+        result.lastHash = result.headerPrevHash.clone();
+
+        MessageDigest digest = newDigest();
+        CRC32C crc = new CRC32C();
+        int offset = HEADER_SIZE;
+        while (offset + ENTRY_OVERHEAD <= buf.limit()) {
+            int length = buf.getInt(offset);
+            if (length == 0) {
+                break;
+            }
+            if (length < HASH_SIZE || offset + ENTRY_OVERHEAD + length > buf.limit()) {
+                result.error = "invalid entry length " + length;
+                break;
+            }
+            byte[] body = new byte[length];
+            buf.get(offset + ENTRY_OVERHEAD, body);
+            crc.reset();
+            crc.update(body, 0, length);
+            if ((int) crc.getValue() != buf.getInt(offset + 4)) {
+                result.error = "CRC mismatch";
+                break;
+            }
+            int fieldsLength = length - HASH_SIZE;
+            digest.reset();
+            digest.update(result.lastHash);
+            digest.update(body, 0, fieldsLength);
+            byte[] expectedHash = digest.digest();
+            if (!Arrays.equals(expectedHash, 0, HASH_SIZE, body, fieldsLength, length)) {
+                result.error = "hash chain broken";
+                break;
+            }
+            Entry entry = decodeFields(ByteBuffer.wrap(body, 0, fieldsLength));
+            if (entry.sequence() != result.lastSequence + 1) {
+                result.error = "expected sequence " + (result.lastSequence + 1) + " but found " + entry.sequence();
+                break;
+            }
+            if (consumer != null) {
+                consumer.accept(entry);
+            }
+            if (entry.sequence() == probeSequence) {
+                result.probeHash = expectedHash;
+            }
+            result.lastSequence = entry.sequence();
+            result.lastHash = expectedHash;
+            result.entries++;
+            offset += ENTRY_OVERHEAD + length;
+        }
+        result.endOffset = offset;
+        return result;
+    }
+
+    // ===================== ENCODING =====================
+
+    private ByteBuffer encodeFields(long sequence, LocalDateTime timestamp, String adminUsername, String action,
+                                    String description, String details) {
+        byte[] user = utf8(adminUsername);
+        byte[] act = utf8(action);
+        byte[] desc = utf8(description);
+        byte[] det = utf8(details);
+        int size = 8 + 8 + 4 + 4 * 4 + len(user) + len(act) + len(desc) + len(det) + HASH_SIZE;
+        if (scratch.capacity() < size) {
+            scratch = ByteBuffer.allocate(Math.max(size, scratch.capacity() * 2));
+        }
+        ByteBuffer buf = scratch.clear();
+        buf.putLong(sequence);
+        buf.putLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        buf.putInt(timestamp.getNano());
+        putBytes(buf, user);
+        putBytes(buf, act);
+        putBytes(buf, desc);
+        putBytes(buf, det);
+        return buf;
+    }
+
+    private static Entry decodeFields(ByteBuffer buf) {
+        long sequence = buf.getLong();
+        long epochSecond = buf.getLong();
+        int nano = buf.getInt();
+        return new Entry(
+            sequence,
+            LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC),
+            getString(buf),
+            getString(buf),
+            getString(buf),
+            getString(buf)
+        );
+    }
+
+    private byte[] chainHash(byte[] previous, byte[] fields, int length) {
+        digest.reset();
+        digest.update(previous);
+        digest.update(fields, 0, length);
+        return digest.digest();
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int len(byte[] bytes) {
+        return bytes != null ? bytes.length : 0;
+    }
+
+    private static void putBytes(ByteBuffer buf, byte[] bytes) {
+        if (bytes == null) {
+            buf.putInt(-1);
+        } else {
+            buf.putInt(bytes.length);
+            buf.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(p -> {
+                    String name = p.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                })
+                .sorted()
+                .toList();
+        }
+    }
+
+    private List<Path> listSegmentsUnchecked() {
+        try {
+            return listSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list audit journal segments in " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.EmailOutbox;
+import com.smartparking.smart_parking.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers queued email (email_outbox) in the background.
+ *
+ * - Each run claims up to email.outbox.batch-size due PENDING messages (conditional UPDATE to
+ *   SENDING with a per-run token), so several instances never send the same message. A claim
+ *   lasts email.outbox.claim-timeout-seconds; messages of a run that died are then due again.
+ * - The claimed batch goes to JavaMailSender.send(SimpleMailMessage...), which sends it over one
+ *   SMTP connection.
+ * - Failed messages are retried with exponential backoff (email.outbox.backoff-base-seconds,
+ *   doubled per attempt, capped at email.outbox.backoff-max-seconds).
+ * - After email.outbox.max-attempts, or at once if the server rejects the address, a message
+ *   moves to DEAD and stays in the table for inspection.
+ * - Messages past their expiresAt (OTPs) move to EXPIRED instead of being sent or retried.
+ * - SENT, DEAD and EXPIRED messages keep recipient, subject and timestamps but not the body,
+ *   so delivered codes are not stored.
+ * - Runs happen on emailOutboxExecutor, one at a time, never on the shared scheduler thread.
+ *   The SMTP connect / read / write timeouts (spring.mail.properties.mail.smtp.*) must stay well
+ *   below the claim timeout, or a stalled run's messages are claimed and sent again elsewhere.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final List<String> DUE_STATUSES = List.of(EmailOutbox.STATUS_PENDING, EmailOutbox.STATUS_SENDING);
+
+    @Autowired(required = false)
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepo;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("emailOutboxExecutor")
+    private ExecutorService emailOutboxExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${spring.mail.username:}")
+    private String fromEmail;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+
+    @Value("${email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.backoff-base-seconds:30}")
+    private long backoffBaseSeconds;
+
+    @Value("${email.outbox.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    @Value("${email.outbox.claim-timeout-seconds:120}")
+    private long claimTimeoutSeconds;
+
+    @Scheduled(initialDelayString = "${email.outbox.poll-ms:5000}", fixedDelayString = "${email.outbox.poll-ms:5000}")
+    public void dispatchScheduled() {
+        if (!emailService.isSmtpConfigured() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            emailOutboxExecutor.execute(() -> {
+                try {
+                    dispatch();
+                } catch (RuntimeException e) {
+                    log.warn("Email outbox dispatch failed: {}", e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            running.set(false);
+        }
+    }
+
+    /**
+     * Sends due messages until none are left (bounded by email.outbox.max-batches-per-run).
+     * @return number of messages sent
+     */
+    public int dispatch() {
+        int expired = outboxRepo.expire(DUE_STATUSES, EmailOutbox.STATUS_EXPIRED, LocalDateTime.now());
+        if (expired > 0) {
+            meterRegistry.counter("email.outbox.expired").increment(expired);
+            log.info("Email outbox: dropped {} expired message(s)", expired);
+        }
+        int sent = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> due = outboxRepo.findDueIds(DUE_STATUSES, now, PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                break;
+            }
+            String token = UUID.randomUUID().toString();
+            if (outboxRepo.claim(due, DUE_STATUSES, EmailOutbox.STATUS_SENDING, token, now,
+                    now.plusSeconds(claimTimeoutSeconds)) > 0) {
+                sent += sendBatch(outboxRepo.findByClaimTokenOrderByIdAsc(token));
+            }
+            if (due.size() < batchSize) {
+                break;
+            }
+        }
+        return sent;
+    }
+
+    private int sendBatch(List<EmailOutbox> batch) {
+        List<SimpleMailMessage> messages = new ArrayList<>(batch.size());
+        for (EmailOutbox entry : batch) {
+            SimpleMailMessage msg = new SimpleMailMessage();
+            msg.setFrom(fromEmail);
+            msg.setTo(entry.getRecipient());
+            msg.setSubject(entry.getSubject());
+            msg.setText(entry.getBody());
+            messages.add(msg);
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        Exception batchFailure = null;
+        try {
+            mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            // Per-message failures; a connection failure lists every remaining message
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            // e.g. authentication failure: nothing was sent
+            batchFailure = e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int sent = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox entry = batch.get(i);
+            Exception failure = batchFailure != null ? batchFailure : failures.get(messages.get(i));
+            entry.setClaimToken(null);
+            if (failure == null) {
+                entry.setStatus(EmailOutbox.STATUS_SENT);
+                entry.setSentAt(now);
+                entry.setLastError(null);
+                entry.setBody("");
+                sent++;
+            } else {
+                markFailed(entry, failure, now);
+            }
+        }
+        outboxRepo.saveAll(batch);
+
+        meterRegistry.counter("email.outbox.sent").increment(sent);
+        if (sent < batch.size()) {
+            meterRegistry.counter("email.outbox.failed").increment(batch.size() - sent);
+            log.warn("Email outbox: sent {} of {} message(s)", sent, batch.size());
+        } else {
+            log.debug("Email outbox: sent {} message(s)", sent);
+        }
+        return sent;
+    }
+
+    private void markFailed(EmailOutbox entry, Exception failure, LocalDateTime now) {
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        String error = failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName();
+        entry.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (attempts >= maxAttempts || isPermanent(failure)) {
+            entry.setStatus(EmailOutbox.STATUS_DEAD);
+            entry.setBody("");
+            meterRegistry.counter("email.outbox.dead").increment();
+            log.warn("Email {} to {} moved to DEAD after {} attempt(s): {}",
+                entry.getId(), entry.getRecipient(), attempts, entry.getLastError());
+            return;
+        }
+        long delay = Math.min(backoffMaxSeconds, backoffBaseSeconds << Math.min(attempts - 1, 20));
+        LocalDateTime nextAttempt = now.plusSeconds(delay);
+        if (entry.getExpiresAt() != null && !nextAttempt.isBefore(entry.getExpiresAt())) {
+            // The retry would come too late
+            entry.setStatus(EmailOutbox.STATUS_EXPIRED);
+            entry.setBody("");
+            meterRegistry.counter("email.outbox.expired").increment();
+            return;
+        }
+        entry.setStatus(EmailOutbox.STATUS_PENDING);
+        entry.setNextAttemptAt(nextAttempt);
+    }
+
+    /** The server rejected the address itself; retrying will not help. */
+    private static boolean isPermanent(Exception failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof AddressException) {
+                return true;
+            }
+            if (t instanceof SendFailedException sfe
+                    && sfe.getInvalidAddresses() != null && sfe.getInvalidAddresses().length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,15 +1,21 @@
 package com.smartparking.smart_parking.service;
 
+import com.smartparking.smart_parking.model.EmailOutbox;
+import com.smartparking.smart_parking.repository.EmailOutboxRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 /**
  * Sends OTP email for admin signup verification.
+ * Messages are written to the email_outbox table and delivered in the background by
+ * EmailOutboxDispatcher, so callers never wait on the SMTP server.
  * If SMTP is not configured, logs OTP to console (for development).
  * See OTP_EMAIL_SETUP.md for SMTP configuration.
  */
@@ -21,43 +27,64 @@ public class EmailService {
     @Autowired(required = false)
     private JavaMailSender mailSender;
 
+    @Autowired
+    private EmailOutboxRepository outboxRepo;
+
     @Value("${spring.mail.username:}")
     private String fromEmail;
 
     private static final String OTP_SUBJECT = "Smart Parking - Verify Your Email";
+    private static final Duration OTP_VALIDITY = Duration.ofMinutes(5);
     private static final String OTP_BODY = "Your verification code is: %s\n\nIt expires in 5 minutes.\n\n— Smart Parking System";
 
     /**
-     * Sends OTP to email via SMTP if configured; otherwise logs to console.
-     * @return true if sent via SMTP, false if OTP was only logged to console (SMTP not configured or failed)
+     * Queues the OTP email for SMTP delivery if configured; otherwise logs to console.
+     * @return true if queued for SMTP delivery, false if OTP was only logged to console (SMTP not configured)
      */
     public boolean sendOtpToEmail(String toEmail, String otp) {
-        String body = String.format(OTP_BODY, otp);
-        if (mailSender != null && fromEmail != null && !fromEmail.isEmpty()) {
-            try {
-                SimpleMailMessage msg = new SimpleMailMessage();
-                msg.setFrom(fromEmail);
-                msg.setTo(toEmail);
-                msg.setSubject(OTP_SUBJECT);
-                msg.setText(body);
-                mailSender.send(msg);
-                log.info("OTP email sent to {}", toEmail);
-                return true;
-            } catch (Exception e) {
-                log.warn("Failed to send OTP email to {}: {}; falling back to console", toEmail, e.getMessage());
-                logOtpToConsole(toEmail, otp);
-                return false;
-            }
-        } else {
+        if (!isSmtpConfigured()) {
             log.info("SMTP not configured (spring.mail.host/username unset); OTP logged to console only. To: {}", toEmail);
             logOtpToConsole(toEmail, otp);
             return false;
         }
+        // An OTP past its validity is useless: the outbox drops it instead of retrying
+        enqueue(toEmail, OTP_SUBJECT, String.format(OTP_BODY, otp), LocalDateTime.now().plus(OTP_VALIDITY));
+        return true;
+    }
+
+    /**
+     * Adds a message to the outbox; it is sent by the next dispatcher run.
+     */
+    public EmailOutbox enqueue(String toEmail, String subject, String body) {
+        return enqueue(toEmail, subject, body, null);
+    }
+
+    /**
+     * Adds a message that is dropped (EXPIRED) if it cannot be delivered before expiresAt.
+     */
+    public EmailOutbox enqueue(String toEmail, String subject, String body, LocalDateTime expiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox message = new EmailOutbox();
+        message.setRecipient(toEmail);
+        message.setSubject(subject);
+        message.setBody(body);
+        message.setStatus(EmailOutbox.STATUS_PENDING);
+        message.setAttempts(0);
+        message.setNextAttemptAt(now);
+        message.setCreatedAt(now);
+        message.setExpiresAt(expiresAt);
+        EmailOutbox saved = outboxRepo.save(message);
+        log.debug("Queued email {} to {}", saved.getId(), toEmail);
+        return saved;
+    }
+
+    public boolean isSmtpConfigured() {
+        return mailSender != null && fromEmail != null && !fromEmail.isEmpty();
     }
 
     private void logOtpToConsole(String toEmail, String otp) {
         log.info("═══════════════════════════════════════════════════════");
-        log.info("  [DEV] OTP Email (SMTP not configured or failed)");
+        log.info("  [DEV] OTP Email (SMTP not configured)");
         log.info("  To: {}", toEmail);
         log.info("  OTP: {}", otp);
         log.info("  Expires in 5 minutes.");
@@ -0,0 +1,237 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.Floor;
+import com.smartparking.smart_parking.model.GarageLayout;
+import com.smartparking.smart_parking.model.GarageLayout.FloorSpec;
+import com.smartparking.smart_parking.model.GarageLayout.SlotRange;
+import com.smartparking.smart_parking.model.ParkingSlot;
+import com.smartparking.smart_parking.repository.FloorRepository;
+import com.smartparking.smart_parking.repository.ParkingSlotRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.yaml.YAMLMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a garage layout file (JSON or YAML, see GarageLayout) and seeds floors and slots from it.
+ *
+ * - The document is read once; each floor is then converted and validated in parallel
+ *   (ranges inside a floor must not overlap, floor numbers must be unique).
+ * - Seeding is one transaction: missing floors are created, and a floor's slots are inserted only
+ *   if the floor has none yet, so restarts and partially provisioned sites are left alone.
+ *   Slots are persisted in JDBC batches of hibernate.jdbc.batch_size, clearing the persistence
+ *   context after each batch so large sites (tens of thousands of slots) stay flat in memory.
+ * - The built-in default layout (DEFAULT_LOCATION) only seeds a database without any slots.
+ *   Otherwise an admin who removed the default floor 1 slots would get them back on every restart.
+ *
+ * Metric: timer "parking.layout.seed" (parse + seed).
+ */
+@Service
+public class GarageLayoutLoader {
+
+    public static final String DEFAULT_LOCATION = "classpath:layout/default-garage.yml";
+
+    private final ResourceLoader resourceLoader;
+    private final FloorRepository floorRepo;
+    private final ParkingSlotRepository slotRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final ReferenceDataCache referenceDataCache;
+    private final Timer seedTimer;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public GarageLayoutLoader(ResourceLoader resourceLoader, FloorRepository floorRepo, ParkingSlotRepository slotRepo,
+                              PlatformTransactionManager transactionManager, ReferenceDataCache referenceDataCache,
+                              MeterRegistry meterRegistry,
+                              @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.resourceLoader = resourceLoader;
+        this.floorRepo = floorRepo;
+        this.slotRepo = slotRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.referenceDataCache = referenceDataCache;
+        this.seedTimer = Timer.builder("parking.layout.seed").register(meterRegistry);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /** What seed() wrote. Floors skipped already had slots. */
+    public record SeedResult(int floorsCreated, int floorsSkipped, int slotsCreated) {
+    }
+
+    /** Outcome of loadAndSeed, for the startup report. */
+    public record SeedReport(String location, int floors, SeedResult result, long parseMillis, long totalMillis) {
+
+        @Override
+        public String toString() {
+            return "Garage layout " + location + ": " + floors + " floor(s), " + result.floorsCreated() + " created, "
+                    + result.floorsSkipped() + " already provisioned, " + result.slotsCreated()
+                    + " slot(s) inserted in " + totalMillis + " ms (parse " + parseMillis + " ms)";
+        }
+    }
+
+    public SeedReport loadAndSeed(String location) {
+        long start = System.nanoTime();
+        GarageLayout layout = load(location);
+        long parsed = System.nanoTime();
+        SeedResult result = DEFAULT_LOCATION.equals(location) ? seedIfEmpty(layout) : seed(layout);
+        long end = System.nanoTime();
+        seedTimer.record(end - start, TimeUnit.NANOSECONDS);
+        return new SeedReport(location, layout.floors().size(), result,
+                TimeUnit.NANOSECONDS.toMillis(parsed - start), TimeUnit.NANOSECONDS.toMillis(end - start));
+    }
+
+    public GarageLayout load(String location) {
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            throw new RuntimeException("Garage layout " + location + " not found");
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return parse(location, in);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot read garage layout " + location + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parses and validates a layout. The format follows the file name: .yml/.yaml is YAML, anything else JSON.
+     */
+    public GarageLayout parse(String name, InputStream in) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        ObjectMapper mapper = lower.endsWith(".yml") || lower.endsWith(".yaml") ? new YAMLMapper() : new JsonMapper();
+
+        JsonNode floorsNode = mapper.readTree(in).path("floors");
+        if (!floorsNode.isArray() || floorsNode.isEmpty()) {
+            throw new RuntimeException("Garage layout " + name + " has no floors");
+        }
+        List<JsonNode> floorNodes = new ArrayList<>(floorsNode.size());
+        for (int i = 0; i < floorsNode.size(); i++) {
+            floorNodes.add(floorsNode.get(i));
+        }
+
+        List<FloorSpec> floors = floorNodes.parallelStream()
+                .map(node -> validate(mapper.treeToValue(node, FloorSpec.class)))
+                .toList();
+
+        Set<Integer> numbers = new HashSet<>();
+        for (FloorSpec floor : floors) {
+            if (!numbers.add(floor.number())) {
+                throw new RuntimeException("Floor " + floor.number() + " appears twice in garage layout " + name);
+            }
+        }
+        return new GarageLayout(floors);
+    }
+
+    private static FloorSpec validate(FloorSpec floor) {
+        if (floor.number() == null || floor.number() < 1) {
+            throw new RuntimeException("Floor number must be a positive integer (got " + floor.number() + ")");
+        }
+        String where = "Floor " + floor.number() + ": ";
+        List<SlotRange> ranges = new ArrayList<>();
+        for (SlotRange range : floor.slots() != null ? floor.slots() : List.<SlotRange>of()) {
+            if (range.type() == null || range.type().isBlank()) {
+                throw new RuntimeException(where + "slot range without vehicle type");
+            }
+            if (range.from() == null || range.from() < 1) {
+                throw new RuntimeException(where + "slot ranges must start at 1 or above");
+            }
+            if ((range.to() == null) == (range.count() == null)) {
+                throw new RuntimeException(where + "slot range from " + range.from() + " needs either 'to' or 'count'");
+            }
+            long last = range.to() != null ? range.to() : (long) range.from() + range.count() - 1;
+            if (last < range.from() || last > Integer.MAX_VALUE) {
+                throw new RuntimeException(where + "slot range from " + range.from() + " is empty or out of range");
+            }
+            ranges.add(new SlotRange(range.type().trim().toUpperCase(), range.from(), (int) last, null));
+        }
+        ranges.sort(Comparator.comparingInt(SlotRange::from));
+        for (int i = 1; i < ranges.size(); i++) {
+            SlotRange previous = ranges.get(i - 1);
+            if (ranges.get(i).from() <= previous.last()) {
+                throw new RuntimeException(where + "slot ranges " + previous.from() + "-" + previous.last() + " and "
+                        + ranges.get(i).from() + "-" + ranges.get(i).last() + " overlap");
+            }
+        }
+        return new FloorSpec(floor.number(), floor.description(), ranges);
+    }
+
+    /**
+     * Creates missing floors and the slots of floors that have none.
+     */
+    public SeedResult seed(GarageLayout layout) {
+        return seed(layout, false);
+    }
+
+    /**
+     * Seeds the layout only if parking_slots is empty; otherwise every floor counts as skipped.
+     */
+    public SeedResult seedIfEmpty(GarageLayout layout) {
+        return seed(layout, true);
+    }
+
+    private SeedResult seed(GarageLayout layout, boolean onlyIfEmpty) {
+        SeedResult result = transactionTemplate.execute(status -> {
+            if (onlyIfEmpty && slotRepo.count() > 0) {
+                return new SeedResult(0, layout.floors().size(), 0);
+            }
+            Map<Integer, Floor> existing = floorRepo.findAll().stream()
+                    .collect(Collectors.toMap(Floor::getFloorNumber, Function.identity()));
+            int floorsCreated = 0;
+            int floorsSkipped = 0;
+            int slotsCreated = 0;
+
+            for (FloorSpec spec : layout.floors()) {
+                Floor floor = existing.get(spec.number());
+                if (floor == null) {
+                    floor = floorRepo.save(new Floor(spec.number(), spec.description()));
+                    floorsCreated++;
+                } else if (slotRepo.existsByFloor(floor)) {
+                    floorsSkipped++;
+                    continue;
+                }
+
+                Long floorId = floor.getId();
+                Floor floorRef = floor;
+                for (SlotRange range : spec.slots()) {
+                    for (int slotNumber = range.from(); slotNumber <= range.last(); slotNumber++) {
+                        entityManager.persist(new ParkingSlot(slotNumber, floorRef, range.type()));
+                        if (++slotsCreated % batchSize == 0) {
+                            entityManager.flush();
+                            entityManager.clear();
+                            floorRef = entityManager.getReference(Floor.class, floorId);
+                        }
+                    }
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return new SeedResult(floorsCreated, floorsSkipped, slotsCreated);
+        });
+        referenceDataCache.evictFloors();
+        referenceDataCache.evictSlotLayout();
+        return result;
+    }
+}
@@ -0,0 +1,240 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.exception.GateOverloadedException;
+import com.smartparking.smart_parking.repository.FloorRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Admission control for the gate endpoints (park / exit-by-slot), one adaptive limiter per floor.
+ *
+ * - A floor admits at most "limit" requests at a time. Requests without a floor (park anywhere)
+ *   share their own limiter, and so do requests naming a floor that does not exist: the floor
+ *   number is client input, and a limiter (with its meters) is only created for real floors.
+ * - Over the limit, up to parking.admission.queue-size requests wait (FIFO-ish) for at most
+ *   parking.admission.queue-timeout-ms; the rest are rejected at once with GateOverloadedException.
+ * - The limit adapts to latency (AIMD): a completion slower than latency-tolerance x baseline
+ *   shrinks it by 10%, a fast completion while the floor is busy grows it by about one per limit
+ *   completions. The baseline is a slow moving average of latency, so a permanently slower
+ *   database is eventually accepted as the new normal instead of pinning the limit at the minimum.
+ *
+ * Metrics: gauges "parking.admission.limit" and "parking.admission.inflight" (floor),
+ * counter "parking.admission.rejected" (floor, reason), timer "parking.admission.queue.wait" (floor).
+ */
+@Component
+public class GateAdmissionControl {
+
+    private static final String NO_FLOOR = "any";
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double BASELINE_ALPHA = 0.02;
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final long queueTimeoutMs;
+    private final double latencyTolerance;
+    private final MeterRegistry meterRegistry;
+    private final Predicate<Integer> floorExists;
+    private final ConcurrentMap<String, Limiter> limiters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GateAdmissionControl(@Value("${parking.admission.enabled:true}") boolean enabled,
+                                @Value("${parking.admission.initial-limit:20}") int initialLimit,
+                                @Value("${parking.admission.min-limit:2}") int minLimit,
+                                @Value("${parking.admission.max-limit:200}") int maxLimit,
+                                @Value("${parking.admission.queue-size:50}") int queueSize,
+                                @Value("${parking.admission.queue-timeout-ms:250}") long queueTimeoutMs,
+                                @Value("${parking.admission.latency-tolerance:2.0}") double latencyTolerance,
+                                MeterRegistry meterRegistry,
+                                FloorRepository floorRepo) {
+        // findByFloorNumber goes through the floor query cache
+        this(enabled, initialLimit, minLimit, maxLimit, queueSize, queueTimeoutMs, latencyTolerance, meterRegistry,
+            floorNumber -> floorRepo.findByFloorNumber(floorNumber).isPresent());
+    }
+
+    GateAdmissionControl(boolean enabled, int initialLimit, int minLimit, int maxLimit, int queueSize,
+                         long queueTimeoutMs, double latencyTolerance, MeterRegistry meterRegistry,
+                         Predicate<Integer> floorExists) {
+        this.enabled = enabled;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.initialLimit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.queueSize = Math.max(0, queueSize);
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.latencyTolerance = Math.max(1.0, latencyTolerance);
+        this.meterRegistry = meterRegistry;
+        this.floorExists = floorExists;
+    }
+
+    /**
+     * Admission ticket. close() releases the slot and feeds the request latency to the limiter.
+     */
+    public final class Permit implements AutoCloseable {
+        private final Limiter limiter;
+        private final long startNanos = System.nanoTime();
+        private boolean released;
+
+        private Permit(Limiter limiter) {
+            this.limiter = limiter;
+        }
+
+        @Override
+        public void close() {
+            if (released || limiter == null) {
+                return;
+            }
+            released = true;
+            limiter.release(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Admits the request or waits briefly for room on the floor.
+     * @throws GateOverloadedException if the floor stays at its limit
+     */
+    public Permit acquire(Integer floorNumber) {
+        if (!enabled) {
+            return new Permit(null);
+        }
+        Limiter limiter = limiterFor(floorNumber);
+        limiter.acquire();
+        return new Permit(limiter);
+    }
+
+    /** Current limit for a floor (null = park anywhere), for diagnostics. */
+    public int currentLimit(Integer floorNumber) {
+        return limiterFor(floorNumber).currentLimit();
+    }
+
+    Limiter limiterFor(Integer floorNumber) {
+        if (floorNumber != null) {
+            String floor = String.valueOf(floorNumber);
+            Limiter limiter = limiters.get(floor);
+            if (limiter != null) {
+                return limiter;
+            }
+            if (floorExists.test(floorNumber)) {
+                return limiters.computeIfAbsent(floor, Limiter::new);
+            }
+        }
+        return limiters.computeIfAbsent(NO_FLOOR, Limiter::new);
+    }
+
+    final class Limiter {
+        private final String floor;
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final Condition room = lock.newCondition();
+        private final Timer queueWait;
+        private double limit = initialLimit;
+        private double baselineNanos;
+        private int inFlight;
+        private int waiting;
+
+        private Limiter(String floor) {
+            this.floor = floor;
+            this.queueWait = Timer.builder("parking.admission.queue.wait")
+                .tag("floor", floor)
+                .register(meterRegistry);
+            Gauge.builder("parking.admission.limit", this, Limiter::currentLimit)
+                .tag("floor", floor)
+                .register(meterRegistry);
+            Gauge.builder("parking.admission.inflight", this, Limiter::inFlight)
+                .tag("floor", floor)
+                .register(meterRegistry);
+        }
+
+        void acquire() {
+            lock.lock();
+            try {
+                if (inFlight < currentLimit()) {
+                    inFlight++;
+                    return;
+                }
+                if (waiting >= queueSize) {
+                    throw reject("queue-full");
+                }
+                waiting++;
+                long start = System.nanoTime();
+                try {
+                    long remaining = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+                    while (inFlight >= currentLimit()) {
+                        if (remaining <= 0) {
+                            throw reject("queue-timeout");
+                        }
+                        remaining = room.awaitNanos(remaining);
+                    }
+                    inFlight++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw reject("interrupted");
+                } finally {
+                    waiting--;
+                    queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(long latencyNanos) {
+            lock.lock();
+            try {
+                boolean busy = inFlight >= currentLimit() / 2;
+                inFlight--;
+                adapt(latencyNanos, busy);
+                room.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void adapt(long latencyNanos, boolean busy) {
+            if (baselineNanos == 0) {
+                baselineNanos = latencyNanos;
+                return;
+            }
+            if (latencyNanos > baselineNanos * latencyTolerance) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            } else if (busy) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            baselineNanos += BASELINE_ALPHA * (latencyNanos - baselineNanos);
+        }
+
+        int currentLimit() {
+            return (int) limit;
+        }
+
+        int inFlight() {
+            return inFlight;
+        }
+
+        int waiting() {
+            lock.lock();
+            try {
+                return waiting;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private GateOverloadedException reject(String reason) {
+            meterRegistry.counter("parking.admission.rejected", "floor", floor, "reason", reason).increment();
+            return new GateOverloadedException(
+                    (NO_FLOOR.equals(floor) ? "The gate" : "Floor " + floor) + " is busy, please retry", 1);
+        }
+    }
+}
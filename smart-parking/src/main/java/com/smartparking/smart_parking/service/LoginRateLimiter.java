@@ -0,0 +1,161 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.exception.LoginThrottledException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket throttling for /admin/login, per username and per client IP.
+ *
+ * Checked before authenticate() so rejected attempts cost no BCrypt work. An attempt takes a
+ * token from both buckets only when both have one, so a throttled username never drains the IP.
+ * Buckets live in a bounded LRU map (admin.login.rate-limit.max-keys): a full bucket carries no
+ * state and is swept away, and at the cap the least recently used bucket is dropped. A flood of
+ * distinct usernames/IPs therefore cannot grow memory, and every other user keeps a bucket of
+ * their own.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final String USER_PREFIX = "user:";
+    private static final String IP_PREFIX = "ip:";
+
+    private final Map<String, TokenBucket> buckets;
+
+    private final int userCapacity;
+    private final double userRefillPerNano;
+    private final int ipCapacity;
+    private final double ipRefillPerNano;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public LoginRateLimiter(@Value("${admin.login.rate-limit.user.capacity:5}") int userCapacity,
+                            @Value("${admin.login.rate-limit.user.refill-per-minute:5}") double userRefillPerMinute,
+                            @Value("${admin.login.rate-limit.ip.capacity:20}") int ipCapacity,
+                            @Value("${admin.login.rate-limit.ip.refill-per-minute:30}") double ipRefillPerMinute,
+                            @Value("${admin.login.rate-limit.max-keys:50000}") int maxKeys) {
+        this(userCapacity, userRefillPerMinute, ipCapacity, ipRefillPerMinute, maxKeys, System::nanoTime);
+    }
+
+    LoginRateLimiter(int userCapacity, double userRefillPerMinute, int ipCapacity, double ipRefillPerMinute,
+                     int maxKeys, LongSupplier nanoClock) {
+        this.userCapacity = userCapacity;
+        this.userRefillPerNano = userRefillPerMinute / 60_000_000_000.0;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerNano = ipRefillPerMinute / 60_000_000_000.0;
+        this.nanoClock = nanoClock;
+        int capacity = Math.max(2, maxKeys);
+        this.buckets = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Takes one token from the IP bucket and one from the username bucket, or none.
+     * @throws LoginThrottledException if either bucket is empty
+     */
+    public void acquire(String username, String clientIp) {
+        long now = nanoClock.getAsLong();
+        TokenBucket ip = clientIp != null ? bucket(IP_PREFIX + clientIp, ipCapacity, ipRefillPerNano, now) : null;
+        TokenBucket user = username != null
+            ? bucket(USER_PREFIX + username.trim().toLowerCase(Locale.ROOT), userCapacity, userRefillPerNano, now)
+            : null;
+        long waitNanos = TokenBucket.tryConsumeBoth(ip, user, now);
+        if (waitNanos > 0) {
+            throw throttled(waitNanos);
+        }
+    }
+
+    /** Drops buckets that have refilled completely (they are equivalent to no bucket). */
+    @Scheduled(fixedDelayString = "${admin.login.rate-limit.sweep-interval-ms:60000}")
+    public synchronized void sweep() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    public synchronized int size() {
+        return buckets.size();
+    }
+
+    private synchronized TokenBucket bucket(String key, int capacity, double refillPerNano, long now) {
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerNano, now));
+    }
+
+    private static LoginThrottledException throttled(long waitNanos) {
+        long seconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        return new LoginThrottledException("Too many login attempts. Try again later.", seconds);
+    }
+
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, double refillPerNano, long now) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerNano;
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        /**
+         * Takes a token from each non-null bucket if all of them have one. Buckets are locked
+         * IP first, then user, so two attempts can never wait on each other in a cycle.
+         * @return 0 if the tokens were taken, otherwise nanos until both buckets have one
+         */
+        static long tryConsumeBoth(TokenBucket ip, TokenBucket user, long now) {
+            if (ip == null || user == null) {
+                TokenBucket only = ip != null ? ip : user;
+                return only != null ? only.tryConsume(now) : 0;
+            }
+            synchronized (ip) {
+                synchronized (user) {
+                    long wait = Math.max(ip.waitNanos(now), user.waitNanos(now));
+                    if (wait == 0) {
+                        ip.tokens -= 1.0;
+                        user.tokens -= 1.0;
+                    }
+                    return wait;
+                }
+            }
+        }
+
+        /** @return 0 if a token was taken, otherwise nanos until one is available */
+        synchronized long tryConsume(long now) {
+            long wait = waitNanos(now);
+            if (wait == 0) {
+                tokens -= 1.0;
+            }
+            return wait;
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private long waitNanos(long now) {
+            refill(now);
+            return tokens >= 1.0 ? 0 : (long) Math.ceil((1.0 - tokens) / refillPerNano);
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+                lastRefill = now;
+            }
+        }
+    }
+}
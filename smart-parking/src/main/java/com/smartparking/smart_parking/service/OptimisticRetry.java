@@ -0,0 +1,81 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.exception.SlotBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it when an optimistic lock
+ * (@Version on ParkingSlot / ParkingRecord) detects a concurrent update.
+ *
+ * - Each attempt is a fresh transaction, so the work re-reads current state.
+ * - At most parking.optimistic.max-attempts attempts, with a small jittered pause in between.
+ * - When a transaction is already active the work joins it and is not retried here:
+ *   only the outermost caller can restart the whole transaction.
+ * - After the last attempt the conflict is reported as SlotBusyException (503 + Retry-After at the gate).
+ *
+ * Metrics: counters "parking.optimistic.retries" and "parking.optimistic.failures" (operation).
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${parking.optimistic.max-attempts:3}") int maxAttempts,
+                           @Value("${parking.optimistic.backoff-ms:20}") long backoffMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = backoffMs;
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("parking.optimistic.failures", "operation", operation).increment();
+                    log.warn("{}: concurrent update persisted after {} attempt(s): {}", operation, attempt, e.getMessage());
+                    throw new SlotBusyException("The slot was changed concurrently, please retry");
+                }
+                meterRegistry.counter("parking.optimistic.retries", "operation", operation).increment();
+                log.debug("{}: optimistic lock conflict, retrying (attempt {}/{})", operation, attempt, maxAttempts);
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) {
+        if (backoffMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SlotBusyException("Interrupted while retrying after a concurrent update");
+        }
+    }
+}
@@ -2,12 +2,17 @@ package com.smartparking.smart_parking.service;
 
 import com.smartparking.smart_parking.model.Slot;
 import com.smartparking.smart_parking.model.Vehicle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class ParkingLot {
 
+    // Hot-path category, see LogSampling
+    private static final Logger gateLog = LoggerFactory.getLogger("parking.gate");
+
     private static ParkingLot instance;
     private List<Slot> slots;
 
@@ -27,16 +32,14 @@ public class ParkingLot {
     }
 
     public Slot parkVehicle(Vehicle vehicle) {
-        System.out.println("ParkingLot.parkVehicle called for: " + vehicle.getLicensePlate());
         for (Slot slot : slots) {
             if (!slot.isOccupied()) {
-                System.out.println("Found empty slot: " + slot.getSlotNumber());
                 slot.assignVehicle(vehicle);
-                System.out.println("Assigned vehicle to slot " + slot.getSlotNumber() + ". Occupied: " + slot.isOccupied());
+                gateLog.debug("park plate={} slot={}", vehicle.getLicensePlate(), slot.getSlotNumber());
                 return slot;
             }
         }
-        System.out.println("No empty slots found");
+        gateLog.debug("park plate={} rejected: no empty slot", vehicle.getLicensePlate());
         return null;
     }
 
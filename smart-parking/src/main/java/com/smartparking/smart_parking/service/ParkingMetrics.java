@@ -0,0 +1,160 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.FloorCount;
+import com.smartparking.smart_parking.repository.ParkingChargeRepository;
+import com.smartparking.smart_parking.repository.ParkingRecordRepository;
+import com.smartparking.smart_parking.repository.ParkingSlotRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Meters for the gate and kiosk hot paths (exposed at /actuator/prometheus).
+ *
+ * - Timers "parking.park" (vehicleType, mode = any | preferred, outcome) and "parking.exit"
+ *   (by = slot, outcome); outcome is success or the exception class. Histograms / SLO
+ *   buckets are configured in application.properties.
+ * - Counter "parking.allocation.failures" (vehicleType): park found no free slot.
+ * - Timer "parking.slots.view" (floor, "all" = every floor): slot view build time.
+ * - Gauges "parking.occupancy.occupied" / "parking.occupancy.capacity" (floor), refreshed every
+ *   parking.metrics.occupancy-refresh-ms from two grouped count queries.
+ *
+ * Repository call counts and times come from Spring Boot's "spring.data.repository.invocations".
+ * Synthetic traffic (startup warm-up) runs through unmetered() and is not recorded.
+ * Vehicle types and floor numbers are client input: only types with a tariff (cached tariff query)
+ * and floors seen by the last occupancy refresh become tag values, anything else is tagged OTHER.
+ */
+@Component
+public class ParkingMetrics {
+
+    private static final Pattern VEHICLE_TYPE = Pattern.compile("[A-Z_]{1,20}");
+
+    private final MeterRegistry meterRegistry;
+    private final ParkingRecordRepository recordRepo;
+    private final ParkingSlotRepository slotRepo;
+    private final ParkingChargeRepository chargeRepo;
+    private final MultiGauge occupied;
+    private final MultiGauge capacity;
+    private volatile Set<Integer> knownFloors = Set.of();
+    private final ThreadLocal<Boolean> muted = ThreadLocal.withInitial(() -> false);
+
+    public ParkingMetrics(MeterRegistry meterRegistry, ParkingRecordRepository recordRepo,
+                          ParkingSlotRepository slotRepo, ParkingChargeRepository chargeRepo) {
+        this.meterRegistry = meterRegistry;
+        this.recordRepo = recordRepo;
+        this.slotRepo = slotRepo;
+        this.chargeRepo = chargeRepo;
+        this.occupied = MultiGauge.builder("parking.occupancy.occupied")
+                .description("Active parking records per floor")
+                .register(meterRegistry);
+        this.capacity = MultiGauge.builder("parking.occupancy.capacity")
+                .description("Parking slots per floor")
+                .register(meterRegistry);
+    }
+
+    /** Runs the work on this thread without recording the gate / kiosk meters. */
+    public <T> T unmetered(Supplier<T> work) {
+        if (muted.get()) {
+            return work.get();
+        }
+        muted.set(true);
+        try {
+            return work.get();
+        } finally {
+            muted.remove();
+        }
+    }
+
+    /** False inside unmetered(). */
+    public boolean isRecording() {
+        return !muted.get();
+    }
+
+    public <T> T timePark(String vehicleType, boolean preferredSlot, Supplier<T> park) {
+        return time("parking.park", park,
+                "vehicleType", vehicleTypeTag(vehicleType), "mode", preferredSlot ? "preferred" : "any");
+    }
+
+    public <T> T timeExit(Supplier<T> exit) {
+        return time("parking.exit", exit, "by", "slot");
+    }
+
+    public <T> T timeSlotView(Integer floorNumber, Supplier<T> view) {
+        if (!isRecording()) {
+            return view.get();
+        }
+        return Timer.builder("parking.slots.view")
+                .tag("floor", floorTag(floorNumber))
+                .register(meterRegistry)
+                .record(view);
+    }
+
+    public void allocationFailed(String vehicleType) {
+        if (!isRecording()) {
+            return;
+        }
+        Counter.builder("parking.allocation.failures")
+                .tag("vehicleType", vehicleTypeTag(vehicleType))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${parking.metrics.occupancy-refresh-ms:10000}")
+    @Transactional(readOnly = true)
+    public void refreshOccupancy() {
+        Map<Integer, Long> active = recordRepo.countActiveByFloor().stream()
+                .filter(row -> row.floorNumber() != null)
+                .collect(Collectors.toMap(FloorCount::floorNumber, FloorCount::count));
+        List<FloorCount> slots = slotRepo.countByFloor();
+        knownFloors = slots.stream().map(FloorCount::floorNumber).collect(Collectors.toUnmodifiableSet());
+
+        capacity.register(slots.stream()
+                .map(row -> MultiGauge.Row.of(Tags.of("floor", String.valueOf(row.floorNumber())), row.count()))
+                .toList(), true);
+        occupied.register(slots.stream()
+                .map(row -> MultiGauge.Row.of(Tags.of("floor", String.valueOf(row.floorNumber())),
+                        active.getOrDefault(row.floorNumber(), 0L)))
+                .toList(), true);
+    }
+
+    private <T> T time(String name, Supplier<T> operation, String... tags) {
+        if (!isRecording()) {
+            return operation.get();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return operation.get();
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(name).tags(tags).tag("outcome", outcome).register(meterRegistry));
+        }
+    }
+
+    String vehicleTypeTag(String vehicleType) {
+        String type = vehicleType != null ? vehicleType.trim().toUpperCase(Locale.ROOT) : "";
+        return VEHICLE_TYPE.matcher(type).matches() && chargeRepo.findByVehicleType(type).isPresent() ? type : "OTHER";
+    }
+
+    String floorTag(Integer floorNumber) {
+        if (floorNumber == null) {
+            return "all";
+        }
+        return knownFloors.contains(floorNumber) ? String.valueOf(floorNumber) : "OTHER";
+    }
+}
@@ -1,36 +1,45 @@
 package com.smartparking.smart_parking.service;
 
-import com.smartparking.smart_parking.model.Floor;
 import com.smartparking.smart_parking.model.ParkingRecord;
 import com.smartparking.smart_parking.model.ParkingSlot;
 import com.smartparking.smart_parking.model.SlotDTO;
+import com.smartparking.smart_parking.model.SlotLayout;
+import com.smartparking.smart_parking.model.SlotViewRow;
 import com.smartparking.smart_parking.model.VehicleEntity;
-import com.smartparking.smart_parking.repository.FloorRepository;
 import com.smartparking.smart_parking.repository.ParkingRecordRepository;
 import com.smartparking.smart_parking.repository.ParkingSlotRepository;
 import com.smartparking.smart_parking.repository.ParkingChargeRepository;
-import com.smartparking.smart_parking.repository.VehicleRepository;
+import com.smartparking.smart_parking.repository.SlotLayoutRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class ParkingServiceDB {
 
+    private static final Logger log = LoggerFactory.getLogger(ParkingServiceDB.class);
+    // Hot-path categories (level and sampling adjustable at runtime, see LogSampling)
+    private static final Logger gateLog = LoggerFactory.getLogger("parking.gate");
+    private static final Logger slotsLog = LoggerFactory.getLogger("parking.slots");
+
+    // Free slots fetched per allocation query; more than one so a locked slot can be skipped
+    private static final Limit FREE_CANDIDATES = Limit.of(8);
+
     @Autowired
     private ParkingSlotRepository slotRepo;
 
     @Autowired
-    private VehicleRepository vehicleRepo;
+    private SlotLayoutRepository slotLayoutRepo;
 
     @Autowired
     private ParkingRecordRepository recordRepo;
@@ -39,39 +48,69 @@ public class ParkingServiceDB {
     private ParkingChargeRepository chargeRepo;
     
     @Autowired
-    private FloorRepository floorRepo;
+    private SlotLockManager slotLocks;
+    
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+    
+    @Autowired
+    private VehicleRegistry vehicleRegistry;
+    
+    @Autowired
+    private ParkingMetrics parkingMetrics;
 
     // ===================== STEP 5 =====================
     // ============ PARK VEHICLE (DB BASED) =============
-    @Transactional
+    // Each park/exit runs in its own transaction via OptimisticRetry: a @Version conflict
+    // re-runs the whole operation against fresh state (bounded attempts).
     public ParkingRecord parkVehicle(String licensePlate, String vehicleType) {
+        return parkingMetrics.timePark(vehicleType, false,
+            () -> optimisticRetry.execute("park", () -> doParkVehicle(licensePlate, vehicleType)));
+    }
 
-        // 1. Find first free slot matching vehicle type (check for active parking records as source of truth)
-        ParkingSlot slot = slotRepo.findAll()
-                .stream()
-                .filter(s -> {
-                    // Filter by vehicle type
-                    if (!s.getVehicleType().equalsIgnoreCase(vehicleType)) {
-                        return false;
+    private ParkingRecord doParkVehicle(String licensePlate, String vehicleType) {
+
+        // 1. Find first free slot matching vehicle type (no active parking record, the source of truth):
+        // one query returns the next few free slots in allocation order.
+        // Slots another request is working on are skipped first, then waited for, one at a time
+        // (never while holding another slot lock), so concurrent parks cannot take the same slot.
+        // If all of them were taken in the meantime, the query runs again.
+        String type = vehicleType.toUpperCase();
+        ParkingSlot slot = null;
+        List<SlotLayout> candidates = slotLayoutRepo.findFree(type, FREE_CANDIDATES);
+        while (slot == null && !candidates.isEmpty()) {
+            List<SlotLayout> busy = new ArrayList<>();
+            for (SlotLayout candidate : candidates) {
+                SlotLockManager.Lease lease = slotLocks.tryAcquire("park", slotKey(candidate));
+                if (lease == null) {
+                    busy.add(candidate);
+                    continue;
+                }
+                if (claimIfFree(candidate, lease)) {
+                    slot = slotRepo.findById(candidate.getId()).orElse(null);
+                    if (slot != null) {
+                        break;
                     }
-                    // Check if slot has an active parking record (exit_time IS NULL)
-                    // THIS IS THE SOURCE OF TRUTH - not the slot.occupied field
-                    Optional<ParkingRecord> activeRecord = recordRepo.findBySlotNumberAndFloorNumberAndExitTimeIsNull(
-                        s.getSlotNumber(), 
-                        s.getFloor() != null ? s.getFloor().getFloorNumber() : null
-                    );
-                    // Slot is free only if there's no active record
-                    return activeRecord.isEmpty();
-                })
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("No slot available for vehicle type: " + vehicleType));
+                }
+            }
+            for (int i = 0; slot == null && i < busy.size(); i++) {
+                SlotLayout candidate = busy.get(i);
+                if (claimIfFree(candidate, slotLocks.acquire("park", slotKey(candidate)))) {
+                    slot = slotRepo.findById(candidate.getId()).orElse(null);
+                }
+            }
+            if (slot == null) {
+                candidates = slotLayoutRepo.findFree(type, FREE_CANDIDATES);
+            }
+        }
+        if (slot == null) {
+            parkingMetrics.allocationFailed(vehicleType);
+            throw new RuntimeException("No slot available for vehicle type: " + vehicleType);
+        }
 
-        // 2. Save vehicle in DB
-        VehicleEntity vehicle = new VehicleEntity();
-        vehicle.setLicensePlate(licensePlate);
-        vehicle.setVehicleType(vehicleType);
-        vehicle.setEntryTime(LocalDateTime.now());
-        vehicleRepo.save(vehicle);
+        // 2. Record the entry in the vehicle registry (one row per plate)
+        LocalDateTime entryTime = LocalDateTime.now();
+        VehicleEntity vehicle = vehicleRegistry.recordEntry(licensePlate, vehicleType, entryTime);
 
         // 3. Mark slot as occupied (for consistency/caching - NOT source of truth)
         slot.setOccupied(true);
@@ -85,19 +124,23 @@ public class ParkingServiceDB {
         record.setVehicleType(vehicleType);
         record.setSlotNumber(slot.getSlotNumber());
         record.setFloorNumber(slot.getFloor() != null ? slot.getFloor().getFloorNumber() : null);
-        record.setEntryTime(vehicle.getEntryTime());
+        record.setEntryTime(entryTime);
         // exitTime is null by default (active record)
 
         ParkingRecord savedRecord = recordRepo.save(record);
-        System.out.println("DEBUG: Parked vehicle " + licensePlate + " in slot " + slot.getSlotNumber() + 
-                          " on floor " + (slot.getFloor() != null ? slot.getFloor().getFloorNumber() : "N/A"));
+        gateLog.debug("park plate={} type={} slot={} floor={}", licensePlate, vehicleType, slot.getSlotNumber(),
+                savedRecord.getFloorNumber());
         
         return savedRecord;
     }
     
     // ============ PARK VEHICLE IN SPECIFIC SLOT (AI SUGGESTION) =============
-    @Transactional
     public ParkingRecord parkVehicleInSlot(String licensePlate, String vehicleType, int preferredSlot, Integer floorNumber) {
+        return parkingMetrics.timePark(vehicleType, true, () -> optimisticRetry.execute("park",
+            () -> doParkVehicleInSlot(licensePlate, vehicleType, preferredSlot, floorNumber)));
+    }
+
+    private ParkingRecord doParkVehicleInSlot(String licensePlate, String vehicleType, int preferredSlot, Integer floorNumber) {
         
         // 1. Check if preferred slot exists
         Optional<ParkingSlot> slotOpt;
@@ -119,13 +162,24 @@ public class ParkingServiceDB {
         ParkingSlot slot = slotOpt.get();
         
         // 2. Check if preferred slot is available (check for active parking records as source of truth)
+        // under the slot lock, held until this transaction commits
         Integer slotFloorNumber = slot.getFloor() != null ? slot.getFloor().getFloorNumber() : null;
-        Optional<ParkingRecord> activeRecord = recordRepo.findBySlotNumberAndFloorNumberAndExitTimeIsNull(
-            preferredSlot, slotFloorNumber);
+        SlotLockManager.Lease lease = slotLocks.acquire("park", slotKey(slot));
+        Optional<ParkingRecord> activeRecord;
+        try {
+            activeRecord = recordRepo.findBySlotNumberAndFloorNumberAndExitTimeIsNull(preferredSlot, slotFloorNumber);
+        } catch (RuntimeException e) {
+            // The lease is not handed to the transaction yet; never leave the stripe locked
+            lease.close();
+            throw e;
+        }
         if (activeRecord.isPresent()) {
-            // Slot is occupied, fall back to finding any available slot
-            return parkVehicle(licensePlate, vehicleType);
+            // Slot is occupied, fall back to finding any available slot (release first: no hold-and-wait);
+            // same transaction and park sample as this request
+            lease.close();
+            return doParkVehicle(licensePlate, vehicleType);
         }
+        slotLocks.releaseAfterTransaction(lease);
         
         // 3. Verify vehicle type matches
         if (!slot.getVehicleType().equalsIgnoreCase(vehicleType)) {
@@ -133,12 +187,9 @@ public class ParkingServiceDB {
                 ", not " + vehicleType);
         }
         
-        // 4. Save vehicle in DB
-        VehicleEntity vehicle = new VehicleEntity();
-        vehicle.setLicensePlate(licensePlate);
-        vehicle.setVehicleType(vehicleType);
-        vehicle.setEntryTime(LocalDateTime.now());
-        vehicleRepo.save(vehicle);
+        // 4. Record the entry in the vehicle registry (one row per plate)
+        LocalDateTime entryTime = LocalDateTime.now();
+        VehicleEntity vehicle = vehicleRegistry.recordEntry(licensePlate, vehicleType, entryTime);
 
         // 5. Mark slot as occupied (ensure consistency)
         slot.setOccupied(true);
@@ -151,20 +202,24 @@ public class ParkingServiceDB {
         record.setVehicleType(vehicleType);
         record.setSlotNumber(slot.getSlotNumber());
         record.setFloorNumber(slotFloorNumber);
-        record.setEntryTime(vehicle.getEntryTime());
+        record.setEntryTime(entryTime);
         // exitTime is null by default (active record)
 
         ParkingRecord savedRecord = recordRepo.save(record);
-        System.out.println("DEBUG: Parked vehicle " + licensePlate + " in preferred slot " + slot.getSlotNumber() + 
-                          " on floor " + (slotFloorNumber != null ? slotFloorNumber : "N/A"));
+        gateLog.debug("park plate={} type={} slot={} floor={} preferred=true", licensePlate, vehicleType,
+                slot.getSlotNumber(), slotFloorNumber);
         
         return savedRecord;
     }
 
     // ===================== STEP 6 =====================
     // ===== EXIT VEHICLE BY SLOT NUMBER (DB BASED) =====
-    @Transactional
     public ParkingRecord exitVehicleBySlot(int slotNumber, Integer floorNumber) {
+        return parkingMetrics.timeExit(
+            () -> optimisticRetry.execute("exit", () -> doExitVehicleBySlot(slotNumber, floorNumber)));
+    }
+
+    private ParkingRecord doExitVehicleBySlot(int slotNumber, Integer floorNumber) {
 
         // 1. Find slot by slot number and floor
         Optional<ParkingSlot> slotOpt;
@@ -182,17 +237,13 @@ public class ParkingServiceDB {
             (floorNumber != null ? " on floor " + floorNumber : "")));
 
         // 2. Find active parking record FIRST (this is the source of truth)
+        // under the slot lock, held until this transaction commits
         Integer slotFloorNumber = slot.getFloor() != null ? slot.getFloor().getFloorNumber() : null;
+        slotLocks.acquireForTransaction("exit", slotKey(slot));
         ParkingRecord record = recordRepo.findBySlotNumberAndFloorNumberAndExitTimeIsNull(slotNumber, slotFloorNumber)
                 .orElseThrow(() -> new RuntimeException("No vehicle found in this slot"));
 
-        // 3. Get vehicle from the record (more reliable than from slot)
-        VehicleEntity vehicle = slot.getVehicle();
-        if (vehicle == null) {
-            // If slot has no vehicle but record exists, try to find vehicle by license plate
-            vehicle = vehicleRepo.findByLicensePlate(record.getLicensePlate())
-                    .orElse(null);
-        }
+        // 3. The registry row stays (one per plate); only the slot reference is cleared below
 
         // 4. Calculate time using record's entry time
         LocalDateTime exitTime = LocalDateTime.now();
@@ -218,60 +269,8 @@ public class ParkingServiceDB {
         slot.setVehicle(null);
         slotRepo.save(slot);
         
-        System.out.println("DEBUG: Exited vehicle from slot " + slotNumber + 
-                          " on floor " + (slotFloorNumber != null ? slotFloorNumber : "N/A"));
-
-        return record;
-    }
-
-    // ===================== STEP 7 =====================
-    // ===== EXIT VEHICLE BY LICENSE PLATE (DB BASED) ===
-    public ParkingRecord exitVehicle(String licensePlate) {
-        
-        // 1. Find vehicle by license plate
-        VehicleEntity vehicle = vehicleRepo.findByLicensePlate(licensePlate)
-                .orElseThrow(() -> new RuntimeException("Vehicle not found"));
-
-        // 2. Find slot with this vehicle
-        ParkingSlot slot = slotRepo.findAll()
-                .stream()
-                .filter(s -> s.isOccupied() && s.getVehicle() != null && 
-                           s.getVehicle().getLicensePlate().equals(licensePlate))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Vehicle not found in any slot"));
-
-        // 3. Calculate time
-        LocalDateTime exitTime = LocalDateTime.now();
-        long durationMinutes = Duration.between(vehicle.getEntryTime(), exitTime).toMinutes();
-
-        // 4. Calculate billable hours (minimum 1 hour, round up to next hour)
-        int billableHours = calculateBillableHours(durationMinutes);
-
-        // 5. Find parking record
-        Integer slotFloorNumber = slot.getFloor() != null ? slot.getFloor().getFloorNumber() : null;
-        ParkingRecord record = recordRepo.findAll()
-                .stream()
-                .filter(r -> r.getSlotNumber() == slot.getSlotNumber() && 
-                           (slotFloorNumber == null ? r.getFloorNumber() == null : slotFloorNumber.equals(r.getFloorNumber())) &&
-                           r.getExitTime() == null)
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Parking record not found"));
-
-        // 6. Calculate charge
-        double hourlyRate = getHourlyRate(record.getVehicleType());
-        double totalCharge = billableHours * hourlyRate;
-
-        // 7. Update record
-        record.setExitTime(exitTime);
-        record.setDurationMinutes(durationMinutes);
-        record.setBillableHours(billableHours);
-        record.setCharge(totalCharge);
-        recordRepo.save(record);
-
-        // 7. Free the slot
-        slot.setOccupied(false);
-        slot.setVehicle(null);
-        slotRepo.save(slot);
+        gateLog.debug("exit plate={} slot={} floor={} minutes={} charge={}", record.getLicensePlate(), slotNumber,
+                slotFloorNumber, durationMinutes, totalCharge);
 
         return record;
     }
@@ -279,136 +278,106 @@ public class ParkingServiceDB {
     // ===================== STEP 8 =====================
     // ========== GET ALL SLOTS (DB BASED) ==============
     // NOTE: ParkingRecord (with exit_time IS NULL) is the SOURCE OF TRUTH for slot occupancy
-    // The ParkingSlot table's 'occupied' field is just for caching/consistency
-    @Transactional
+    // The ParkingSlot table's 'occupied' field is maintained by park/exit; the view never writes it
     public List<SlotDTO> getAllSlots() {
         return getAllSlotsByFloor(null);
     }
     
-    @Transactional
+    // One SQL statement: slots left-joined with their floor and active record, already sorted
     public List<SlotDTO> getAllSlotsByFloor(Integer floorNumber) {
+        return parkingMetrics.timeSlotView(floorNumber, () -> buildSlotView(floorNumber));
+    }
+
+    private List<SlotDTO> buildSlotView(Integer floorNumber) {
         try {
-            List<ParkingSlot> allSlots;
+            List<SlotViewRow> rows = slotRepo.findSlotView(floorNumber);
             
-            if (floorNumber != null) {
-                // Get slots for specific floor
-                Optional<Floor> floorOpt = floorRepo.findByFloorNumber(floorNumber);
-                if (floorOpt.isEmpty()) {
-                    return new ArrayList<>(); // Return empty list if floor doesn't exist
+            LocalDateTime now = LocalDateTime.now();
+            List<SlotDTO> result = new ArrayList<>(rows.size());
+            SlotViewRow previous = null;
+            for (SlotViewRow row : rows) {
+                if (previous != null && previous.slotNumber() == row.slotNumber()
+                        && Objects.equals(previous.floorNumber(), row.floorNumber())) {
+                    // Duplicate active record (shouldn't happen): keep the newest
+                    slotsLog.warn("Duplicate active record for floor {}, slot {}", row.floorNumber(), row.slotNumber());
+                    continue;
                 }
-                allSlots = slotRepo.findByFloorOrderBySlotNumberAsc(floorOpt.get());
-            } else {
-                // Get all slots from all floors
-                allSlots = slotRepo.findAll();
-            }
-            
-            // Get all active parking records in one query - THIS IS THE SOURCE OF TRUTH
-            // Active record = exit_time IS NULL (vehicle is still parked)
-            List<ParkingRecord> activeRecords = recordRepo.findByExitTimeIsNullOrderByEntryTimeDesc();
-            
-            System.out.println("DEBUG: Found " + activeRecords.size() + " active parking records");
-            activeRecords.forEach(record -> {
-                System.out.println("  - Floor " + record.getFloorNumber() + ", Slot " + record.getSlotNumber() + ": " + 
-                                 record.getLicensePlate() + " (" + record.getVehicleType() + ")");
-            });
-            
-            // Create a map of (floorNumber, slotNumber) -> active record for O(1) lookup
-            Map<String, ParkingRecord> activeRecordMap = activeRecords.stream()
-                    .collect(Collectors.toMap(
-                            record -> (record.getFloorNumber() != null ? record.getFloorNumber() : -1) + "_" + record.getSlotNumber(),
-                            record -> record,
-                            (existing, replacement) -> {
-                                // If duplicate (shouldn't happen), log warning and keep first
-                                System.err.println("WARNING: Duplicate active record for floor " + 
-                                                 existing.getFloorNumber() + ", slot " + existing.getSlotNumber());
-                                return existing;
-                            }
+                previous = row;
+                
+                if (row.occupied()) {
+                    // Slot IS OCCUPIED - data from the active parking record
+                    // Default allowed time: 2 hours (120 minutes)
+                    result.add(new SlotDTO(
+                        row.slotNumber(),
+                        row.floorNumber(),
+                        true,
+                        row.licensePlate(),
+                        row.recordVehicleType(),
+                        row.entryTime(),
+                        Duration.between(row.entryTime(), now).toMinutes(),
+                        120
                     ));
+                } else {
+                    // No active record - slot IS EMPTY
+                    result.add(new SlotDTO(
+                        row.slotNumber(),
+                        row.floorNumber(),
+                        false,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null
+                    ));
+                }
+            }
             
-            // Process each slot - ParkingRecord is the source of truth
-            List<SlotDTO> result = allSlots.stream()
-                    .sorted((s1, s2) -> {
-                        // Sort by floor first, then by slot number
-                        int floorCompare = Integer.compare(
-                            s1.getFloor() != null ? s1.getFloor().getFloorNumber() : -1,
-                            s2.getFloor() != null ? s2.getFloor().getFloorNumber() : -1
-                        );
-                        if (floorCompare != 0) return floorCompare;
-                        return Integer.compare(s1.getSlotNumber(), s2.getSlotNumber());
-                    })
-                    .map(slot -> {
-                        Integer slotFloorNumber = slot.getFloor() != null ? slot.getFloor().getFloorNumber() : null;
-                        String recordKey = (slotFloorNumber != null ? slotFloorNumber : -1) + "_" + slot.getSlotNumber();
-                        
-                        // Check for active parking record (exit_time IS NULL) - SOURCE OF TRUTH
-                        ParkingRecord activeRecord = activeRecordMap.get(recordKey);
-                        
-                        if (activeRecord != null) {
-                            // Slot IS OCCUPIED - get data from active parking record
-                            
-                            // Calculate current duration
-                            LocalDateTime now = LocalDateTime.now();
-                            long durationMinutes = Duration.between(activeRecord.getEntryTime(), now).toMinutes();
-                            
-                            // Default allowed time: 2 hours (120 minutes)
-                            int allowedMinutes = 120;
-                            
-                            // Sync slot table with record (defensive update for consistency)
-                            // This ensures the slot table matches the record table
-                            if (!slot.isOccupied() || slot.getVehicle() == null) {
-                                slot.setOccupied(true);
-                                // Try to get vehicle from record's license plate
-                                Optional<VehicleEntity> vehicle = vehicleRepo.findByLicensePlate(activeRecord.getLicensePlate());
-                                if (vehicle.isPresent()) {
-                                    slot.setVehicle(vehicle.get());
-                                }
-                                slotRepo.save(slot);
-                            }
-                            
-                            return new SlotDTO(
-                                slot.getSlotNumber(),
-                                slotFloorNumber,
-                                true, // OCCUPIED - from ParkingRecord
-                                activeRecord.getLicensePlate(), 
-                                activeRecord.getVehicleType(),
-                                activeRecord.getEntryTime(),
-                                durationMinutes,
-                                allowedMinutes
-                            );
-                        } else {
-                            // No active record - slot IS EMPTY
-                            // Sync slot table (defensive update for consistency)
-                            if (slot.isOccupied() || slot.getVehicle() != null) {
-                                slot.setOccupied(false);
-                                slot.setVehicle(null);
-                                slotRepo.save(slot);
-                            }
-                            return new SlotDTO(
-                                slot.getSlotNumber(),
-                                slotFloorNumber,
-                                false, // NOT OCCUPIED - no active record
-                                null, 
-                                null,
-                                null,
-                                null,
-                                null
-                            );
-                        }
-                    })
-                    .collect(Collectors.toList());
-            
-            System.out.println("DEBUG: Returning " + result.size() + " slots, " + 
-                             result.stream().filter(SlotDTO::isOccupied).count() + " occupied");
+            if (slotsLog.isDebugEnabled()) {
+                slotsLog.debug("slot view floor={} slots={} occupied={}", floorNumber, result.size(),
+                        result.stream().filter(SlotDTO::isOccupied).count());
+            }
             
             return result;
         } catch (Exception e) {
             // Log error and return empty list or fallback
-            System.err.println("CRITICAL ERROR in getAllSlotsByFloor(): " + e.getMessage());
-            e.printStackTrace();
+            log.error("Slot view failed for floor {}", floorNumber, e);
             return new ArrayList<>();
         }
     }
 
+    // ===================== SLOT LOCK HELPERS =====================
+    private static SlotLockManager.SlotKey slotKey(ParkingSlot slot) {
+        return SlotLockManager.key(slot.getFloor() != null ? slot.getFloor().getFloorNumber() : null, slot.getSlotNumber());
+    }
+    
+    private static SlotLockManager.SlotKey slotKey(SlotLayout slot) {
+        return SlotLockManager.key(slot.getFloorNumber(), slot.getSlotNumber());
+    }
+    
+    private boolean isFree(SlotLayout slot) {
+        return recordRepo.findBySlotNumberAndFloorNumberAndExitTimeIsNull(slot.getSlotNumber(), slot.getFloorNumber()).isEmpty();
+    }
+    
+    /**
+     * Re-checks a locked slot. Free: the lock is kept until the transaction ends. Taken, or the
+     * check failed: released now.
+     */
+    private boolean claimIfFree(SlotLayout slot, SlotLockManager.Lease lease) {
+        boolean free;
+        try {
+            free = isFree(slot);
+        } catch (RuntimeException e) {
+            lease.close();
+            throw e;
+        }
+        if (free) {
+            slotLocks.releaseAfterTransaction(lease);
+            return true;
+        }
+        lease.close();
+        return false;
+    }
+
     // ===================== DEBUG METHODS =====================
     public ResponseEntity<?> debugSlot(int slotNumber) {
         // Find slot by slotNumber (not by ID, since slotNumber is not the primary key)
@@ -480,7 +449,8 @@ public class ParkingServiceDB {
      * @param durationMinutes Actual parking duration in minutes
      * @return Billable hours (minimum 1, rounded up)
      */
-    private int calculateBillableHours(long durationMinutes) {
+    // package-private for BillingBenchmarks (src/jmh)
+    static int calculateBillableHours(long durationMinutes) {
         if (durationMinutes <= 0) {
             return 1; // Minimum 1 hour
         }
@@ -493,7 +463,7 @@ public class ParkingServiceDB {
     
     // ============ HOURLY RATE LOGIC ===================
     // Now fetches from database, falls back to defaults if not found
-    private double getHourlyRate(String vehicleType) {
+    double getHourlyRate(String vehicleType) {
         if (vehicleType == null) {
             return 100.0; // Default fallback
         }
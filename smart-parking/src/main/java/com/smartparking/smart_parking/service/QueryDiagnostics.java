@@ -0,0 +1,150 @@
+package com.smartparking.smart_parking.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request database diagnostics: statements prepared, time spent executing them and entities
+ * loaded, collected on the request thread while QueryDiagnosticsFilter has a scope open.
+ *
+ * Statements and timings come from a Hibernate SessionEventListener (QueryDiagnosticsSessionListener,
+ * hibernate.session.events.auto), entity loads from a POST_LOAD listener registered here. Work on
+ * other threads (async endpoints, background jobs) is not attributed to any request.
+ *
+ * Finished requests are aggregated per endpoint ("GET /parking/slots") for /admin/diagnostics/queries.
+ */
+@Component
+public class QueryDiagnostics {
+
+    private static final ThreadLocal<Counters> CURRENT = new ThreadLocal<>();
+
+    /** Counters of one request. */
+    public static final class Counters {
+        private int statements;
+        private long dbNanos;
+        private int entitiesLoaded;
+        private long executeStart;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getDbMicros() {
+            return TimeUnit.NANOSECONDS.toMicros(dbNanos);
+        }
+
+        public int getEntitiesLoaded() {
+            return entitiesLoaded;
+        }
+    }
+
+    /** Aggregate of one endpoint since start-up (or the last reset). */
+    public record EndpointStats(String endpoint, long requests, int maxStatements, double avgStatements,
+                                double avgDbMillis, long maxDbMillis, int maxEntitiesLoaded) {
+    }
+
+    private final ConcurrentMap<String, EndpointAggregate> endpoints = new ConcurrentHashMap<>();
+
+    public QueryDiagnostics(EntityManagerFactory entityManagerFactory) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        sessionFactory.getEventListenerRegistry()
+                .appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> entityLoaded());
+    }
+
+    // ===== request scope (QueryDiagnosticsFilter) =====
+
+    public Counters begin() {
+        Counters counters = new Counters();
+        CURRENT.set(counters);
+        return counters;
+    }
+
+    public void end(String endpoint, Counters counters) {
+        CURRENT.remove();
+        if (endpoint != null) {
+            endpoints.computeIfAbsent(endpoint, EndpointAggregate::new).add(counters);
+        }
+    }
+
+    // ===== Hibernate callbacks (request thread) =====
+
+    static void statementPrepared() {
+        Counters counters = CURRENT.get();
+        if (counters != null) {
+            counters.statements++;
+        }
+    }
+
+    static void executeStarted() {
+        Counters counters = CURRENT.get();
+        if (counters != null) {
+            counters.executeStart = System.nanoTime();
+        }
+    }
+
+    static void executeEnded() {
+        Counters counters = CURRENT.get();
+        if (counters != null && counters.executeStart != 0) {
+            counters.dbNanos += System.nanoTime() - counters.executeStart;
+            counters.executeStart = 0;
+        }
+    }
+
+    private static void entityLoaded() {
+        Counters counters = CURRENT.get();
+        if (counters != null) {
+            counters.entitiesLoaded++;
+        }
+    }
+
+    // ===== admin view =====
+
+    /** Endpoints, most statements per request first. */
+    public List<EndpointStats> getEndpointStats() {
+        return endpoints.values().stream()
+                .map(EndpointAggregate::snapshot)
+                .sorted(Comparator.comparingInt(EndpointStats::maxStatements).reversed())
+                .toList();
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    private static final class EndpointAggregate {
+        private final String endpoint;
+        private long requests;
+        private long statements;
+        private int maxStatements;
+        private long dbNanos;
+        private long maxDbNanos;
+        private int maxEntities;
+
+        private EndpointAggregate(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized void add(Counters counters) {
+            requests++;
+            statements += counters.statements;
+            maxStatements = Math.max(maxStatements, counters.statements);
+            dbNanos += counters.dbNanos;
+            maxDbNanos = Math.max(maxDbNanos, counters.dbNanos);
+            maxEntities = Math.max(maxEntities, counters.entitiesLoaded);
+        }
+
+        synchronized EndpointStats snapshot() {
+            return new EndpointStats(endpoint, requests, maxStatements, (double) statements / requests,
+                    dbNanos / 1_000_000.0 / requests, TimeUnit.NANOSECONDS.toMillis(maxDbNanos), maxEntities);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.smartparking.smart_parking.service;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Feeds QueryDiagnostics from every Hibernate session. Registered by class name through
+ * hibernate.session.events.auto, so Hibernate creates one instance per session.
+ *
+ * Counts prepared statements (a JDBC batch is one statement, as in Hibernate's own statistics)
+ * and times statement and batch execution.
+ */
+public class QueryDiagnosticsSessionListener implements SessionEventListener {
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        QueryDiagnostics.statementPrepared();
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        QueryDiagnostics.executeStarted();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryDiagnostics.executeEnded();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        QueryDiagnostics.executeStarted();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryDiagnostics.executeEnded();
+    }
+}
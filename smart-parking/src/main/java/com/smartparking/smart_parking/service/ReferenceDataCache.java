@@ -0,0 +1,124 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.Floor;
+import com.smartparking.smart_parking.model.ParkingCharge;
+import com.smartparking.smart_parking.model.SlotLayout;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Explicit eviction and metrics for the Hibernate second-level / query cache of reference data
+ * (floors, parking charges, slot layout).
+ *
+ * Evictions run after the surrounding transaction commits (immediately without one), so a
+ * concurrent reader cannot re-cache the old state between the eviction and the commit.
+ *
+ * Metrics per cache region: function counters "parking.cache.gets" (region, result = hit | miss)
+ * and "parking.cache.puts" (region), gauge "parking.cache.hit.ratio" (region).
+ */
+@Component
+public class ReferenceDataCache {
+
+    static final String FLOORS = "floors";
+    static final String FLOOR_QUERIES = "floor-queries";
+    static final String CHARGES = "parking-charges";
+    static final String CHARGE_QUERIES = "charge-queries";
+    static final String SLOT_LAYOUT = "slot-layout";
+    static final String SLOT_LAYOUT_QUERIES = "slot-layout-queries";
+
+    /** Entity and query cache regions of the reference data (limits: ReferenceCacheConfig). */
+    public static final List<String> REGIONS =
+            List.of(FLOORS, FLOOR_QUERIES, CHARGES, CHARGE_QUERIES, SLOT_LAYOUT, SLOT_LAYOUT_QUERIES);
+
+    private final SessionFactory sessionFactory;
+
+    public ReferenceDataCache(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        for (String region : REGIONS) {
+            registerMetrics(meterRegistry, region);
+        }
+    }
+
+    public void evictFloors() {
+        afterCommit(cache -> {
+            cache.evictEntityData(Floor.class);
+            cache.evictQueryRegion(FLOOR_QUERIES);
+        });
+    }
+
+    public void evictCharges() {
+        afterCommit(cache -> {
+            cache.evictEntityData(ParkingCharge.class);
+            cache.evictQueryRegion(CHARGE_QUERIES);
+        });
+    }
+
+    public void evictSlotLayout() {
+        afterCommit(cache -> {
+            cache.evictEntityData(SlotLayout.class);
+            cache.evictQueryRegion(SLOT_LAYOUT_QUERIES);
+        });
+    }
+
+    private void afterCommit(Consumer<Cache> eviction) {
+        Cache cache = sessionFactory.getCache();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.accept(cache);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.accept(cache);
+            }
+        });
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry, String region) {
+        FunctionCounter.builder("parking.cache.gets", this, c -> c.regionCount(region, CacheRegionStatistics::getHitCount))
+                .tags("region", region, "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("parking.cache.gets", this, c -> c.regionCount(region, CacheRegionStatistics::getMissCount))
+                .tags("region", region, "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("parking.cache.puts", this, c -> c.regionCount(region, CacheRegionStatistics::getPutCount))
+                .tags("region", region)
+                .register(meterRegistry);
+        Gauge.builder("parking.cache.hit.ratio", this, c -> c.hitRatio(region))
+                .tags("region", region)
+                .register(meterRegistry);
+    }
+
+    private double hitRatio(String region) {
+        long hits = regionCount(region, CacheRegionStatistics::getHitCount);
+        long total = hits + regionCount(region, CacheRegionStatistics::getMissCount);
+        return total == 0 ? Double.NaN : (double) hits / total;
+    }
+
+    // Regions appear lazily (query regions on first use); statistics need hibernate.generate_statistics
+    private long regionCount(String region, ToLongFunction<CacheRegionStatistics> count) {
+        Statistics statistics = sessionFactory.getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return 0;
+        }
+        try {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            return regionStatistics != null ? count.applyAsLong(regionStatistics) : 0;
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.exception.SlotBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped in-process locks keyed by (floor, slot) for park / exit / admin overrides.
+ *
+ * - Each (floor, slot) maps to one of parking.locks.stripes ReentrantLocks, so operations on
+ *   unrelated slots almost never share a lock and run in parallel.
+ * - Multi-slot operations (changeSlot) take their stripes in ascending stripe order, so two
+ *   operations can never wait on each other in a cycle.
+ * - An operation acquires all the slots it needs in one call and must not acquire again while
+ *   holding a lease (no hold-and-wait). A timed wait (parking.locks.wait-timeout-ms) is the safety net.
+ * - Inside a transaction use {@link #acquireForTransaction}: the locks are released after
+ *   commit/rollback, so the next holder always sees the committed state.
+ *
+ * Metrics: timer "parking.slot.lock.wait" (operation), counters "parking.slot.lock.contended"
+ * and "parking.slot.lock.timeouts" (operation).
+ *
+ * Locks are per JVM; multiple instances still rely on the database for cross-node safety.
+ */
+@Component
+public class SlotLockManager {
+
+    /** Lock key: floorNumber may be null for slots without a floor. */
+    public record SlotKey(Integer floorNumber, int slotNumber) {}
+
+    private final ReentrantLock[] stripes;
+    private final long waitTimeoutMs;
+    private final MeterRegistry meterRegistry;
+
+    public SlotLockManager(@Value("${parking.locks.stripes:1024}") int stripeCount,
+                           @Value("${parking.locks.wait-timeout-ms:5000}") long waitTimeoutMs,
+                           MeterRegistry meterRegistry) {
+        // Power of two so the stripe index is a mask
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static SlotKey key(Integer floorNumber, int slotNumber) {
+        return new SlotKey(floorNumber, slotNumber);
+    }
+
+    /**
+     * Set of held stripes. close() releases them (idempotent, must run on the acquiring thread).
+     */
+    public final class Lease implements AutoCloseable {
+        private final int[] held;
+        private boolean released;
+
+        private Lease(int[] held) {
+            this.held = held;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            for (int i = held.length - 1; i >= 0; i--) {
+                stripes[held[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Locks all given slots (fixed order), waiting up to the configured timeout.
+     * @throws SlotBusyException if a lock could not be acquired in time
+     */
+    public Lease acquire(String operation, SlotKey... keys) {
+        int[] order = stripeOrder(keys);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        boolean contended = false;
+        int acquired = 0;
+        try {
+            for (int stripe : order) {
+                ReentrantLock lock = stripes[stripe];
+                if (lock.tryLock()) {
+                    acquired++;
+                    continue;
+                }
+                contended = true;
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !lock.tryLock(remaining, TimeUnit.NANOSECONDS)) {
+                    throw timeout(operation, keys);
+                }
+                acquired++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SlotBusyException("Interrupted while waiting for slot lock");
+        } finally {
+            if (acquired < order.length) {
+                for (int i = acquired - 1; i >= 0; i--) {
+                    stripes[order[i]].unlock();
+                }
+            }
+        }
+        recordWait(operation, start, contended);
+        return new Lease(order);
+    }
+
+    /**
+     * Like {@link #acquire} but holds the locks until the current transaction completes.
+     * Falls back to the caller's responsibility (returned lease) when no transaction is active.
+     */
+    public Lease acquireForTransaction(String operation, SlotKey... keys) {
+        return releaseAfterTransaction(acquire(operation, keys));
+    }
+
+    /**
+     * Non-blocking single-slot attempt (used when scanning for any free slot).
+     * @return the lease, or null if another operation currently holds the slot
+     */
+    public Lease tryAcquire(String operation, SlotKey key) {
+        int[] order = stripeOrder(key);
+        if (!stripes[order[0]].tryLock()) {
+            meterRegistry.counter("parking.slot.lock.contended", "operation", operation).increment();
+            return null;
+        }
+        return new Lease(order);
+    }
+
+    /**
+     * Hands an existing lease to the current transaction: it is released after commit/rollback.
+     */
+    public Lease releaseAfterTransaction(Lease lease) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lease.close();
+                }
+            });
+        }
+        return lease;
+    }
+
+    private int[] stripeOrder(SlotKey... keys) {
+        int[] indexes = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            indexes[i] = stripeOf(keys[i]);
+        }
+        return Arrays.stream(indexes).sorted().distinct().toArray();
+    }
+
+    private int stripeOf(SlotKey key) {
+        int h = 31 * (key.floorNumber() != null ? key.floorNumber() : -1) + key.slotNumber();
+        h *= 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    private void recordWait(String operation, long start, boolean contended) {
+        Timer.builder("parking.slot.lock.wait")
+            .tag("operation", operation)
+            .register(meterRegistry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (contended) {
+            meterRegistry.counter("parking.slot.lock.contended", "operation", operation).increment();
+        }
+    }
+
+    private SlotBusyException timeout(String operation, SlotKey... keys) {
+        meterRegistry.counter("parking.slot.lock.timeouts", "operation", operation).increment();
+        return new SlotBusyException("Slot " + describe(keys) + " is busy, please retry");
+    }
+
+    private static String describe(SlotKey... keys) {
+        StringBuilder sb = new StringBuilder();
+        for (SlotKey key : keys) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(key.slotNumber());
+            if (key.floorNumber() != null) {
+                sb.append(" on floor ").append(key.floorNumber());
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package com.smartparking.smart_parking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.ConnectException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resilient wrapper around the pooled Supabase RestTemplate.
+ *
+ * - Circuit breaker: after supabase.http.circuit.failure-threshold consecutive failures (I/O errors
+ *   or 5xx) calls fail fast for supabase.http.circuit.open-ms, then a single trial call is let through.
+ * - Bounded retries with full jitter: GET/HEAD are retried on I/O errors and 429/502/503/504;
+ *   other methods only when the connection was never established, so a POST is never sent twice.
+ * - Metrics per call: timer "supabase.http.client.requests" (operation, method, outcome),
+ *   counter "supabase.http.client.retries" and gauge "supabase.http.client.circuit.state"
+ *   (0 = closed, 1 = open, 2 = half-open).
+ */
+@Component
+public class SupabaseHttpClient {
+
+    private static final Logger log = LoggerFactory.getLogger(SupabaseHttpClient.class);
+
+    private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    public SupabaseHttpClient(@Qualifier("supabaseRestTemplate") RestTemplate restTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${supabase.http.retry.max-attempts:3}") int maxAttempts,
+                              @Value("${supabase.http.retry.backoff-base-ms:100}") long backoffBaseMs,
+                              @Value("${supabase.http.retry.backoff-max-ms:1000}") long backoffMaxMs,
+                              @Value("${supabase.http.circuit.failure-threshold:5}") int failureThreshold,
+                              @Value("${supabase.http.circuit.open-ms:30000}") long openMs) {
+        this.restTemplate = restTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMs);
+        Gauge.builder("supabase.http.client.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+            .description("Supabase circuit breaker state (0 closed, 1 open, 2 half-open)")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Executes one logical Supabase call (possibly several attempts).
+     *
+     * @param operation short name used as the metrics tag, e.g. "floors.create"
+     * @throws HttpStatusCodeException for non-2xx responses that are not retried (or retries ran out)
+     * @throws ResourceAccessException for I/O errors, timeouts, or when the circuit is open
+     */
+    public <T> ResponseEntity<T> exchange(String operation, String url, HttpMethod method,
+                                          HttpEntity<?> request, Class<T> responseType) {
+        boolean idempotent = method == HttpMethod.GET || method == HttpMethod.HEAD;
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.tryAcquire()) {
+                record(operation, method, "circuit_open", 0);
+                throw new ResourceAccessException("Supabase circuit is open; retry in "
+                    + circuitBreaker.remainingOpenMillis() + " ms");
+            }
+            long start = System.nanoTime();
+            try {
+                ResponseEntity<T> response = restTemplate.exchange(url, method, request, responseType);
+                circuitBreaker.onSuccess();
+                record(operation, method, "success", System.nanoTime() - start);
+                return response;
+            } catch (HttpStatusCodeException e) {
+                int status = e.getStatusCode().value();
+                if (e.getStatusCode().is5xxServerError()) {
+                    circuitBreaker.onFailure();
+                    record(operation, method, "server_error", System.nanoTime() - start);
+                } else {
+                    // 4xx means Supabase is up and answering; it must not trip the breaker
+                    circuitBreaker.onSuccess();
+                    record(operation, method, "client_error", System.nanoTime() - start);
+                }
+                boolean retryableStatus = status == 429 || status == 502 || status == 503 || status == 504;
+                if (!idempotent || !retryableStatus || attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Supabase {} returned {}, retrying (attempt {}/{})", operation, status, attempt, maxAttempts);
+            } catch (ResourceAccessException e) {
+                circuitBreaker.onFailure();
+                record(operation, method, "io_error", System.nanoTime() - start);
+                if (!(idempotent || neverConnected(e)) || attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Supabase {} failed ({}), retrying (attempt {}/{})", operation, e.getMessage(), attempt, maxAttempts);
+            }
+            Counter.builder("supabase.http.client.retries")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+            sleepBeforeRetry(attempt);
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private void record(String operation, HttpMethod method, String outcome, long nanos) {
+        Timer.builder("supabase.http.client.requests")
+            .tag("operation", operation)
+            .tag("method", method.name())
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** True if the request never reached the server (safe to resend even for POST). */
+    private static boolean neverConnected(ResourceAccessException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof ConnectException || cause instanceof ConnectTimeoutException;
+    }
+
+    /** Full jitter: uniform in [0, min(max, base * 2^(attempt-1))]. */
+    private void sleepBeforeRetry(int attempt) {
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting to retry Supabase call");
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.smartparking.smart_parking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.crypto.Mac;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Verifies Supabase access tokens (JWTs) locally: signature, expiry, issuer and audience.
+ *
+ * Keys come from supabase.jwt.jwks-uri (http(s):, file: or classpath:) plus the optional legacy
+ * HS256 secret (supabase.jwt.secret). The key set is cached and refreshed in the background,
+ * so verification itself is CPU only: no network I/O per token.
+ *
+ * Supported algorithms: HS256, RS256, ES256. "none" and anything else is rejected.
+ */
+@Service
+public class SupabaseJwtVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(SupabaseJwtVerifier.class);
+
+    private static final JsonMapper JSON = JsonMapper.builder().build();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final String jwksUri;
+    private final String jwtSecret;
+    private final String issuer;
+    private final String audience;
+    private final long clockSkewSeconds;
+    private final ResourceLoader resourceLoader;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private volatile SupabaseKeySet keySet;
+
+    public SupabaseJwtVerifier(
+            @Value("${supabase.jwt.jwks-uri:${supabase.url:https://urioslfgnnbzflviacyt.supabase.co}/auth/v1/.well-known/jwks.json}") String jwksUri,
+            @Value("${supabase.jwt.secret:}") String jwtSecret,
+            @Value("${supabase.jwt.issuer:${supabase.url:https://urioslfgnnbzflviacyt.supabase.co}/auth/v1}") String issuer,
+            @Value("${supabase.jwt.audience:authenticated}") String audience,
+            @Value("${supabase.jwt.clock-skew-seconds:30}") long clockSkewSeconds,
+            ResourceLoader resourceLoader) {
+        this.jwksUri = jwksUri;
+        this.jwtSecret = jwtSecret;
+        this.issuer = issuer;
+        this.audience = audience;
+        this.clockSkewSeconds = clockSkewSeconds;
+        this.resourceLoader = resourceLoader;
+        // The HS256 secret is usable immediately; JWKS keys arrive with the first refresh
+        this.keySet = SupabaseKeySet.fromJwks(null, jwtSecret);
+    }
+
+    /** Verified claims of a Supabase access token. */
+    public record Claims(String subject, String email, String role, Instant expiresAt) {}
+
+    /** True once at least one verification key (JWKS or HS256 secret) is available. */
+    public boolean isConfigured() {
+        return !keySet.isEmpty();
+    }
+
+    /**
+     * Replaces the cached key set, e.g. with a local stand-in in tests.
+     */
+    public void useKeySet(SupabaseKeySet keys) {
+        this.keySet = keys;
+    }
+
+    /**
+     * Reloads the JWKS in the background. Keeps the previous keys if the fetch fails.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${supabase.jwt.jwks-refresh-ms:600000}")
+    public void refreshKeys() {
+        if (jwksUri == null || jwksUri.isBlank()) {
+            return;
+        }
+        try {
+            SupabaseKeySet loaded = SupabaseKeySet.fromJwks(fetchJwks(), jwtSecret);
+            if (loaded.isEmpty() && !keySet.isEmpty()) {
+                log.warn("JWKS at {} contained no usable keys; keeping {} cached key(s)", jwksUri, keySet.size());
+                return;
+            }
+            keySet = loaded;
+            log.debug("Loaded {} Supabase verification key(s) from {}", loaded.size(), jwksUri);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to refresh Supabase JWKS from {}: {}", jwksUri, e.getMessage());
+        }
+    }
+
+    /**
+     * Verifies a Supabase access token locally.
+     * @return verified claims, or null if the token is malformed, forged, expired or for another project
+     */
+    public Claims verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int firstDot = token.indexOf('.');
+        int secondDot = token.indexOf('.', firstDot + 1);
+        if (firstDot < 0 || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            return null;
+        }
+        try {
+            JsonNode header = JSON.readTree(DECODER.decode(token.substring(0, firstDot)));
+            byte[] signingInput = token.substring(0, secondDot).getBytes(StandardCharsets.US_ASCII);
+            byte[] signature = DECODER.decode(token.substring(secondDot + 1));
+            if (!verifySignature(header, signingInput, signature)) {
+                return null;
+            }
+            JsonNode payload = JSON.readTree(DECODER.decode(token.substring(firstDot + 1, secondDot)));
+            return validateClaims(payload);
+        } catch (IllegalArgumentException | JacksonException | GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    private boolean verifySignature(JsonNode header, byte[] signingInput, byte[] signature)
+            throws GeneralSecurityException {
+        SupabaseKeySet keys = keySet;
+        String alg = header.path("alg").asString("");
+        String kid = header.path("kid").asString(null);
+        switch (alg) {
+            case "HS256": {
+                if (keys.hmacKey() == null) {
+                    return false;
+                }
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(keys.hmacKey());
+                return MessageDigest.isEqual(mac.doFinal(signingInput), signature);
+            }
+            case "RS256":
+                return verifyWith("SHA256withRSA", keys.publicKey(kid), "RSA", signingInput, signature);
+            case "ES256":
+                // JWS carries raw R||S, which is what the P1363 variant expects
+                return verifyWith("SHA256withECDSAinP1363Format", keys.publicKey(kid), "EC", signingInput, signature);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean verifyWith(String algorithm, PublicKey key, String keyType, byte[] input, byte[] signature)
+            throws GeneralSecurityException {
+        if (key == null || !keyType.equals(key.getAlgorithm())) {
+            return false;
+        }
+        Signature verifier = Signature.getInstance(algorithm);
+        verifier.initVerify(key);
+        verifier.update(input);
+        return verifier.verify(signature);
+    }
+
+    private Claims validateClaims(JsonNode payload) {
+        long now = Instant.now().getEpochSecond();
+        JsonNode exp = payload.path("exp");
+        if (!exp.isNumber() || exp.asLong() + clockSkewSeconds <= now) {
+            return null;
+        }
+        JsonNode nbf = payload.path("nbf");
+        if (nbf.isNumber() && nbf.asLong() - clockSkewSeconds > now) {
+            return null;
+        }
+        if (issuer != null && !issuer.isBlank() && !issuer.equals(payload.path("iss").asString(""))) {
+            return null;
+        }
+        if (audience != null && !audience.isBlank() && !hasAudience(payload.path("aud"))) {
+            return null;
+        }
+        String email = payload.path("email").asString("");
+        return new Claims(
+            payload.path("sub").asString(null),
+            email.isBlank() ? null : email.trim(),
+            payload.path("role").asString(null),
+            Instant.ofEpochSecond(exp.asLong())
+        );
+    }
+
+    private boolean hasAudience(JsonNode aud) {
+        if (aud.isArray()) {
+            for (JsonNode value : aud) {
+                if (audience.equals(value.asString(""))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return audience.equals(aud.asString(""));
+    }
+
+    private String fetchJwks() throws IOException {
+        if (jwksUri.startsWith("http://") || jwksUri.startsWith("https://")) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(jwksUri))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() / 100 != 2) {
+                    throw new IOException("HTTP " + response.statusCode());
+                }
+                return response.body();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while fetching JWKS", e);
+            }
+        }
+        Resource resource = resourceLoader.getResource(jwksUri);
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.smartparking.smart_parking.service;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable set of keys used to verify Supabase access tokens locally.
+ *
+ * - Asymmetric keys (RS256 / ES256) come from the project's JWKS
+ *   (GET {supabase.url}/auth/v1/.well-known/jwks.json), indexed by "kid".
+ * - The legacy HS256 JWT secret (Dashboard > Settings > API > JWT Secret) is optional.
+ *
+ * Tests can build a stand-in set from their own JWKS JSON with {@link #fromJwks(String, String)}.
+ */
+public final class SupabaseKeySet {
+
+    private static final JsonMapper JSON = JsonMapper.builder().build();
+
+    private static final SupabaseKeySet EMPTY = new SupabaseKeySet(Map.of(), null);
+
+    private final Map<String, PublicKey> publicKeys;
+    private final SecretKeySpec hmacKey;
+
+    private SupabaseKeySet(Map<String, PublicKey> publicKeys, SecretKeySpec hmacKey) {
+        this.publicKeys = Map.copyOf(publicKeys);
+        this.hmacKey = hmacKey;
+    }
+
+    public static SupabaseKeySet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Parses a JWKS document. Keys that are not RSA or EC P-256 signing keys are skipped.
+     * @param jwksJson JWKS JSON ({"keys":[...]}), may be null
+     * @param hmacSecret legacy HS256 JWT secret, may be null/blank
+     */
+    public static SupabaseKeySet fromJwks(String jwksJson, String hmacSecret) {
+        Map<String, PublicKey> keys = new HashMap<>();
+        if (jwksJson != null && !jwksJson.isBlank()) {
+            JsonNode root = JSON.readTree(jwksJson);
+            for (JsonNode jwk : root.path("keys")) {
+                String kid = jwk.path("kid").asString("");
+                String use = jwk.path("use").asString("sig");
+                if (!"sig".equals(use)) {
+                    continue;
+                }
+                PublicKey key = toPublicKey(jwk);
+                if (key != null) {
+                    keys.put(kid, key);
+                }
+            }
+        }
+        SecretKeySpec hmac = hmacSecret != null && !hmacSecret.isBlank()
+            ? new SecretKeySpec(hmacSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256")
+            : null;
+        return new SupabaseKeySet(keys, hmac);
+    }
+
+    public boolean isEmpty() {
+        return publicKeys.isEmpty() && hmacKey == null;
+    }
+
+    public int size() {
+        return publicKeys.size() + (hmacKey != null ? 1 : 0);
+    }
+
+    /** Public key for a "kid"; a token without "kid" matches when exactly one key is known. */
+    public PublicKey publicKey(String kid) {
+        if (kid == null || kid.isEmpty()) {
+            return publicKeys.size() == 1 ? publicKeys.values().iterator().next() : null;
+        }
+        return publicKeys.get(kid);
+    }
+
+    public SecretKeySpec hmacKey() {
+        return hmacKey;
+    }
+
+    private static PublicKey toPublicKey(JsonNode jwk) {
+        try {
+            switch (jwk.path("kty").asString("")) {
+                case "RSA": {
+                    BigInteger n = unsigned(jwk.path("n").asString());
+                    BigInteger e = unsigned(jwk.path("e").asString());
+                    return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(n, e));
+                }
+                case "EC": {
+                    if (!"P-256".equals(jwk.path("crv").asString(""))) {
+                        return null;
+                    }
+                    AlgorithmParameters params = AlgorithmParameters.getInstance("EC");
+                    params.init(new ECGenParameterSpec("secp256r1"));
+                    ECPoint point = new ECPoint(unsigned(jwk.path("x").asString()), unsigned(jwk.path("y").asString()));
+                    return KeyFactory.getInstance("EC")
+                        .generatePublic(new ECPublicKeySpec(point, params.getParameterSpec(ECParameterSpec.class)));
+                }
+                default:
+                    return null;
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static BigInteger unsigned(String base64Url) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(base64Url));
+    }
+}
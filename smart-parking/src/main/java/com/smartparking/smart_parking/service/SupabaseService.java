@@ -2,15 +2,18 @@ package com.smartparking.smart_parking.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Supabase Service Role Client
@@ -43,11 +46,17 @@ public class SupabaseService {
     @Value("${supabase.anon.key:}")
     private String anonKey;
     
-    private final RestTemplate restTemplate;
+    @Autowired
+    private SupabaseJwtVerifier jwtVerifier;
     
-    public SupabaseService() {
-        this.restTemplate = new RestTemplate();
-    }
+    // Pooled client with timeouts, retries and circuit breaker (see SupabaseHttpClient)
+    @Autowired
+    private SupabaseHttpClient httpClient;
+    
+    // Virtual-thread executor for the *Async variants (see AsyncConfig)
+    @Autowired
+    @Qualifier("supabaseExecutor")
+    private Executor supabaseExecutor;
     
     /**
      * Creates a floor directly in Supabase using service role
@@ -75,7 +84,8 @@ public class SupabaseService {
         HttpEntity<Map<String, Object>> request = new HttpEntity<>(floorData, headers);
         
         try {
-            ResponseEntity<Map> response = restTemplate.exchange(
+            ResponseEntity<Map> response = httpClient.exchange(
+                "floors.create",
                 url,
                 HttpMethod.POST,
                 request,
@@ -92,6 +102,13 @@ public class SupabaseService {
         }
     }
     
+    /**
+     * Non-blocking variant of {@link #createFloorDirect}; the HTTP call runs on a virtual thread.
+     */
+    public CompletableFuture<Map<String, Object>> createFloorDirectAsync(Integer floorNumber, String description) {
+        return CompletableFuture.supplyAsync(() -> createFloorDirect(floorNumber, description), supabaseExecutor);
+    }
+    
     /**
      * Gets all floors directly from Supabase using service role
      */
@@ -109,7 +126,8 @@ public class SupabaseService {
         HttpEntity<String> request = new HttpEntity<>(headers);
         
         try {
-            ResponseEntity<Object> response = restTemplate.exchange(
+            ResponseEntity<Object> response = httpClient.exchange(
+                "floors.list",
                 url,
                 HttpMethod.GET,
                 request,
@@ -122,10 +140,18 @@ public class SupabaseService {
         }
     }
 
+    /**
+     * Non-blocking variant of {@link #getAllFloorsDirect}; the HTTP call runs on a virtual thread.
+     */
+    public CompletableFuture<Object> getAllFloorsDirectAsync() {
+        return CompletableFuture.supplyAsync(this::getAllFloorsDirect, supabaseExecutor);
+    }
+
     /**
      * Validates a Supabase Auth access token and returns the user's email.
      * Used after frontend verifyOtp to confirm the user and mark Admin as verified.
-     * GET /auth/v1/user with Authorization: Bearer &lt;token&gt; and apikey.
+     * Verified locally (signature, expiry, claims) when verification keys are available;
+     * otherwise falls back to GET /auth/v1/user with Authorization: Bearer &lt;token&gt; and apikey.
      *
      * @return the email from the Supabase user, or null if token is invalid/expired
      */
@@ -134,6 +160,14 @@ public class SupabaseService {
         if (accessToken == null || accessToken.trim().isEmpty()) {
             return null;
         }
+        if (jwtVerifier.isConfigured()) {
+            SupabaseJwtVerifier.Claims claims = jwtVerifier.verify(accessToken.trim());
+            if (claims == null) {
+                log.warn("getUserEmailFromAccessToken: token failed local verification");
+                return null;
+            }
+            return claims.email();
+        }
         if (anonKey == null || anonKey.isEmpty()) {
             throw new RuntimeException("Supabase anon key is not configured. Add supabase.anon.key to application.properties (Dashboard > Settings > API > anon public).");
         }
@@ -143,7 +177,7 @@ public class SupabaseService {
         headers.set("Authorization", "Bearer " + accessToken.trim());
         HttpEntity<String> request = new HttpEntity<>(headers);
         try {
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, request, Map.class);
+            ResponseEntity<Map> response = httpClient.exchange("auth.user", url, HttpMethod.GET, request, Map.class);
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 Map<?, ?> body = response.getBody();
                 String email = extractEmailFromBody(body);
@@ -160,6 +194,21 @@ public class SupabaseService {
         return null;
     }
 
+    /**
+     * Non-blocking variant of {@link #getUserEmailFromAccessToken}. Completes immediately when the
+     * token can be verified locally; otherwise the remote /auth/v1/user call runs on a virtual thread.
+     */
+    public CompletableFuture<String> getUserEmailFromAccessTokenAsync(String accessToken) {
+        if (jwtVerifier.isConfigured()) {
+            try {
+                return CompletableFuture.completedFuture(getUserEmailFromAccessToken(accessToken));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> getUserEmailFromAccessToken(accessToken), supabaseExecutor);
+    }
+
     /** Extract email from Supabase user payload (top-level, user, data.user, or identities[0].identity_data.email). */
     @SuppressWarnings("unchecked")
     private String extractEmailFromBody(Map<?, ?> body) {
@@ -0,0 +1,196 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.VehicleEntity;
+import com.smartparking.smart_parking.repository.VehicleRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One vehicles row per license plate, upserted on every entry.
+ *
+ * - A bounded LRU cache (plate -> id, parking.vehicles.cache-size) sits in front of the table.
+ *   A cached plate is recorded with a single UPDATE by id and returned as a reference,
+ *   so regular customers cost no SELECT.
+ * - Unknown plates go through one upsert keyed by the unique license_plate index
+ *   (ON CONFLICT on PostgreSQL, ON DUPLICATE KEY on MySQL, MERGE elsewhere), so two first
+ *   entries of the same plate at once end up in the same row. A MERGE that still loses the
+ *   race to a concurrent insert (H2 checks the match before inserting) is re-run once.
+ * - The cache is only filled after commit, so a rolled-back first insert never leaves a dangling id.
+ *   A stale id (UPDATE matched no row) falls back to the upsert.
+ *
+ * Metrics: counter "parking.vehicles.registry" (result = hit | miss | new; not counted inside
+ * ParkingMetrics.unmetered), gauge "parking.vehicles.cache.size".
+ */
+@Component
+public class VehicleRegistry {
+
+    static final String ON_CONFLICT = """
+        INSERT INTO vehicles (id, license_plate, vehicle_type, entry_time, visit_count) VALUES (?, ?, ?, ?, 1)
+        ON CONFLICT (license_plate) DO UPDATE SET vehicle_type = EXCLUDED.vehicle_type,
+            entry_time = EXCLUDED.entry_time, visit_count = vehicles.visit_count + 1
+        """;
+
+    static final String ON_DUPLICATE_KEY = """
+        INSERT INTO vehicles (id, license_plate, vehicle_type, entry_time, visit_count) VALUES (?, ?, ?, ?, 1)
+        ON DUPLICATE KEY UPDATE vehicle_type = VALUES(vehicle_type), entry_time = VALUES(entry_time),
+            visit_count = visit_count + 1
+        """;
+
+    static final String MERGE = """
+        MERGE INTO vehicles v
+        USING (SELECT CAST(? AS BIGINT) AS id, CAST(? AS VARCHAR(255)) AS license_plate,
+                      CAST(? AS VARCHAR(255)) AS vehicle_type, CAST(? AS TIMESTAMP) AS entry_time) s
+        ON v.license_plate = s.license_plate
+        WHEN MATCHED THEN UPDATE SET vehicle_type = s.vehicle_type, entry_time = s.entry_time,
+            visit_count = v.visit_count + 1
+        WHEN NOT MATCHED THEN INSERT (id, license_plate, vehicle_type, entry_time, visit_count)
+            VALUES (s.id, s.license_plate, s.vehicle_type, s.entry_time, 1)
+        """;
+
+    private final VehicleRepository vehicleRepo;
+    private final MeterRegistry meterRegistry;
+    private final ParkingMetrics parkingMetrics;
+    private final Map<String, Long> cache;
+    private final String upsertSql;
+    private final BeforeExecutionGenerator idGenerator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public VehicleRegistry(VehicleRepository vehicleRepo, MeterRegistry meterRegistry, ParkingMetrics parkingMetrics,
+                           EntityManagerFactory entityManagerFactory,
+                           @Value("${parking.vehicles.cache-size:10000}") int cacheSize) {
+        this.vehicleRepo = vehicleRepo;
+        this.meterRegistry = meterRegistry;
+        this.parkingMetrics = parkingMetrics;
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        this.upsertSql = dialect instanceof PostgreSQLDialect ? ON_CONFLICT
+                : dialect instanceof MySQLDialect ? ON_DUPLICATE_KEY
+                : MERGE;
+        // Same pooled sequence as entity inserts, so native inserts never reuse an id
+        this.idGenerator = (BeforeExecutionGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(VehicleEntity.class).getGenerator();
+        int capacity = Math.max(1, cacheSize);
+        this.cache = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+        Gauge.builder("parking.vehicles.cache.size", this, VehicleRegistry::cachedCount).register(meterRegistry);
+    }
+
+    /**
+     * Records an entry for the plate inside the caller's transaction.
+     * @return the registry row (possibly an uninitialised reference for a cached plate)
+     */
+    public VehicleEntity recordEntry(String licensePlate, String vehicleType, LocalDateTime entryTime) {
+        Long cachedId = cachedId(licensePlate);
+        if (cachedId != null && vehicleRepo.recordEntry(cachedId, licensePlate, vehicleType, entryTime) == 1) {
+            count("hit");
+            return entityManager.getReference(VehicleEntity.class, cachedId);
+        }
+
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        Long newId = (Long) idGenerator.generate(session, null, null, EventType.INSERT);
+        Long id = entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> upsert(connection, newId, licensePlate, vehicleType, entryTime));
+        count(newId.equals(id) ? "new" : "miss");
+        cacheAfterCommit(licensePlate, id);
+        return entityManager.getReference(VehicleEntity.class, id);
+    }
+
+    // Plain JDBC: a failed statement must not mark the caller's transaction rollback-only
+    private Long upsert(Connection connection, Long newId, String licensePlate, String vehicleType,
+                        LocalDateTime entryTime) throws SQLException {
+        try {
+            executeUpsert(connection, newId, licensePlate, vehicleType, entryTime);
+        } catch (SQLException e) {
+            if (!MERGE.equals(upsertSql) || e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                throw e;
+            }
+            // A concurrent first entry inserted the plate after our MERGE looked: now it matches
+            executeUpsert(connection, newId, licensePlate, vehicleType, entryTime);
+        }
+        try (PreparedStatement select = connection.prepareStatement("SELECT id FROM vehicles WHERE license_plate = ?")) {
+            select.setString(1, licensePlate);
+            try (ResultSet rs = select.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private void executeUpsert(Connection connection, Long newId, String licensePlate, String vehicleType,
+                               LocalDateTime entryTime) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(upsertSql)) {
+            statement.setLong(1, newId);
+            statement.setString(2, licensePlate);
+            statement.setString(3, vehicleType);
+            statement.setTimestamp(4, Timestamp.valueOf(entryTime));
+            statement.executeUpdate();
+        }
+    }
+
+    /** True if the plate is a cached regular (no database access). */
+    public boolean isKnown(String licensePlate) {
+        return cachedId(licensePlate) != null;
+    }
+
+    private void cacheAfterCommit(String licensePlate, Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(licensePlate, id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(licensePlate, id);
+            }
+        });
+    }
+
+    private synchronized Long cachedId(String licensePlate) {
+        return cache.get(licensePlate);
+    }
+
+    private synchronized void remember(String licensePlate, Long id) {
+        cache.put(licensePlate, id);
+    }
+
+    private synchronized int cachedCount() {
+        return cache.size();
+    }
+
+    private void count(String result) {
+        if (!parkingMetrics.isRecording()) {
+            return;
+        }
+        meterRegistry.counter("parking.vehicles.registry", "result", result).increment();
+    }
+}
@@ -0,0 +1,96 @@
+package com.smartparking.smart_parking.config;
+
+import com.smartparking.smart_parking.model.ParkingRecord;
+import com.smartparking.smart_parking.service.AdminService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The application's own stack (JpaTransactionManager, HibernateJpaDialect, lazy connection proxy)
+ * against a second H2 database as the replica. The replica gets the primary's schema and one
+ * record the primary does not have; "replication" of the heartbeat row is done by hand.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:jpa-routing-primary;DB_CLOSE_DELAY=-1",
+	"parking.datasource.replica.url=jdbc:h2:mem:jpa-routing-replica;DB_CLOSE_DELAY=-1",
+	"parking.datasource.replica.username=sa",
+	"parking.datasource.replica.heartbeat-ms=3600000"
+})
+class JpaReadReplicaRoutingTests {
+
+	private static final String REPLICA_PLATE = "ONLY-ON-REPLICA";
+
+	@Autowired
+	private AdminService adminService;
+
+	@Autowired
+	private ReplicaLagMonitor monitor;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primary;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replica;
+
+	@BeforeEach
+	void copySchemaToReplica() {
+		JdbcTemplate primaryJdbc = new JdbcTemplate(primary);
+		JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+		replicaJdbc.execute("DROP ALL OBJECTS");
+		for (String statement : primaryJdbc.queryForList("SCRIPT NODATA TABLE parking_records", String.class)) {
+			if (statement.startsWith("CREATE") || statement.startsWith("ALTER")) {
+				replicaJdbc.execute(statement);
+			}
+		}
+		replicaJdbc.execute(ReplicaLagMonitor.CREATE_TABLE);
+		replicaJdbc.update("INSERT INTO parking_records (id, vehicle_type, license_plate, slot_number, floor_number, "
+				+ "entry_time, exit_time, duration_minutes, billable_hours, charge, version) "
+				+ "VALUES (990100, 'CAR', ?, 6, 1, TIMESTAMP '2026-01-01 08:00:00', TIMESTAMP '2026-01-01 09:00:00', 60, 1, 50, 0)",
+				REPLICA_PLATE);
+
+		monitor.check();
+		Long beat = primaryJdbc.queryForObject("SELECT beat_millis FROM replica_heartbeat WHERE id = 1", Long.class);
+		replicaJdbc.update("INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, ?)", beat);
+		monitor.check();
+	}
+
+	@Test
+	void readOnlyServiceMethodReadsFromTheReplica() {
+		assertThat(monitor.isUsable()).isTrue();
+		double replicaReads = routed("replica");
+
+		List<ParkingRecord> history = adminService.getVehicleHistory(null, null, null, null);
+
+		assertThat(history).extracting(ParkingRecord::getLicensePlate).containsExactly(REPLICA_PLATE);
+		assertThat(routed("replica")).isGreaterThan(replicaReads);
+	}
+
+	@Test
+	void staleReplicaLeavesReadsOnThePrimary() {
+		monitor.markDown("test");
+
+		List<ParkingRecord> history = adminService.getVehicleHistory(null, null, null, null);
+
+		assertThat(history).extracting(ParkingRecord::getLicensePlate).doesNotContain(REPLICA_PLATE);
+	}
+
+	private double routed(String target) {
+		var counter = meterRegistry.find("parking.datasource.routing").tag("target", target).counter();
+		return counter != null ? counter.count() : 0;
+	}
+}
@@ -0,0 +1,93 @@
+package com.smartparking.smart_parking.config;
+
+import com.jayway.jsonpath.JsonPath;
+import com.smartparking.smart_parking.model.ParkingRecord;
+import com.smartparking.smart_parking.model.SlotDTO;
+import com.smartparking.smart_parking.service.ParkingServiceDB;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Statement budgets per endpoint, read from the X-Query-Count header.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryDiagnosticsFilterTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ParkingServiceDB parkingService;
+
+	@AfterEach
+	void freeAllSlots() {
+		for (SlotDTO slot : parkingService.getAllSlots()) {
+			if (slot.isOccupied()) {
+				parkingService.exitVehicleBySlot(slot.getSlotNumber(), slot.getFloorNumber());
+			}
+		}
+	}
+
+	@Test
+	void slotViewIsOneStatement() throws Exception {
+		parkingService.parkVehicle("DIAG-1", "CAR");
+
+		MvcResult result = perform(get("/parking/slots"), 1);
+		assertThat(result.getResponse().getHeader("Server-Timing")).startsWith("db;dur=");
+		assertThat(result.getResponse().getHeader(QueryDiagnosticsFilter.ENTITIES_HEADER)).isEqualTo("0");
+	}
+
+	@Test
+	void dashboardStatsDoNotDependOnGarageSize() throws Exception {
+		parkingService.parkVehicle("DIAG-2", "BIKE");
+
+		MvcResult result = perform(get("/admin/dashboard/stats"), 4);
+		assertThat((Integer) JsonPath.read(result.getResponse().getContentAsString(), "$.occupiedSlots")).isEqualTo(1);
+	}
+
+	@Test
+	void changeSlotWithoutFloorDoesNotScanTables() throws Exception {
+		ParkingRecord parked = parkingService.parkVehicle("DIAG-3", "TRUCK");
+		int target = parked.getSlotNumber() == 19 ? 20 : 19;
+		String token = login();
+
+		perform(post("/admin/override/change-slot")
+				.param("slotNumber", String.valueOf(parked.getSlotNumber()))
+				.param("newSlotNumber", String.valueOf(target))
+				.header("Authorization", "Bearer " + token), 10);
+
+		MvcResult diagnostics = mockMvc.perform(get("/admin/diagnostics/queries").header("Authorization", token)).andReturn();
+		assertThat(diagnostics.getResponse().getStatus()).isEqualTo(200);
+		List<?> endpoints = JsonPath.read(diagnostics.getResponse().getContentAsString(), "$[*].endpoint");
+		assertThat(endpoints).asInstanceOf(InstanceOfAssertFactories.LIST).contains("POST /admin/override/change-slot");
+	}
+
+	private MvcResult perform(RequestBuilder request, int maxStatements) throws Exception {
+		MvcResult result = mockMvc.perform(request).andReturn();
+		assertThat(result.getResponse().getStatus()).isEqualTo(200);
+		String count = result.getResponse().getHeader(QueryDiagnosticsFilter.QUERY_COUNT_HEADER);
+		assertThat(count).isNotNull();
+		assertThat(Integer.parseInt(count)).isLessThanOrEqualTo(maxStatements);
+		return result;
+	}
+
+	private String login() throws Exception {
+		MvcResult result = mockMvc.perform(post("/admin/login").param("username", "admin").param("password", "admin123"))
+				.andReturn();
+		return JsonPath.read(result.getResponse().getContentAsString(), "$.token");
+	}
+}
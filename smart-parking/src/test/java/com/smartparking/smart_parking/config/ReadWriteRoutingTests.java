@@ -0,0 +1,155 @@
+package com.smartparking.smart_parking.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing against two embedded H2 databases; "replication" of the heartbeat row is done by hand.
+ */
+class ReadWriteRoutingTests {
+
+	private static final long MAX_LAG_MS = 5000;
+
+	private final AtomicLong clock = new AtomicLong(1_000_000);
+	private final AtomicBoolean replicaDown = new AtomicBoolean();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private JdbcTemplate primaryJdbc;
+	private JdbcTemplate replicaJdbc;
+	private ReplicaLagMonitor monitor;
+	private TransactionTemplate readOnly;
+	private TransactionTemplate readWrite;
+	private JdbcTemplate routed;
+
+	@BeforeEach
+	void setUp() {
+		DataSource primary = h2("routing-primary-" + System.nanoTime());
+		DataSource replica = new DelegatingDataSource(h2("routing-replica-" + System.nanoTime())) {
+			@Override
+			public Connection getConnection() throws SQLException {
+				if (replicaDown.get()) {
+					throw new SQLException("replica unreachable");
+				}
+				return super.getConnection();
+			}
+		};
+		primaryJdbc = new JdbcTemplate(primary);
+		replicaJdbc = new JdbcTemplate(replica);
+		for (JdbcTemplate jdbc : new JdbcTemplate[] {primaryJdbc, replicaJdbc}) {
+			jdbc.execute("CREATE TABLE whoami (name VARCHAR(16))");
+			jdbc.execute(ReplicaLagMonitor.CREATE_TABLE);
+		}
+		primaryJdbc.update("INSERT INTO whoami VALUES ('primary')");
+		replicaJdbc.update("INSERT INTO whoami VALUES ('replica')");
+
+		monitor = new ReplicaLagMonitor(primary, replica, MAX_LAG_MS, clock::get);
+		DataSource routing = new LazyConnectionDataSourceProxy(
+			new ReadWriteRoutingDataSource(primary, replica, monitor, registry));
+		DataSourceTransactionManager txManager = new DataSourceTransactionManager(routing);
+		readWrite = new TransactionTemplate(txManager);
+		readOnly = new TransactionTemplate(txManager);
+		readOnly.setReadOnly(true);
+		routed = new JdbcTemplate(routing);
+	}
+
+	@Test
+	void readOnlyTransactionsUseAFreshReplicaAndWritesUseThePrimary() {
+		// No heartbeat replicated yet: stay on the primary
+		monitor.check();
+		assertThat(readOnlyTarget()).isEqualTo("primary");
+
+		replicateHeartbeat();
+		monitor.check();
+
+		assertThat(readOnlyTarget()).isEqualTo("replica");
+		assertThat(readWriteTarget()).isEqualTo("primary");
+		assertThat(whoami()).isEqualTo("primary");
+	}
+
+	@Test
+	void staleReplicaIsBypassedUntilItCatchesUp() {
+		monitor.check();
+		replicateHeartbeat();
+		monitor.check();
+		assertThat(readOnlyTarget()).isEqualTo("replica");
+
+		// Replication stalls while time moves on past the cap
+		clock.addAndGet(MAX_LAG_MS + 1);
+		monitor.check();
+		assertThat(monitor.getLagMs()).isGreaterThan(MAX_LAG_MS);
+		assertThat(readOnlyTarget()).isEqualTo("primary");
+
+		replicateHeartbeat();
+		monitor.check();
+		assertThat(readOnlyTarget()).isEqualTo("replica");
+	}
+
+	@Test
+	void verdictExpiresWhenChecksStop() {
+		monitor.check();
+		replicateHeartbeat();
+		monitor.check();
+
+		// A failed heartbeat write keeps the verdict...
+		primaryJdbc.execute("DROP TABLE replica_heartbeat");
+		monitor.check();
+		assertThat(readOnlyTarget()).isEqualTo("replica");
+
+		// ...but only up to the cap, as does a check that never runs
+		clock.addAndGet(MAX_LAG_MS + 1);
+		assertThat(monitor.isUsable()).isFalse();
+		assertThat(readOnlyTarget()).isEqualTo("primary");
+	}
+
+	@Test
+	void unreachableReplicaFallsBackToThePrimary() {
+		monitor.check();
+		replicateHeartbeat();
+		monitor.check();
+		replicaDown.set(true);
+
+		assertThat(readOnlyTarget()).isEqualTo("primary");
+		assertThat(monitor.isUsable()).isFalse();
+		assertThat(registry.get("parking.datasource.routing").tag("target", "fallback").counter().count())
+			.isEqualTo(1.0);
+	}
+
+	private String readWriteTarget() {
+		return readWrite.execute(status -> whoami());
+	}
+
+	private String readOnlyTarget() {
+		return readOnly.execute(status -> whoami());
+	}
+
+	private String whoami() {
+		return routed.queryForObject("SELECT name FROM whoami", String.class);
+	}
+
+	private void replicateHeartbeat() {
+		Long beat = primaryJdbc.queryForObject("SELECT beat_millis FROM replica_heartbeat WHERE id = 1", Long.class);
+		replicaJdbc.update("MERGE INTO replica_heartbeat (id, beat_millis) KEY (id) VALUES (1, ?)", beat);
+	}
+
+	private static DataSource h2(String name) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+		dataSource.setUser("sa");
+		return dataSource;
+	}
+}
@@ -0,0 +1,44 @@
+package com.smartparking.smart_parking.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.smartparking.smart_parking.repository.FloorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ReferenceCacheConfigTests {
+
+	@Autowired
+	private CacheManager hibernateCacheManager;
+
+	@Autowired
+	private FloorRepository floorRepo;
+
+	@Test
+	void everyReferenceRegionIsBoundedBySizeAndAge() {
+		assertThat(limits("floors").getMaximumSize()).hasValue(1000);
+		assertThat(limits("slot-layout").getMaximumSize()).hasValue(100_000);
+		assertThat(limits("slot-layout-queries").getExpireAfterWrite()).hasValue(TimeUnit.SECONDS.toNanos(600));
+		assertThat(limits("default-query-results-region").getMaximumSize()).hasValue(1000);
+	}
+
+	@Test
+	void hibernateCachesIntoTheBoundedRegions() {
+		floorRepo.findByFloorNumber(1);
+
+		Cache<Object, Object> floorQueries = hibernateCacheManager.getCache("floor-queries");
+		assertThat(floorQueries.iterator()).hasNext();
+	}
+
+	@SuppressWarnings("unchecked")
+	private CaffeineConfiguration<Object, Object> limits(String region) {
+		return hibernateCacheManager.getCache(region).getConfiguration(CaffeineConfiguration.class);
+	}
+}
@@ -0,0 +1,69 @@
+package com.smartparking.smart_parking.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SamplingTurboFilterTests {
+
+	private final LoggerContext context = new LoggerContext();
+	private final SamplingTurboFilter filter = new SamplingTurboFilter();
+	private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+	@BeforeEach
+	void setUp() {
+		filter.setContext(context);
+		filter.start();
+		context.addTurboFilter(filter);
+		events.setContext(context);
+		events.start();
+		Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+		root.addAppender(events);
+		root.setLevel(Level.DEBUG);
+	}
+
+	@Test
+	void categoryAndItsChildrenAreSampledButWarningsAreNot() {
+		filter.setSampleEvery("parking.gate", 10);
+		Logger gate = context.getLogger("parking.gate");
+		Logger exit = context.getLogger("parking.gate.exit");
+		Logger other = context.getLogger("parking.slots");
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(gate.isDebugEnabled()).isTrue();
+			gate.debug("park {}", i);
+			other.debug("view {}", i);
+		}
+		exit.debug("exit");
+		gate.warn("slow gate");
+
+		assertThat(events.list).filteredOn(e -> e.getLoggerName().equals("parking.gate") && e.getLevel() == Level.DEBUG)
+			.hasSize(10)
+			.first().extracting(ILoggingEvent::getFormattedMessage).isEqualTo("park 0");
+		assertThat(events.list).filteredOn(e -> e.getLoggerName().equals("parking.slots")).hasSize(100);
+		assertThat(events.list).extracting(ILoggingEvent::getMessage).contains("slow gate");
+		assertThat(filter.getSampleRates()).containsEntry("parking.gate", 10);
+	}
+
+	@Test
+	void disabledLevelsDoNotUseUpSamplesAndRatesCanBeRemoved() {
+		filter.setSampleEvery("parking.gate", 2);
+		Logger gate = context.getLogger("parking.gate");
+		gate.setLevel(Level.INFO);
+		gate.debug("off");
+		gate.info("first");
+		gate.info("second");
+		gate.info("third");
+
+		filter.setSampleEvery("parking.gate", 1);
+		gate.info("fourth");
+
+		assertThat(events.list).extracting(ILoggingEvent::getMessage).containsExactly("first", "third", "fourth");
+	}
+}
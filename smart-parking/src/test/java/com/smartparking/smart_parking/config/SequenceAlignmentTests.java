@@ -0,0 +1,46 @@
+package com.smartparking.smart_parking.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A sequence left behind the ids of its table (as after the IDENTITY -> sequence switch) is moved
+ * past them; a sequence that is ahead is not touched.
+ */
+@SpringBootTest
+class SequenceAlignmentTests {
+
+	private static final long LEGACY_ID = 900_000L;
+
+	@Autowired
+	private SequenceAlignment alignment;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@AfterEach
+	void removeLegacyRow() {
+		new JdbcTemplate(dataSource).update("DELETE FROM audit_logs WHERE id = ?", LEGACY_ID);
+	}
+
+	@Test
+	void sequenceBehindExistingIdsIsRestartedPastThem() {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.update("INSERT INTO audit_logs (id, action, timestamp) VALUES (?, 'LEGACY', CURRENT_TIMESTAMP)", LEGACY_ID);
+		jdbc.execute("ALTER SEQUENCE audit_logs_seq RESTART WITH 1");
+
+		assertThat(alignment.align()).isEqualTo(1);
+
+		long next = jdbc.queryForObject("SELECT NEXT VALUE FOR audit_logs_seq", Long.class);
+		assertThat(next - 49).isGreaterThan(LEGACY_ID);
+		assertThat(alignment.align()).isZero();
+		assertThat(jdbc.queryForObject("SELECT NEXT VALUE FOR audit_logs_seq", Long.class)).isGreaterThan(next);
+	}
+}
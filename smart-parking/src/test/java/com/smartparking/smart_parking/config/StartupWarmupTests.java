@@ -0,0 +1,56 @@
+package com.smartparking.smart_parking.config;
+
+import com.smartparking.smart_parking.repository.ParkingRecordRepository;
+import com.smartparking.smart_parking.repository.VehicleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"parking.warmup.enabled=true", "parking.warmup.iterations=3"})
+class StartupWarmupTests {
+
+	@Autowired
+	private StartupWarmup warmup;
+
+	@Autowired
+	private ParkingRecordRepository recordRepo;
+
+	@Autowired
+	private VehicleRepository vehicleRepo;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ApplicationAvailability availability;
+
+	@Test
+	void warmUpRunsBeforeReadinessAndLeavesNoTrace() throws Exception {
+		// Ran once as a startup runner before the context reported ready
+		assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+		assertThat(meterRegistry.get("parking.warmup").timer().count()).isEqualTo(1);
+		long records = recordRepo.count();
+		long parks = parkCount();
+
+		StartupWarmup.WarmupReport report = warmup.warmUp();
+
+		// Four tariffs with free slots on the default floor, three iterations each
+		assertThat(report.tariffs()).isEqualTo(4);
+		assertThat(report.syntheticCycles()).isEqualTo(12);
+		assertThat(report.layoutSlots()).isGreaterThanOrEqualTo(20);
+		assertThat(recordRepo.count()).isEqualTo(records);
+		assertThat(vehicleRepo.findByLicensePlate(StartupWarmup.PLATE_PREFIX + "CAR-0")).isEmpty();
+		// Synthetic cycles are not gate traffic
+		assertThat(parkCount()).isEqualTo(parks);
+		assertThat(meterRegistry.find("parking.exit").timers()).isEmpty();
+	}
+
+	private long parkCount() {
+		return meterRegistry.find("parking.park").timers().stream().mapToLong(timer -> timer.count()).sum();
+	}
+}
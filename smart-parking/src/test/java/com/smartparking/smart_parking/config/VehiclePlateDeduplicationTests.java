@@ -0,0 +1,62 @@
+package com.smartparking.smart_parking.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Legacy one-row-per-entry vehicles are merged into one row per plate and the unique key is
+ * added again afterwards.
+ */
+@SpringBootTest
+class VehiclePlateDeduplicationTests {
+
+	private static final String PLATE = "DUP-1";
+
+	@Autowired
+	private VehiclePlateDeduplication deduplication;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@AfterEach
+	void removeRows() {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.update("UPDATE parking_slots SET vehicle_id = NULL WHERE vehicle_id IN (SELECT id FROM vehicles WHERE license_plate = ?)", PLATE);
+		jdbc.update("DELETE FROM vehicles WHERE license_plate = ?", PLATE);
+	}
+
+	@Test
+	void duplicatePlatesAreMergedIntoTheOldestRow() {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("ALTER TABLE vehicles DROP CONSTRAINT ux_vehicles_license_plate");
+		String insert = "INSERT INTO vehicles (id, license_plate, vehicle_type, entry_time, visit_count) VALUES (?, ?, ?, ?, ?)";
+		jdbc.update(insert, 980001, PLATE, "CAR", "2026-01-01 08:00:00", 0);
+		jdbc.update(insert, 980002, PLATE, "MICROBUS", "2026-03-01 08:00:00", 0);
+		jdbc.update(insert, 980003, PLATE, "CAR", "2026-02-01 08:00:00", 2);
+		long slotId = jdbc.queryForObject("SELECT min(id) FROM parking_slots", Long.class);
+		jdbc.update("UPDATE parking_slots SET vehicle_id = 980002 WHERE id = ?", slotId);
+
+		assertThat(deduplication.deduplicate()).isEqualTo(1);
+
+		Map<String, Object> kept = jdbc.queryForMap(
+			"SELECT id, vehicle_type, visit_count FROM vehicles WHERE license_plate = ?", PLATE);
+		assertThat(((Number) kept.get("id")).longValue()).isEqualTo(980001);
+		assertThat(kept.get("vehicle_type")).isEqualTo("MICROBUS");
+		assertThat(((Number) kept.get("visit_count")).intValue()).isEqualTo(4);
+		assertThat(jdbc.queryForObject("SELECT vehicle_id FROM parking_slots WHERE id = ?", Long.class, slotId))
+			.isEqualTo(980001);
+		assertThatThrownBy(() -> jdbc.update(insert, 980004, PLATE, "CAR", "2026-04-01 08:00:00", 1))
+			.isInstanceOf(DataIntegrityViolationException.class);
+		assertThat(deduplication.deduplicate()).isZero();
+	}
+}
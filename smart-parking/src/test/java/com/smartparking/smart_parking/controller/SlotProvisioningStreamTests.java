@@ -0,0 +1,94 @@
+package com.smartparking.smart_parking.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.smartparking.smart_parking.model.Floor;
+import com.smartparking.smart_parking.repository.FloorRepository;
+import com.smartparking.smart_parking.repository.ParkingSlotRepository;
+import com.smartparking.smart_parking.service.ReferenceDataCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * /admin/slots/add/stream: admin token required, and a finished job gives its slot back to the
+ * concurrent-job limit (default 2), so sequential streams keep being accepted.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SlotProvisioningStreamTests {
+
+	private static final int FLOOR = 39;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private FloorRepository floorRepo;
+
+	@Autowired
+	private ParkingSlotRepository slotRepo;
+
+	@Autowired
+	private ReferenceDataCache referenceDataCache;
+
+	@AfterEach
+	void removeFloor() {
+		floorRepo.findByFloorNumber(FLOOR).ifPresent(floor -> {
+			slotRepo.deleteAll(slotRepo.findByFloor(floor));
+			floorRepo.delete(floor);
+		});
+		referenceDataCache.evictFloors();
+		referenceDataCache.evictSlotLayout();
+	}
+
+	@Test
+	void rejectRequestsWithoutValidToken() throws Exception {
+		MvcResult missing = mockMvc.perform(provision(1, 5)).andReturn();
+		MvcResult forged = mockMvc.perform(provision(1, 5).header("Authorization", "Bearer session_forged")).andReturn();
+
+		assertThat(missing.getResponse().getStatus()).isEqualTo(401);
+		assertThat(missing.getResponse().getContentAsString()).contains("event:error").contains("Unauthorized");
+		assertThat(forged.getResponse().getStatus()).isEqualTo(401);
+		assertThat(floorRepo.findByFloorNumber(FLOOR)).isEmpty();
+	}
+
+	@Test
+	void finishedJobsReleaseTheirSlotInTheJobLimit() throws Exception {
+		floorRepo.save(new Floor(FLOOR, "stream test"));
+		String token = login();
+
+		for (int run = 0; run < 3; run++) {
+			MvcResult started = mockMvc.perform(provision(1 + run * 10, 10).header("Authorization", "Bearer " + token))
+					.andReturn();
+			assertThat(started.getRequest().isAsyncStarted()).isTrue();
+			MvcResult finished = mockMvc.perform(asyncDispatch(started)).andReturn();
+
+			assertThat(finished.getResponse().getStatus()).isEqualTo(200);
+			assertThat(finished.getResponse().getContentAsString()).contains("event:done");
+		}
+		assertThat(slotRepo.findByFloor(floorRepo.findByFloorNumber(FLOOR).orElseThrow())).hasSize(30);
+	}
+
+	private static MockHttpServletRequestBuilder provision(int start, int count) {
+		return post("/admin/slots/add/stream")
+			.param("floorNumber", String.valueOf(FLOOR))
+			.param("vehicleType", "CAR")
+			.param("startSlotNumber", String.valueOf(start))
+			.param("numberOfSlots", String.valueOf(count));
+	}
+
+	private String login() throws Exception {
+		MvcResult result = mockMvc.perform(post("/admin/login").param("username", "admin").param("password", "admin123"))
+				.andReturn();
+		return JsonPath.read(result.getResponse().getContentAsString(), "$.token");
+	}
+}
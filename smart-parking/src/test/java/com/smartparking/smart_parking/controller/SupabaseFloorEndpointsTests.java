@@ -0,0 +1,64 @@
+package com.smartparking.smart_parking.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * The service-role Supabase endpoints: admin token required, Supabase errors mapped to 502
+ * on the async path (no service role key is configured in tests).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SupabaseFloorEndpointsTests {
+
+	private static final String BODY = "{\"floorNumber\": 9, \"description\": \"Roof\"}";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void rejectRequestsWithoutValidToken() throws Exception {
+		assertThat(dispatch(get("/admin/supabase/floors")).getResponse().getStatus()).isEqualTo(401);
+		assertThat(dispatch(post("/admin/supabase/floors").header("Authorization", "Bearer session_forged")
+				.contentType(MediaType.APPLICATION_JSON).content(BODY)).getResponse().getStatus())
+			.isEqualTo(401);
+	}
+
+	@Test
+	void authorizedRequestsRunAsyncAndMapSupabaseErrors() throws Exception {
+		String token = login();
+
+		MvcResult listed = dispatch(get("/admin/supabase/floors").header("Authorization", "Bearer " + token));
+		assertThat(listed.getResponse().getStatus()).isEqualTo(502);
+
+		MvcResult created = dispatch(post("/admin/supabase/floors").header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON).content(BODY));
+		assertThat(created.getResponse().getStatus()).isEqualTo(502);
+		assertThat((String) JsonPath.read(created.getResponse().getContentAsString(), "$.error"))
+			.contains("service role key not configured");
+	}
+
+	private MvcResult dispatch(RequestBuilder request) throws Exception {
+		MvcResult started = mockMvc.perform(request).andReturn();
+		assertThat(started.getRequest().isAsyncStarted()).isTrue();
+		return mockMvc.perform(asyncDispatch(started)).andReturn();
+	}
+
+	private String login() throws Exception {
+		MvcResult result = mockMvc.perform(post("/admin/login").param("username", "admin").param("password", "admin123"))
+				.andReturn();
+		return JsonPath.read(result.getResponse().getContentAsString(), "$.token");
+	}
+}
@@ -0,0 +1,124 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.Admin;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdminSessionStoreTests {
+
+	private static final long MINUTE = 60_000L;
+
+	private final AtomicLong now = new AtomicLong(1_000_000L);
+
+	private AdminSessionStore store(int maxSessions) {
+		return new AdminSessionStore(30, maxSessions, now::get);
+	}
+
+	private static Admin admin(String username) {
+		Admin admin = new Admin();
+		admin.setUsername(username);
+		return admin;
+	}
+
+	@Test
+	void sessionExpiresAfterTtlWithoutUse() {
+		AdminSessionStore store = store(10);
+		String token = store.create(admin("alice"));
+
+		now.addAndGet(29 * MINUTE);
+		assertThat(store.get(token)).isNotNull();
+
+		now.addAndGet(30 * MINUTE);
+		assertThat(store.get(token)).isNull();
+		assertThat(store.size()).isZero();
+	}
+
+	@Test
+	void everyLookupSlidesExpiry() {
+		AdminSessionStore store = store(10);
+		String token = store.create(admin("alice"));
+
+		for (int i = 0; i < 5; i++) {
+			now.addAndGet(20 * MINUTE);
+			assertThat(store.get(token)).extracting(Admin::getUsername).isEqualTo("alice");
+		}
+	}
+
+	@Test
+	void bridgedSessionNeverOutlivesExternalToken() {
+		AdminSessionStore store = store(10);
+		store.bridge("supabase-token", admin("alice"), now.get() + 10 * MINUTE);
+
+		now.addAndGet(9 * MINUTE);
+		assertThat(store.get("supabase-token")).isNotNull();
+
+		now.addAndGet(2 * MINUTE);
+		assertThat(store.get("supabase-token")).isNull();
+	}
+
+	@Test
+	void atCapacityEvictsLeastRecentlyUsedSession() {
+		AdminSessionStore store = store(3);
+		String oldest = store.create(admin("a"));
+		now.addAndGet(MINUTE);
+		String middle = store.create(admin("b"));
+		now.addAndGet(MINUTE);
+		String newest = store.create(admin("c"));
+		now.addAndGet(MINUTE);
+		// Using the oldest session makes the middle one the least recently used
+		store.get(oldest);
+
+		String fourth = store.create(admin("d"));
+
+		assertThat(store.size()).isEqualTo(3);
+		assertThat(store.get(middle)).isNull();
+		assertThat(store.get(oldest)).isNotNull();
+		assertThat(store.get(newest)).isNotNull();
+		assertThat(store.get(fourth)).isNotNull();
+	}
+
+	@Test
+	void atCapacityDropsExpiredSessionsFirst() {
+		AdminSessionStore store = store(3);
+		store.create(admin("a"));
+		store.create(admin("b"));
+		now.addAndGet(20 * MINUTE);
+		String live = store.create(admin("c"));
+		now.addAndGet(15 * MINUTE);
+
+		store.create(admin("d"));
+
+		assertThat(store.size()).isEqualTo(2);
+		assertThat(store.get(live)).isNotNull();
+	}
+
+	@Test
+	void sweepRemovesOnlyExpiredSessions() {
+		AdminSessionStore store = store(10);
+		store.create(admin("a"));
+		store.bridge("supabase-token", admin("b"), Long.MAX_VALUE);
+		now.addAndGet(20 * MINUTE);
+		String live = store.create(admin("c"));
+		now.addAndGet(15 * MINUTE);
+
+		store.sweep();
+
+		assertThat(store.size()).isEqualTo(1);
+		assertThat(store.get(live)).isNotNull();
+		assertThat(store.get("supabase-token")).isNull();
+	}
+
+	@Test
+	void invalidateAcceptsBridgedToken() {
+		AdminSessionStore store = store(10);
+		store.bridge("supabase-token", admin("alice"), Long.MAX_VALUE);
+
+		store.invalidate("supabase-token");
+
+		assertThat(store.get("supabase-token")).isNull();
+		assertThat(store.size()).isZero();
+	}
+}
@@ -0,0 +1,96 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.Admin;
+import com.smartparking.smart_parking.model.RevokedAdminToken;
+import com.smartparking.smart_parking.repository.RevokedAdminTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AdminTokenServiceTests {
+
+	private static final String SECRET = "test-secret-test-secret-test-secret-0123";
+
+	@Autowired
+	private RevokedAdminTokenRepository revokedRepo;
+
+	private AdminTokenService node(String secret, long ttlMinutes) {
+		return new AdminTokenService("signed", secret, ttlMinutes, revokedRepo);
+	}
+
+	private static Admin admin() {
+		Admin admin = new Admin();
+		admin.setId(7L);
+		admin.setUsername("alice");
+		admin.setRole("ADMIN");
+		return admin;
+	}
+
+	@Test
+	void tokenIssuedOnOneNodeVerifiesOnAnother() {
+		String token = node(SECRET, 60).issue(admin());
+
+		Admin verified = node(SECRET, 60).verify(token);
+
+		assertThat(verified).isNotNull();
+		assertThat(verified.getId()).isEqualTo(7L);
+		assertThat(verified.getUsername()).isEqualTo("alice");
+		assertThat(verified.getRole()).isEqualTo("ADMIN");
+	}
+
+	@Test
+	void logoutOnOneNodeRevokesOnEveryNode() {
+		AdminTokenService nodeA = node(SECRET, 60);
+		AdminTokenService nodeB = node(SECRET, 60);
+		String token = nodeA.issue(admin());
+		assertThat(nodeB.verify(token)).isNotNull();
+
+		nodeA.revoke(token);
+
+		assertThat(nodeA.verify(token)).isNull();
+		// Other nodes never query per request: the revocation arrives with the next sync
+		assertThat(nodeB.verify(token)).isNotNull();
+		nodeB.syncRevocations();
+		assertThat(nodeB.verify(token)).isNull();
+		assertThat(nodeB.verify(nodeA.issue(admin()))).isNotNull();
+	}
+
+	@Test
+	void rejectsTamperedForeignAndExpiredTokens() {
+		AdminTokenService service = node(SECRET, 60);
+		String token = service.issue(admin());
+		int dot = token.lastIndexOf('.');
+		char flipped = token.charAt(dot - 1) == 'A' ? 'B' : 'A';
+
+		assertThat(service.verify(token.substring(0, dot - 1) + flipped + token.substring(dot))).isNull();
+		assertThat(node("another-secret-another-secret-another-01", 60).verify(token)).isNull();
+		assertThat(service.verify(node(SECRET, 0).issue(admin()))).isNull();
+		assertThat(service.verify("session_abc")).isNull();
+	}
+
+	@Test
+	void signedModeWithoutSecretFailsFast() {
+		assertThatThrownBy(() -> node("", 60))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("admin.token.secret");
+		assertThatThrownBy(() -> node("too-short", 60))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThat(new AdminTokenService("session", "", 60, revokedRepo).isSignedMode()).isFalse();
+	}
+
+	@Test
+	void purgeDropsOnlyExpiredRevocations() {
+		AdminTokenService service = node(SECRET, 60);
+		revokedRepo.save(new RevokedAdminToken("expired-token", 1));
+		service.revoke(service.issue(admin()));
+
+		service.purgeRevoked();
+
+		assertThat(revokedRepo.existsById("expired-token")).isFalse();
+		assertThat(revokedRepo.findAll()).allMatch(t -> t.getExpiresAt() > System.currentTimeMillis() / 1000).isNotEmpty();
+	}
+}
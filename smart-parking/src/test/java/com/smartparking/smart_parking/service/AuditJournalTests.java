@@ -0,0 +1,210 @@
+package com.smartparking.smart_parking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditJournalTests {
+
+	@TempDir
+	Path dir;
+
+	// Stands in for audit_journal_checkpoints
+	private final List<AuditJournal.Checkpoint> checkpoints = new ArrayList<>();
+
+	private AuditJournal open(int segmentSizeKb) {
+		AuditJournal journal = new AuditJournal(true, false, false, dir.toString(), segmentSizeKb,
+			new AuditJournal.CheckpointStore() {
+				@Override
+				public AuditJournal.Checkpoint latest() {
+					return checkpoints.isEmpty() ? null : checkpoints.get(checkpoints.size() - 1);
+				}
+
+				@Override
+				public void save(AuditJournal.Checkpoint checkpoint) {
+					checkpoints.add(checkpoint);
+				}
+			});
+		journal.open();
+		return journal;
+	}
+
+	private void deleteSegments() throws Exception {
+		try (Stream<Path> files = Files.list(dir)) {
+			for (Path file : files.toList()) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	@Test
+	void rotatesAndVerifiesChainAcrossSegments() throws Exception {
+		AuditJournal journal = open(4);
+		for (int i = 0; i < 200; i++) {
+			journal.append(LocalDateTime.now(), "admin", "FORCE_EXIT", "Force exited vehicle from slot " + i, null);
+		}
+
+		List<AuditJournal.SegmentVerification> result = journal.verifyAll();
+		assertThat(result).hasSizeGreaterThan(1);
+		assertThat(result).allMatch(AuditJournal.SegmentVerification::valid);
+		assertThat(result.stream().mapToLong(AuditJournal.SegmentVerification::entries).sum()).isEqualTo(200);
+
+		List<AuditJournal.Entry> replayed = new ArrayList<>();
+		journal.replay(replayed::add);
+		assertThat(replayed).extracting(AuditJournal.Entry::sequence).startsWith(1L, 2L, 3L).endsWith(200L);
+		assertThat(replayed.get(7).description()).isEqualTo("Force exited vehicle from slot 7");
+		journal.close();
+	}
+
+	@Test
+	void reopenContinuesSequenceAndChain() {
+		AuditJournal journal = open(64);
+		journal.append(LocalDateTime.now(), "admin", "LOGIN", "Admin logged in", null);
+		journal.close();
+
+		AuditJournal reopened = open(64);
+		long sequence = reopened.append(LocalDateTime.now(), "admin", "LOGOUT", "Admin logged out", "{}");
+
+		assertThat(sequence).isEqualTo(2);
+		assertThat(reopened.verifyAll()).allMatch(AuditJournal.SegmentVerification::valid);
+		reopened.close();
+	}
+
+	@Test
+	void detectsTamperedEntry() throws Exception {
+		AuditJournal journal = open(64);
+		journal.append(LocalDateTime.now(), "admin", "UPDATE_LICENSE_PLATE", "Updated license plate from ABC to XYZ", null);
+		journal.append(LocalDateTime.now(), "admin", "DELETE_SLOT", "Deleted slot 4 from floor 1", null);
+		journal.close();
+
+		Path segment;
+		try (Stream<Path> files = Files.list(dir)) {
+			segment = files.findFirst().orElseThrow();
+		}
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			// flip a byte inside the first entry's body
+			file.seek(64 + 8 + 30);
+			int b = file.read();
+			file.seek(64 + 8 + 30);
+			file.write(b ^ 0x01);
+		}
+
+		AuditJournal.SegmentVerification result = AuditJournal.verifySegment(segment);
+		assertThat(result.valid()).isFalse();
+		assertThat(result.firstBadOffset()).isEqualTo(64);
+	}
+
+	@Test
+	void checkpointDetectsCutOffTail() throws Exception {
+		AuditJournal journal = open(64);
+		for (int i = 0; i < 3; i++) {
+			journal.append(LocalDateTime.now(), "admin", "DELETE_SLOT", "Deleted slot " + i, null);
+		}
+		journal.checkpoint();
+		assertThat(journal.verifyAll()).allMatch(AuditJournal.SegmentVerification::valid);
+		journal.close();
+
+		// A consistent chain, but shorter than what was checkpointed
+		deleteSegments();
+		AuditJournal rewritten = open(64);
+		rewritten.append(LocalDateTime.now(), "admin", "DELETE_SLOT", "Deleted slot 0", null);
+
+		List<AuditJournal.SegmentVerification> result = rewritten.verifyAll();
+		assertThat(result.get(0).valid()).isTrue();
+		assertThat(result.get(result.size() - 1)).satisfies(anchor -> {
+			assertThat(anchor.segment()).isEqualTo("checkpoint");
+			assertThat(anchor.valid()).isFalse();
+		});
+		rewritten.close();
+	}
+
+	@Test
+	void checkpointDetectsRehashedRewrite() throws Exception {
+		AuditJournal journal = open(64);
+		journal.append(LocalDateTime.now(), "admin", "UPDATE_CHARGE", "Updated CAR charge to 50", null);
+		journal.append(LocalDateTime.now(), "admin", "DELETE_SLOT", "Deleted slot 4", null);
+		journal.close();
+		assertThat(checkpoints).extracting(AuditJournal.Checkpoint::sequence).containsExactly(2L);
+
+		// Same length, different content, freshly chained
+		deleteSegments();
+		AuditJournal rewritten = open(64);
+		rewritten.append(LocalDateTime.now(), "admin", "UPDATE_CHARGE", "Updated CAR charge to 5", null);
+		rewritten.append(LocalDateTime.now(), "admin", "DELETE_SLOT", "Deleted slot 4", null);
+
+		List<AuditJournal.SegmentVerification> result = rewritten.verifyAll();
+		assertThat(result.get(result.size() - 1).message()).isEqualTo("entry 2 does not match its checkpoint");
+		// The rewritten head never replaces the checkpoint it contradicts
+		rewritten.close();
+		assertThat(checkpoints).extracting(AuditJournal.Checkpoint::sequence).containsExactly(2L);
+	}
+
+	@Test
+	void reopenWithUnreadableNewestHeaderContinuesFromPreviousSegment() throws Exception {
+		AuditJournal journal = open(4);
+		for (int i = 0; i < 60; i++) {
+			journal.append(LocalDateTime.now(), "admin", "FORCE_EXIT", "Force exited vehicle from slot " + i, null);
+		}
+		journal.close();
+		// The crashed run never got to checkpoint its head
+		checkpoints.clear();
+
+		List<Path> segments;
+		try (Stream<Path> files = Files.list(dir)) {
+			segments = files.sorted().toList();
+		}
+		assertThat(segments).hasSizeGreaterThan(1);
+		Path newest = segments.get(segments.size() - 1);
+		try (RandomAccessFile file = new RandomAccessFile(newest.toFile(), "rw")) {
+			// wipe the header and every entry, as after a crash before the header was written
+			file.write(new byte[(int) file.length()]);
+		}
+
+		AuditJournal reopened = open(4);
+		long sequence = reopened.append(LocalDateTime.now(), "admin", "LOGIN", "Admin logged in", null);
+
+		long previousEntries = AuditJournal.verifySegment(segments.get(segments.size() - 2)).entries();
+		long firstOfPrevious = AuditJournal.verifySegment(segments.get(segments.size() - 2)).firstSequence();
+		assertThat(sequence).isEqualTo(firstOfPrevious + previousEntries);
+		assertThat(reopened.verifyAll()).allMatch(AuditJournal.SegmentVerification::valid);
+		assertThat(Files.exists(newest.resolveSibling(newest.getFileName() + ".damaged"))).isTrue();
+		reopened.close();
+	}
+
+	@Test
+	void appendAfterCommitSkipsRolledBackActions() {
+		AuditJournal journal = open(64);
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			journal.appendAfterCommit(LocalDateTime.now(), "admin", "CREATE_FLOOR", "Created floor 9", null);
+			List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+			synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			journal.appendAfterCommit(LocalDateTime.now(), "admin", "CREATE_FLOOR", "Created floor 10", null);
+			assertThat(journal.verifyAll().get(0).entries()).isZero();
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		List<AuditJournal.Entry> replayed = new ArrayList<>();
+		journal.replay(replayed::add);
+		assertThat(replayed).extracting(AuditJournal.Entry::description).containsExactly("Created floor 10");
+		journal.close();
+	}
+}
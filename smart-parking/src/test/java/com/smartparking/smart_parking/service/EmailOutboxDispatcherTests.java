@@ -0,0 +1,143 @@
+package com.smartparking.smart_parking.service;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.smartparking.smart_parking.model.EmailOutbox;
+import com.smartparking.smart_parking.repository.EmailOutboxRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Email outbox against a local GreenMail SMTP server.
+ * The scheduled dispatcher is pushed out (poll-ms) so the tests drive dispatch() directly.
+ */
+@SpringBootTest(properties = {
+	"spring.mail.host=localhost",
+	"spring.mail.port=3025",
+	"spring.mail.username=noreply@smartparking.test",
+	"spring.mail.password=secret",
+	"email.outbox.poll-ms=3600000",
+	"email.outbox.max-attempts=2",
+	"email.outbox.backoff-base-seconds=60"
+})
+class EmailOutboxDispatcherTests {
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+		.withConfiguration(GreenMailConfiguration.aConfig().withUser("noreply@smartparking.test", "secret"));
+
+	@Autowired
+	private EmailService emailService;
+
+	@Autowired
+	private EmailOutboxDispatcher dispatcher;
+
+	@Autowired
+	private EmailOutboxRepository outboxRepo;
+
+	@Autowired
+	private JavaMailSender mailSender;
+
+	@BeforeEach
+	void clearOutbox() {
+		outboxRepo.deleteAll();
+	}
+
+	@Test
+	void smtpCallsTimeOutWellWithinTheClaim() {
+		var properties = ((JavaMailSenderImpl) mailSender).getJavaMailProperties();
+
+		assertThat(properties).containsKeys("mail.smtp.connectiontimeout", "mail.smtp.timeout", "mail.smtp.writetimeout");
+		properties.forEach((key, value) -> {
+			if (String.valueOf(key).endsWith("timeout")) {
+				assertThat(Long.parseLong(String.valueOf(value))).isLessThanOrEqualTo(30_000);
+			}
+		});
+	}
+
+	@Test
+	void queuedMessagesAreDeliveredInOneBatch() throws Exception {
+		assertThat(emailService.sendOtpToEmail("a@smartparking.test", "123456")).isTrue();
+		assertThat(emailService.sendOtpToEmail("b@smartparking.test", "654321")).isTrue();
+		emailService.enqueue("c@smartparking.test", "Hello", "Body");
+
+		// Nothing is sent until the dispatcher runs
+		assertThat(greenMail.getReceivedMessages()).isEmpty();
+
+		assertThat(dispatcher.dispatch()).isEqualTo(3);
+
+		MimeMessage[] received = greenMail.getReceivedMessages();
+		assertThat(received).hasSize(3);
+		assertThat(received[0].getSubject()).isEqualTo("Smart Parking - Verify Your Email");
+		assertThat(outboxRepo.countByStatus(EmailOutbox.STATUS_SENT)).isEqualTo(3);
+		assertThat(outboxRepo.countByStatus(EmailOutbox.STATUS_PENDING)).isZero();
+		// Delivered codes are not kept
+		assertThat(outboxRepo.findAll()).allMatch(m -> m.getBody().isEmpty());
+	}
+
+	@Test
+	void messagesClaimedByAnotherInstanceAreNotSentTwice() {
+		EmailOutbox mine = emailService.enqueue("e@smartparking.test", "Hello", "Body");
+		EmailOutbox theirs = emailService.enqueue("f@smartparking.test", "Hello", "Body");
+		LocalDateTime now = LocalDateTime.now();
+		assertThat(outboxRepo.claim(List.of(theirs.getId()), List.of(EmailOutbox.STATUS_PENDING),
+			EmailOutbox.STATUS_SENDING, "other-instance", now, now.plusMinutes(2))).isEqualTo(1);
+
+		assertThat(dispatcher.dispatch()).isEqualTo(1);
+
+		assertThat(greenMail.getReceivedMessages()).hasSize(1);
+		assertThat(outboxRepo.findById(mine.getId()).orElseThrow().getStatus()).isEqualTo(EmailOutbox.STATUS_SENT);
+		assertThat(outboxRepo.findById(theirs.getId()).orElseThrow().getStatus()).isEqualTo(EmailOutbox.STATUS_SENDING);
+	}
+
+	@Test
+	void expiredMessagesAreDroppedInsteadOfSent() {
+		EmailOutbox stale = emailService.enqueue("g@smartparking.test", "Code", "Your code is 111111",
+			LocalDateTime.now().minusSeconds(1));
+
+		assertThat(dispatcher.dispatch()).isZero();
+
+		assertThat(greenMail.getReceivedMessages()).isEmpty();
+		EmailOutbox expired = outboxRepo.findById(stale.getId()).orElseThrow();
+		assertThat(expired.getStatus()).isEqualTo(EmailOutbox.STATUS_EXPIRED);
+		assertThat(expired.getBody()).isEmpty();
+	}
+
+	@Test
+	void failedDeliveryBacksOffThenGoesToDeadLetter() {
+		greenMail.stop();
+		EmailOutbox queued = emailService.enqueue("d@smartparking.test", "Hello", "Body");
+
+		assertThat(dispatcher.dispatch()).isZero();
+		EmailOutbox afterFirst = outboxRepo.findById(queued.getId()).orElseThrow();
+		assertThat(afterFirst.getStatus()).isEqualTo(EmailOutbox.STATUS_PENDING);
+		assertThat(afterFirst.getAttempts()).isEqualTo(1);
+		assertThat(afterFirst.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(30));
+		assertThat(afterFirst.getLastError()).isNotBlank();
+
+		// Not due yet: the next run leaves it alone
+		assertThat(dispatcher.dispatch()).isZero();
+		assertThat(outboxRepo.findById(queued.getId()).orElseThrow().getAttempts()).isEqualTo(1);
+
+		afterFirst.setNextAttemptAt(LocalDateTime.now());
+		outboxRepo.save(afterFirst);
+		dispatcher.dispatch();
+
+		EmailOutbox dead = outboxRepo.findById(queued.getId()).orElseThrow();
+		assertThat(dead.getStatus()).isEqualTo(EmailOutbox.STATUS_DEAD);
+		assertThat(dead.getAttempts()).isEqualTo(2);
+		assertThat(dead.getBody()).isEmpty();
+	}
+}
@@ -0,0 +1,108 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.GarageLayout;
+import com.smartparking.smart_parking.repository.FloorRepository;
+import com.smartparking.smart_parking.repository.ParkingSlotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class GarageLayoutLoaderTests {
+
+	private static final List<Integer> FLOORS = List.of(44, 45);
+
+	@Autowired
+	private GarageLayoutLoader loader;
+
+	@Autowired
+	private FloorRepository floorRepo;
+
+	@Autowired
+	private ParkingSlotRepository slotRepo;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ReferenceDataCache referenceDataCache;
+
+	@AfterEach
+	void removeFloors() {
+		for (Integer number : FLOORS) {
+			floorRepo.findByFloorNumber(number).ifPresent(floor -> {
+				jdbcTemplate.update("DELETE FROM parking_slots WHERE floor_id = ?", floor.getId());
+				floorRepo.delete(floor);
+			});
+		}
+		referenceDataCache.evictFloors();
+		referenceDataCache.evictSlotLayout();
+	}
+
+	@Test
+	void largeJsonLayoutIsSeededOnceAndLeftAloneOnRestart() {
+		GarageLayout layout = loader.parse("site.json", text("""
+			{"floors": [
+			  {"number": 44, "description": "Level 44", "slots": [
+			    {"type": "car", "from": 1, "to": 9000},
+			    {"type": "BIKE", "from": 9001, "count": 1000}]},
+			  {"number": 45, "slots": [{"type": "TRUCK", "from": 1, "count": 10000}]}
+			]}
+			"""));
+
+		GarageLayoutLoader.SeedResult result = loader.seed(layout);
+
+		assertThat(result).isEqualTo(new GarageLayoutLoader.SeedResult(2, 0, 20000));
+		var floor44 = floorRepo.findByFloorNumber(44).orElseThrow();
+		assertThat(floor44.getDescription()).isEqualTo("Level 44");
+		assertThat(slotRepo.findSlotNumbersInRange(floor44, 1, 20000)).hasSize(10000);
+		assertThat(slotRepo.findByFloorAndVehicleType(floor44, "CAR")).hasSize(9000);
+		assertThat(slotRepo.findSlotNumbersInRange(floorRepo.findByFloorNumber(45).orElseThrow(), 1, 20000))
+			.hasSize(10000);
+
+		assertThat(loader.seed(layout)).isEqualTo(new GarageLayoutLoader.SeedResult(0, 2, 0));
+	}
+
+	@Test
+	void defaultLayoutIsOnlySeededIntoAnEmptyGarage() {
+		GarageLayout layout = loader.parse("default.json", text("""
+			{"floors": [{"number": 44, "slots": [{"type": "CAR", "from": 1, "count": 20}]}]}
+			"""));
+
+		assertThat(loader.seedIfEmpty(layout)).isEqualTo(new GarageLayoutLoader.SeedResult(0, 1, 0));
+		assertThat(floorRepo.findByFloorNumber(44)).isEmpty();
+	}
+
+	@Test
+	void invalidYamlLayoutIsRejectedBeforeAnythingIsWritten() {
+		assertThatThrownBy(() -> loader.parse("site.yml", text("""
+			floors:
+			  - number: 44
+			    slots:
+			      - { type: CAR, from: 1, to: 10 }
+			      - { type: BIKE, from: 10, count: 5 }
+			""")))
+			.hasMessage("Floor 44: slot ranges 1-10 and 10-14 overlap");
+		assertThatThrownBy(() -> loader.parse("site.yaml", text("""
+			floors:
+			  - { number: 44, slots: [ { type: CAR, from: 1, to: 10 } ] }
+			  - { number: 44, slots: [] }
+			""")))
+			.hasMessage("Floor 44 appears twice in garage layout site.yaml");
+		assertThat(floorRepo.findByFloorNumber(44)).isEmpty();
+	}
+
+	private static InputStream text(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
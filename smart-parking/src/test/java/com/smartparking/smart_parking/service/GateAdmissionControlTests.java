@@ -0,0 +1,100 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.exception.GateOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GateAdmissionControlTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void overLimitRequestsQueueBrieflyThenAreRejected() throws Exception {
+		GateAdmissionControl admission = new GateAdmissionControl(true, 2, 1, 10, 1, 2000, 2.0, registry, floor -> floor <= 5);
+		GateAdmissionControl.Permit first = admission.acquire(1);
+		GateAdmissionControl.Permit second = admission.acquire(1);
+
+		// Another floor has its own limit
+		admission.acquire(2).close();
+
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			Future<Boolean> queued = pool.submit(() -> {
+				try (GateAdmissionControl.Permit permit = admission.acquire(1)) {
+					return true;
+				}
+			});
+			while (admission.limiterFor(1).waiting() == 0) {
+				Thread.sleep(5);
+			}
+
+			// Queue of one is taken by the waiter above
+			assertThatThrownBy(() -> admission.acquire(1))
+				.isInstanceOf(GateOverloadedException.class)
+				.hasMessageContaining("Floor 1 is busy");
+
+			first.close();
+			assertThat(queued.get(1, TimeUnit.SECONDS)).isTrue();
+		} finally {
+			second.close();
+			pool.shutdownNow();
+		}
+		assertThat(registry.get("parking.admission.rejected").tag("reason", "queue-full").counter().count())
+			.isEqualTo(1.0);
+	}
+
+	@Test
+	void limitShrinksWhenLatencyRisesAndRecoversWhenItFalls() {
+		GateAdmissionControl admission = new GateAdmissionControl(true, 20, 2, 40, 0, 0, 2.0, registry, floor -> floor <= 5);
+		GateAdmissionControl.Limiter limiter = admission.limiterFor(3);
+		long fast = TimeUnit.MILLISECONDS.toNanos(5);
+		long slow = TimeUnit.MILLISECONDS.toNanos(200);
+
+		complete(limiter, fast, 10);
+		assertThat(limiter.currentLimit()).isEqualTo(20);
+
+		complete(limiter, slow, 10);
+		int degraded = limiter.currentLimit();
+		assertThat(degraded).isLessThan(10);
+
+		for (int i = 0; i < 400; i++) {
+			// Keep the floor busy so fast completions count as headroom
+			for (int j = 0; j < limiter.currentLimit(); j++) {
+				limiter.acquire();
+			}
+			complete(limiter, fast, limiter.currentLimit());
+		}
+		assertThat(limiter.currentLimit()).isGreaterThan(degraded);
+		assertThat(registry.get("parking.admission.limit").tag("floor", "3").gauge().value())
+			.isEqualTo(limiter.currentLimit());
+	}
+
+	@Test
+	void unknownFloorsShareTheAnyFloorLimiterAndAddNoMeters() {
+		GateAdmissionControl admission = new GateAdmissionControl(true, 2, 1, 10, 0, 0, 2.0, registry, floor -> floor <= 5);
+		for (int floor = 100; floor < 1100; floor++) {
+			admission.acquire(floor).close();
+		}
+
+		assertThat(admission.limiterFor(999)).isSameAs(admission.limiterFor(null));
+		assertThat(admission.limiterFor(3)).isNotSameAs(admission.limiterFor(null));
+		assertThat(registry.find("parking.admission.limit").gauges()).hasSize(2);
+	}
+
+	private static void complete(GateAdmissionControl.Limiter limiter, long latencyNanos, int count) {
+		for (int i = 0; i < count; i++) {
+			if (limiter.inFlight() == 0) {
+				limiter.acquire();
+			}
+			limiter.release(latencyNanos);
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.Floor;
+import com.smartparking.smart_parking.model.ParkingSlot;
+import com.smartparking.smart_parking.repository.FloorRepository;
+import com.smartparking.smart_parking.repository.ParkingSlotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Counts JDBC round trips for slot inserts to show that bulk slot creation is batched.
+ */
+@SpringBootTest
+class JdbcBatchingTests {
+
+	private static final int FLOOR = 38;
+
+	@Autowired
+	private AdminService adminService;
+
+	@Autowired
+	private FloorRepository floorRepo;
+
+	@Autowired
+	private ParkingSlotRepository slotRepo;
+
+	@Autowired
+	private StatementCounter counter;
+
+	@Autowired
+	private ReferenceDataCache referenceDataCache;
+
+	@AfterEach
+	void removeFloor() {
+		floorRepo.findByFloorNumber(FLOOR).ifPresent(floor -> {
+			slotRepo.deleteAll(slotRepo.findByFloor(floor));
+			floorRepo.delete(floor);
+		});
+		referenceDataCache.evictFloors();
+		referenceDataCache.evictSlotLayout();
+	}
+
+	@Test
+	void addingSlotsSendsInsertsInBatches() {
+		floorRepo.save(new Floor(FLOOR, "batch test"));
+		counter.reset();
+
+		List<ParkingSlot> created = adminService.addSlotsToFloor(FLOOR, "CAR", 1, 120);
+
+		assertThat(created).hasSize(120);
+		assertThat(created).allSatisfy(slot -> assertThat(slot.getId()).isNotNull());
+		// 120 rows with hibernate.jdbc.batch_size=50: three batches, no single-row inserts
+		assertThat(counter.slotInsertBatches.get()).isEqualTo(3);
+		assertThat(counter.slotInsertRows.get()).isEqualTo(120);
+		assertThat(counter.slotInsertSingle.get()).isZero();
+	}
+
+	@Test
+	void largeFloorReportsProgressPerBatchAndRejectsOverlapsUpFront() {
+		floorRepo.save(new Floor(FLOOR, "batch test"));
+		List<Integer> progress = new ArrayList<>();
+
+		adminService.addSlotsToFloor(FLOOR, "CAR", 1, 5000, progress::add);
+
+		assertThat(progress).hasSize(100).startsWith(50, 100).endsWith(5000);
+		assertThat(slotRepo.findSlotNumbersInRange(floorRepo.findByFloorNumber(FLOOR).orElseThrow(), 1, 5000))
+			.hasSize(5000);
+
+		counter.reset();
+		assertThatThrownBy(() -> adminService.addSlotsToFloor(FLOOR, "CAR", 4990, 20))
+			.hasMessage("Slots 4990, 4991, 4992, 4993, 4994, 4995, 4996, 4997, 4998, 4999 (+1 more) already exist on floor " + FLOOR);
+		assertThat(counter.slotInsertRows.get()).isZero();
+	}
+
+	@TestConfiguration
+	static class CountingDataSourceConfig {
+
+		@Bean
+		StatementCounter statementCounter() {
+			return new StatementCounter();
+		}
+
+		@Bean
+		static BeanPostProcessor countingDataSource(ObjectProvider<StatementCounter> counter) {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+						return counter.getObject().wrap(dataSource);
+					}
+					return bean;
+				}
+			};
+		}
+	}
+
+	static class StatementCounter {
+		final AtomicInteger slotInsertBatches = new AtomicInteger();
+		final AtomicInteger slotInsertRows = new AtomicInteger();
+		final AtomicInteger slotInsertSingle = new AtomicInteger();
+
+		void reset() {
+			slotInsertBatches.set(0);
+			slotInsertRows.set(0);
+			slotInsertSingle.set(0);
+		}
+
+		DataSource wrap(DataSource target) {
+			return new DelegatingDataSource(target) {
+				@Override
+				public Connection getConnection() throws SQLException {
+					return connection(super.getConnection());
+				}
+
+				@Override
+				public Connection getConnection(String username, String password) throws SQLException {
+					return connection(super.getConnection(username, password));
+				}
+			};
+		}
+
+		private Connection connection(Connection target) {
+			return proxy(Connection.class, target, (method, args, result) -> {
+				if (method.equals("prepareStatement") && args != null && args[0] instanceof String sql
+						&& sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").startsWith("insert into parking_slots")) {
+					return statement((PreparedStatement) result);
+				}
+				return result;
+			});
+		}
+
+		private PreparedStatement statement(PreparedStatement target) {
+			return proxy(PreparedStatement.class, target, (method, args, result) -> {
+				switch (method) {
+					case "addBatch" -> slotInsertRows.incrementAndGet();
+					case "executeBatch" -> slotInsertBatches.incrementAndGet();
+					case "executeUpdate", "execute" -> {
+						slotInsertRows.incrementAndGet();
+						slotInsertSingle.incrementAndGet();
+					}
+					default -> { }
+				}
+				return result;
+			});
+		}
+
+		private interface Tap {
+			Object apply(String method, Object[] args, Object result);
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T> T proxy(Class<T> type, T target, Tap tap) {
+			return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (p, method, args) -> {
+				try {
+					return tap.apply(method.getName(), args, method.invoke(target, args));
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			});
+		}
+	}
+}
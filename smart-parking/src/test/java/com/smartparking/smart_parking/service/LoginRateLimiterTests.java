@@ -0,0 +1,76 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.exception.LoginThrottledException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTests {
+
+	private final AtomicLong now = new AtomicLong();
+
+	// 3 attempts per username, 5 per IP, each refilling one per second
+	private LoginRateLimiter limiter(int maxKeys) {
+		return new LoginRateLimiter(3, 60, 5, 60, maxKeys, now::get);
+	}
+
+	@Test
+	void usernameBucketThrottlesAndRefills() {
+		LoginRateLimiter limiter = limiter(100);
+		for (int i = 0; i < 3; i++) {
+			limiter.acquire("Alice", "10.0.0." + i);
+		}
+
+		assertThatThrownBy(() -> limiter.acquire(" alice ", "10.0.0.9"))
+			.isInstanceOf(LoginThrottledException.class);
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertThatCode(() -> limiter.acquire("alice", "10.0.0.9")).doesNotThrowAnyException();
+	}
+
+	@Test
+	void throttledUsernameDoesNotSpendTheIpToken() {
+		LoginRateLimiter limiter = limiter(100);
+		for (int i = 0; i < 3; i++) {
+			limiter.acquire("alice", "10.0.0.1");
+		}
+		for (int i = 0; i < 10; i++) {
+			assertThatThrownBy(() -> limiter.acquire("alice", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+		}
+
+		// The IP still has its remaining two tokens for other usernames
+		limiter.acquire("bob", "10.0.0.1");
+		limiter.acquire("carol", "10.0.0.1");
+		assertThatThrownBy(() -> limiter.acquire("dave", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+	}
+
+	@Test
+	void usernameSprayNeitherGrowsTheMapNorLocksOutOtherUsers() {
+		LoginRateLimiter limiter = limiter(50);
+		for (int i = 0; i < 1000; i++) {
+			limiter.acquire("spray-" + i, null);
+		}
+
+		assertThat(limiter.size()).isLessThanOrEqualTo(50);
+		assertThatCode(() -> limiter.acquire("alice", "10.0.0.1")).doesNotThrowAnyException();
+	}
+
+	@Test
+	void sweepDropsRefilledBuckets() {
+		LoginRateLimiter limiter = limiter(100);
+		limiter.acquire("alice", "10.0.0.1");
+		assertThat(limiter.size()).isEqualTo(2);
+
+		limiter.sweep();
+		assertThat(limiter.size()).isEqualTo(2);
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+		limiter.sweep();
+		assertThat(limiter.size()).isZero();
+	}
+}
@@ -0,0 +1,79 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.exception.SlotBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticRetryTests {
+
+	private final AtomicInteger commits = new AtomicInteger();
+	private final AtomicInteger rollbacks = new AtomicInteger();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final PlatformTransactionManager txManager = new PlatformTransactionManager() {
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+			commits.incrementAndGet();
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+			rollbacks.incrementAndGet();
+		}
+	};
+
+	private final OptimisticRetry retry = new OptimisticRetry(txManager, registry, 3, 0);
+
+	@Test
+	void conflictIsRetriedInAFreshTransaction() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = retry.execute("park", () -> {
+			if (attempts.incrementAndGet() < 3) {
+				throw new ObjectOptimisticLockingFailureException("ParkingSlot", 1L);
+			}
+			return "parked";
+		});
+
+		assertThat(result).isEqualTo("parked");
+		assertThat(attempts.get()).isEqualTo(3);
+		assertThat(rollbacks.get()).isEqualTo(2);
+		assertThat(commits.get()).isEqualTo(1);
+		assertThat(registry.get("parking.optimistic.retries").tag("operation", "park").counter().count())
+			.isEqualTo(2.0);
+	}
+
+	@Test
+	void retriesAreBoundedAndOtherErrorsAreNotRetried() {
+		AtomicInteger attempts = new AtomicInteger();
+		assertThatThrownBy(() -> retry.execute("exit", () -> {
+			attempts.incrementAndGet();
+			throw new ObjectOptimisticLockingFailureException("ParkingRecord", 1L);
+		})).isInstanceOf(SlotBusyException.class);
+		assertThat(attempts.get()).isEqualTo(3);
+		assertThat(registry.get("parking.optimistic.failures").tag("operation", "exit").counter().count())
+			.isEqualTo(1.0);
+
+		AtomicInteger plainAttempts = new AtomicInteger();
+		assertThatThrownBy(() -> retry.execute("exit", () -> {
+			plainAttempts.incrementAndGet();
+			throw new RuntimeException("No vehicle found in this slot");
+		})).hasMessage("No vehicle found in this slot");
+		assertThat(plainAttempts.get()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,111 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.ParkingRecord;
+import com.smartparking.smart_parking.model.SlotDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ParkingMetricsTests {
+
+	@Autowired
+	private ParkingServiceDB parkingService;
+
+	@Autowired
+	private ParkingMetrics parkingMetrics;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private PrometheusMeterRegistry prometheus;
+
+	@AfterEach
+	void freeAllSlots() {
+		for (SlotDTO slot : parkingService.getAllSlots()) {
+			if (slot.isOccupied()) {
+				parkingService.exitVehicleBySlot(slot.getSlotNumber(), slot.getFloorNumber());
+			}
+		}
+	}
+
+	@Test
+	void gatePathsAreTimedAndOccupancyIsPerFloor() {
+		long parks = parkCount("TRUCK", "success");
+		ParkingRecord first = parkingService.parkVehicle("METRIC-1", "truck");
+		parkingService.parkVehicle("METRIC-2", "TRUCK");
+		double failures = failures("TRUCK");
+		assertThatThrownBy(() -> parkingService.parkVehicle("METRIC-3", "TRUCK"))
+			.hasMessageStartingWith("No slot available");
+
+		assertThat(parkCount("TRUCK", "success")).isEqualTo(parks + 2);
+		assertThat(parkCount("TRUCK", "RuntimeException")).isPositive();
+		assertThat(failures("TRUCK")).isEqualTo(failures + 1);
+
+		parkingMetrics.refreshOccupancy();
+		assertThat(meterRegistry.get("parking.occupancy.occupied").tag("floor", "1").gauge().value()).isEqualTo(2);
+		assertThat(meterRegistry.get("parking.occupancy.capacity").tag("floor", "1").gauge().value()).isEqualTo(20);
+
+		parkingService.exitVehicleBySlot(first.getSlotNumber(), first.getFloorNumber());
+		parkingService.getAllSlotsByFloor(1);
+		assertThat(meterRegistry.get("parking.exit").tags("by", "slot", "outcome", "success").timer().count()).isPositive();
+		assertThat(meterRegistry.get("parking.slots.view").tag("floor", "1").timer().count()).isPositive();
+
+		String scrape = prometheus.scrape();
+		assertThat(scrape)
+			.contains("parking_park_seconds_bucket{")
+			.contains("parking_allocation_failures_total{vehicleType=\"TRUCK\"}")
+			.contains("spring_data_repository_invocations_seconds_count{");
+	}
+
+	@Test
+	void occupiedPreferredSlotIsOnePreferredSample() {
+		ParkingRecord first = parkingService.parkVehicle("METRIC-4", "TRUCK");
+		long any = parkCount("TRUCK", "success");
+		long preferred = preferredCount();
+
+		ParkingRecord second = parkingService.parkVehicleInSlot("METRIC-5", "TRUCK", first.getSlotNumber(), first.getFloorNumber());
+
+		assertThat(second.getSlotNumber()).isNotEqualTo(first.getSlotNumber());
+		assertThat(parkCount("TRUCK", "success")).isEqualTo(any);
+		assertThat(preferredCount()).isEqualTo(preferred + 1);
+	}
+
+	@Test
+	void arbitraryVehicleTypesAndFloorsDoNotCreateNewTags() {
+		parkingMetrics.refreshOccupancy();
+		assertThat(parkingMetrics.vehicleTypeTag(" bike ")).isEqualTo("BIKE");
+		assertThat(parkingMetrics.vehicleTypeTag("SPACESHIP")).isEqualTo("OTHER");
+		assertThat(parkingMetrics.vehicleTypeTag("car'; drop table")).isEqualTo("OTHER");
+		assertThat(parkingMetrics.vehicleTypeTag(null)).isEqualTo("OTHER");
+		assertThat(parkingMetrics.floorTag(1)).isEqualTo("1");
+		assertThat(parkingMetrics.floorTag(987654)).isEqualTo("OTHER");
+		assertThat(parkingMetrics.floorTag(null)).isEqualTo("all");
+
+		parkingService.getAllSlotsByFloor(987654);
+		assertThat(meterRegistry.find("parking.slots.view").tag("floor", "987654").timer()).isNull();
+		assertThat(meterRegistry.get("parking.slots.view").tag("floor", "OTHER").timer().count()).isPositive();
+	}
+
+	private long parkCount(String vehicleType, String outcome) {
+		var timer = meterRegistry.find("parking.park").tags("vehicleType", vehicleType, "mode", "any", "outcome", outcome).timer();
+		return timer != null ? timer.count() : 0;
+	}
+
+	private long preferredCount() {
+		var timer = meterRegistry.find("parking.park").tags("vehicleType", "TRUCK", "mode", "preferred", "outcome", "success").timer();
+		return timer != null ? timer.count() : 0;
+	}
+
+	private double failures(String vehicleType) {
+		var counter = meterRegistry.find("parking.allocation.failures").tag("vehicleType", vehicleType).counter();
+		return counter != null ? counter.count() : 0;
+	}
+}
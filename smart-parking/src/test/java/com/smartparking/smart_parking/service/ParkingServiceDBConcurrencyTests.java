@@ -0,0 +1,90 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.ParkingRecord;
+import com.smartparking.smart_parking.model.SlotDTO;
+import com.smartparking.smart_parking.repository.ParkingRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Concurrent park/exit against the default 20-slot layout (10 CAR slots).
+ */
+@SpringBootTest
+class ParkingServiceDBConcurrencyTests {
+
+	@Autowired
+	private ParkingServiceDB parkingService;
+
+	@Autowired
+	private ParkingRecordRepository recordRepo;
+
+	@AfterEach
+	void freeAllSlots() {
+		for (SlotDTO slot : parkingService.getAllSlots()) {
+			if (slot.isOccupied()) {
+				parkingService.exitVehicleBySlot(slot.getSlotNumber(), slot.getFloorNumber());
+			}
+		}
+	}
+
+	@Test
+	void concurrentParksNeverShareASlot() throws Exception {
+		int requests = 16;
+		List<Callable<ParkingRecord>> parks = new ArrayList<>();
+		for (int i = 0; i < requests; i++) {
+			String plate = "CONC-" + i;
+			parks.add(() -> parkingService.parkVehicle(plate, "CAR"));
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(requests);
+		List<ParkingRecord> parked = new ArrayList<>();
+		int rejected = 0;
+		try {
+			for (Future<ParkingRecord> future : pool.invokeAll(parks)) {
+				try {
+					parked.add(future.get());
+				} catch (ExecutionException e) {
+					assertThat(e.getCause()).hasMessageContaining("No slot available");
+					rejected++;
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		assertThat(parked).hasSize(10);
+		assertThat(rejected).isEqualTo(requests - 10);
+		assertThat(parked.stream().map(r -> r.getFloorNumber() + "_" + r.getSlotNumber()).distinct().count())
+			.isEqualTo(10);
+		assertThat(parkingService.getAllSlots().stream().filter(SlotDTO::isOccupied).count()).isEqualTo(10);
+	}
+
+	@Test
+	void staleRecordUpdateIsRejectedNotOverwritten() {
+		ParkingRecord parked = parkingService.parkVehicle("STALE-1", "CAR");
+		ParkingRecord first = recordRepo.findById(parked.getId()).orElseThrow();
+		ParkingRecord second = recordRepo.findById(parked.getId()).orElseThrow();
+
+		first.setLicensePlate("STALE-2");
+		recordRepo.save(first);
+
+		second.setLicensePlate("STALE-3");
+		assertThatThrownBy(() -> recordRepo.save(second))
+			.isInstanceOf(OptimisticLockingFailureException.class);
+		assertThat(recordRepo.findById(parked.getId()).orElseThrow().getLicensePlate()).isEqualTo("STALE-2");
+	}
+}
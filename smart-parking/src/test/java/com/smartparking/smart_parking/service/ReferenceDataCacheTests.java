@@ -0,0 +1,97 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.Floor;
+import com.smartparking.smart_parking.model.SlotDTO;
+import com.smartparking.smart_parking.model.SlotLayout;
+import com.smartparking.smart_parking.repository.FloorRepository;
+import com.smartparking.smart_parking.repository.ParkingSlotRepository;
+import com.smartparking.smart_parking.repository.SlotLayoutRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ReferenceDataCacheTests {
+
+	private static final int FLOOR = 43;
+
+	@Autowired
+	private AdminService adminService;
+
+	@Autowired
+	private ParkingServiceDB parkingService;
+
+	@Autowired
+	private SlotLayoutRepository slotLayoutRepo;
+
+	@Autowired
+	private FloorRepository floorRepo;
+
+	@Autowired
+	private ParkingSlotRepository slotRepo;
+
+	@Autowired
+	private ReferenceDataCache referenceDataCache;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@AfterEach
+	void cleanUp() {
+		for (SlotDTO slot : parkingService.getAllSlots()) {
+			if (slot.isOccupied()) {
+				parkingService.exitVehicleBySlot(slot.getSlotNumber(), slot.getFloorNumber());
+			}
+		}
+		floorRepo.findByFloorNumber(FLOOR).ifPresent(floor -> {
+			slotRepo.deleteAll(slotRepo.findByFloor(floor));
+			floorRepo.delete(floor);
+		});
+		referenceDataCache.evictFloors();
+		referenceDataCache.evictSlotLayout();
+	}
+
+	@Test
+	void floorListIsServedFromCacheUntilAFloorIsCreated() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		adminService.getAllFloors();
+
+		long before = statistics.getPrepareStatementCount();
+		adminService.getAllFloors();
+		assertThat(statistics.getPrepareStatementCount() - before).isZero();
+
+		adminService.createFloor(FLOOR, "cache test");
+		assertThat(adminService.getAllFloors()).extracting(Floor::getFloorNumber).contains(FLOOR).isSorted();
+		assertThat(meterRegistry.get("parking.cache.gets").tags("region", "floor-queries", "result", "hit")
+			.functionCounter().count()).isPositive();
+	}
+
+	@Test
+	void parkingDoesNotInvalidateTheLayoutButNewSlotsDo() {
+		List<SlotLayout> layout = slotLayoutRepo.findAllByOrderByFloorNumberAscSlotNumberAsc();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		parkingService.parkVehicle("CACHE-1", "CAR");
+		long hits = statistics.getQueryCacheHitCount();
+		assertThat(slotLayoutRepo.findAllByOrderByFloorNumberAscSlotNumberAsc()).hasSameSizeAs(layout);
+		assertThat(statistics.getQueryCacheHitCount()).isGreaterThan(hits);
+
+		adminService.createFloor(FLOOR, "cache test");
+		adminService.addSlotsToFloor(FLOOR, "CAR", 1, 3);
+		assertThat(slotLayoutRepo.findAllByOrderByFloorNumberAscSlotNumberAsc())
+			.hasSize(layout.size() + 3)
+			.last().satisfies(slot -> assertThat(slot.getFloorNumber()).isEqualTo(FLOOR));
+	}
+}
@@ -0,0 +1,101 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.exception.SlotBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlotLockManagerTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final SlotLockManager locks = new SlotLockManager(1024, 200, registry);
+
+	@Test
+	void unrelatedSlotsDoNotBlockEachOther() throws Exception {
+		try (SlotLockManager.Lease held = locks.acquire("test", SlotLockManager.key(1, 1))) {
+			ExecutorService other = Executors.newSingleThreadExecutor();
+			try {
+				Future<Boolean> acquired = other.submit(() -> {
+					try (SlotLockManager.Lease lease = locks.acquire("test", SlotLockManager.key(1, 2))) {
+						return true;
+					}
+				});
+				assertThat(acquired.get(100, TimeUnit.MILLISECONDS)).isTrue();
+			} finally {
+				other.shutdownNow();
+			}
+		}
+	}
+
+	@Test
+	void conflictingMultiSlotOperationsSerialiseWithoutDeadlock() throws Exception {
+		SlotLockManager.SlotKey a = SlotLockManager.key(1, 5);
+		SlotLockManager.SlotKey b = SlotLockManager.key(1, 6);
+		AtomicInteger inside = new AtomicInteger();
+		AtomicInteger maxInside = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			for (int t = 0; t < 8; t++) {
+				boolean reversed = t % 2 == 0;
+				pool.submit(() -> {
+					start.await();
+					for (int i = 0; i < 500; i++) {
+						// Half the threads name the slots in the opposite order
+						try (SlotLockManager.Lease lease = reversed
+								? locks.acquire("test", b, a) : locks.acquire("test", a, b)) {
+							maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+							inside.decrementAndGet();
+						}
+					}
+					return null;
+				});
+			}
+			start.countDown();
+			pool.shutdown();
+			assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		} finally {
+			pool.shutdownNow();
+		}
+		assertThat(maxInside.get()).isEqualTo(1);
+		assertThat(registry.find("parking.slot.lock.timeouts").counter()).isNull();
+		assertThat(registry.get("parking.slot.lock.wait").timer().count()).isEqualTo(8 * 500);
+	}
+
+	@Test
+	void waitTimesOutWithSlotBusyAndIsCounted() throws Exception {
+		SlotLockManager.SlotKey key = SlotLockManager.key(2, 1);
+		CountDownLatch held = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+		Thread holder = new Thread(() -> {
+			try (SlotLockManager.Lease lease = locks.acquire("holder", key)) {
+				held.countDown();
+				done.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		holder.start();
+		held.await();
+		try {
+			assertThatThrownBy(() -> locks.acquire("waiter", key))
+				.isInstanceOf(SlotBusyException.class)
+				.hasMessageContaining("busy");
+			assertThat(locks.tryAcquire("waiter", key)).isNull();
+		} finally {
+			done.countDown();
+			holder.join();
+		}
+		assertThat(registry.get("parking.slot.lock.timeouts").tag("operation", "waiter").counter().count())
+			.isEqualTo(1.0);
+	}
+}
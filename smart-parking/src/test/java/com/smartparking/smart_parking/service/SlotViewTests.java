@@ -0,0 +1,88 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.ParkingRecord;
+import com.smartparking.smart_parking.model.SlotDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SlotViewTests {
+
+	@Autowired
+	private ParkingServiceDB parkingService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@AfterEach
+	void freeAllSlots() {
+		for (SlotDTO slot : parkingService.getAllSlots()) {
+			if (slot.isOccupied()) {
+				parkingService.exitVehicleBySlot(slot.getSlotNumber(), slot.getFloorNumber());
+			}
+		}
+	}
+
+	@Test
+	void slotViewIsOneStatementAndReflectsActiveRecords() {
+		ParkingRecord parked = parkingService.parkVehicle("VIEW-1", "TRUCK");
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long before = statistics.getPrepareStatementCount();
+		List<SlotDTO> slots = parkingService.getAllSlotsByFloor(1);
+		assertThat(statistics.getPrepareStatementCount() - before).isEqualTo(1);
+
+		assertThat(slots).extracting(SlotDTO::getSlotNumber).isSorted();
+		assertThat(slots).filteredOn(SlotDTO::isOccupied).singleElement().satisfies(slot -> {
+			assertThat(slot.getSlotNumber()).isEqualTo(parked.getSlotNumber());
+			assertThat(slot.getLicensePlate()).isEqualTo("VIEW-1");
+			assertThat(slot.getVehicleType()).isEqualTo("TRUCK");
+			assertThat(slot.getAllowedMinutes()).isEqualTo(120);
+		});
+		assertThat(parkingService.getAllSlotsByFloor(99)).isEmpty();
+	}
+
+	@Test
+	void legacySlotWithoutFloorIsListedWithItsActiveRecord() {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		// Rows from before floors were mandatory
+		jdbc.execute("ALTER TABLE parking_slots ALTER COLUMN floor_id SET NULL");
+		try {
+			jdbc.update("INSERT INTO parking_slots (id, slot_number, floor_id, vehicle_type, is_occupied, version) "
+					+ "VALUES (990001, 501, NULL, 'CAR', TRUE, 0)");
+			jdbc.update("INSERT INTO parking_records (id, vehicle_type, license_plate, slot_number, floor_number, entry_time, "
+					+ "duration_minutes, billable_hours, charge, version) "
+					+ "VALUES (990001, 'CAR', 'LEGACY-1', 501, NULL, CURRENT_TIMESTAMP, 0, 0, 0, 0)");
+
+			List<SlotDTO> slots = parkingService.getAllSlots();
+
+			assertThat(slots.get(0)).satisfies(slot -> {
+				assertThat(slot.getSlotNumber()).isEqualTo(501);
+				assertThat(slot.getFloorNumber()).isNull();
+				assertThat(slot.isOccupied()).isTrue();
+				assertThat(slot.getLicensePlate()).isEqualTo("LEGACY-1");
+			});
+			assertThat(slots).filteredOn(SlotDTO::isOccupied).hasSize(1);
+			assertThat(parkingService.getAllSlotsByFloor(1)).extracting(SlotDTO::getSlotNumber).doesNotContain(501);
+		} finally {
+			jdbc.update("DELETE FROM parking_records WHERE id = 990001");
+			jdbc.update("DELETE FROM parking_slots WHERE id = 990001");
+			jdbc.execute("ALTER TABLE parking_slots ALTER COLUMN floor_id SET NOT NULL");
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.config.SupabaseHttpConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exercises SupabaseHttpClient against a local stub server (no Supabase needed).
+ */
+class SupabaseHttpClientTests {
+
+	private HttpServer server;
+	private CloseableHttpClient apacheClient;
+	private SimpleMeterRegistry registry;
+	private SupabaseHttpClient client;
+	private String baseUrl;
+	private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		// 503 twice, then 200
+		server.createContext("/flaky", exchange -> {
+			int n = hit("/flaky");
+			respond(exchange, n <= 2 ? 503 : 200, "{\"ok\":true}");
+		});
+		server.createContext("/down", exchange -> {
+			hit("/down");
+			respond(exchange, 503, "{}");
+		});
+		server.createContext("/unauthorized", exchange -> {
+			hit("/unauthorized");
+			respond(exchange, 401, "{}");
+		});
+		server.createContext("/slow", exchange -> {
+			hit("/slow");
+			try {
+				Thread.sleep(1500);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			respond(exchange, 200, "{}");
+		});
+		server.start();
+		baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+		apacheClient = SupabaseHttpConfig.buildHttpClient(10, 10, 500, 300, 500);
+		registry = new SimpleMeterRegistry();
+		client = new SupabaseHttpClient(new RestTemplate(new HttpComponentsClientHttpRequestFactory(apacheClient)),
+			registry, 3, 1, 5, 3, 60_000);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		apacheClient.close();
+		server.stop(0);
+	}
+
+	@Test
+	void retriesTransientFailuresOnGetAndRecordsMetrics() {
+		ResponseEntity<Map> response = client.exchange("test.flaky", baseUrl + "/flaky", HttpMethod.GET,
+			HttpEntity.EMPTY, Map.class);
+
+		assertThat(response.getStatusCode().value()).isEqualTo(200);
+		assertThat(hits.get("/flaky").get()).isEqualTo(3);
+		assertThat(registry.get("supabase.http.client.retries").counter().count()).isEqualTo(2.0);
+		assertThat(registry.get("supabase.http.client.requests").tag("outcome", "success").timer().count())
+			.isEqualTo(1);
+		assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	void doesNotRetryPostOrClientErrors() {
+		assertThatThrownBy(() -> client.exchange("test.post", baseUrl + "/flaky", HttpMethod.POST,
+			new HttpEntity<>(Map.of("floor_number", 1)), Map.class))
+			.isInstanceOf(HttpServerErrorException.class);
+		assertThat(hits.get("/flaky").get()).isEqualTo(1);
+
+		assertThatThrownBy(() -> client.exchange("test.auth", baseUrl + "/unauthorized", HttpMethod.GET,
+			HttpEntity.EMPTY, Map.class))
+			.hasMessageContaining("401");
+		assertThat(hits.get("/unauthorized").get()).isEqualTo(1);
+	}
+
+	@Test
+	void responseTimeoutBoundsSlowCalls() {
+		long start = System.nanoTime();
+		assertThatThrownBy(() -> client.exchange("test.slow", baseUrl + "/slow", HttpMethod.POST,
+			HttpEntity.EMPTY, Map.class))
+			.isInstanceOf(ResourceAccessException.class);
+		assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(1200);
+		assertThat(registry.get("supabase.http.client.requests").tag("outcome", "io_error").timer().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void circuitOpensAfterConsecutiveFailuresAndFailsFast() {
+		// threshold 3, 3 attempts per call: the first call opens the circuit
+		assertThatThrownBy(() -> client.exchange("test.down", baseUrl + "/down", HttpMethod.GET,
+			HttpEntity.EMPTY, Map.class))
+			.isInstanceOf(HttpServerErrorException.class);
+		assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+		int before = hits.get("/down").get();
+		assertThatThrownBy(() -> client.exchange("test.down", baseUrl + "/down", HttpMethod.GET,
+			HttpEntity.EMPTY, Map.class))
+			.isInstanceOf(ResourceAccessException.class)
+			.hasMessageContaining("circuit is open");
+		assertThat(hits.get("/down").get()).isEqualTo(before);
+		assertThat(registry.get("supabase.http.client.circuit.state").gauge().value()).isEqualTo(1.0);
+	}
+
+	private int hit(String path) {
+		return hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body)
+			throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}
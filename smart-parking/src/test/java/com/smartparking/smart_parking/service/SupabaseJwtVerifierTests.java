@@ -0,0 +1,76 @@
+package com.smartparking.smart_parking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SupabaseJwtVerifierTests {
+
+	private final SupabaseTestTokens tokens = new SupabaseTestTokens();
+	private SupabaseJwtVerifier verifier;
+
+	@BeforeEach
+	void setUp() {
+		verifier = new SupabaseJwtVerifier("", "", SupabaseTestTokens.ISSUER, "authenticated", 30,
+			new DefaultResourceLoader());
+		verifier.useKeySet(tokens.keySet());
+	}
+
+	@Test
+	void acceptsValidTokenAndExtractsClaims() {
+		SupabaseJwtVerifier.Claims claims = verifier.verify(tokens.mint("admin@smartparking.com",
+			Instant.now().plusSeconds(600)));
+
+		assertThat(claims).isNotNull();
+		assertThat(claims.email()).isEqualTo("admin@smartparking.com");
+		assertThat(claims.subject()).isEqualTo("user-1");
+	}
+
+	@Test
+	void rejectsExpiredForgedAndForeignTokens() {
+		assertThat(verifier.verify(tokens.mint("a@b.c", Instant.now().minusSeconds(120)))).isNull();
+
+		String valid = tokens.mint("a@b.c", Instant.now().plusSeconds(600));
+		assertThat(verifier.verify(valid.substring(0, valid.length() - 4) + "AAAA")).isNull();
+
+		SupabaseTestTokens otherProject = new SupabaseTestTokens();
+		assertThat(verifier.verify(otherProject.mint("a@b.c", Instant.now().plusSeconds(600)))).isNull();
+
+		assertThat(verifier.verify(tokens.mint("{\"sub\":\"x\",\"aud\":\"authenticated\",\"iss\":\"https://evil.example/auth/v1\",\"exp\":"
+			+ Instant.now().plusSeconds(600).getEpochSecond() + "}"))).isNull();
+		assertThat(verifier.verify("eyJhbGciOiJub25lIn0.eyJzdWIiOiJ4In0.")).isNull();
+	}
+
+	@Test
+	void verifiesLegacyHs256Secret() {
+		SupabaseJwtVerifier hs = new SupabaseJwtVerifier("", "super-secret-jwt-token-with-at-least-32-characters",
+			"", "", 30, new DefaultResourceLoader());
+		// {"alg":"HS256","typ":"JWT"} / {"sub":"1","email":"x@y.z","exp":4102444800} signed with the secret above
+		String token = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9."
+			+ "eyJzdWIiOiIxIiwiZW1haWwiOiJ4QHkueiIsImV4cCI6NDEwMjQ0NDgwMH0."
+			+ hmac("eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOiIxIiwiZW1haWwiOiJ4QHkueiIsImV4cCI6NDEwMjQ0NDgwMH0",
+				"super-secret-jwt-token-with-at-least-32-characters");
+
+		assertThat(hs.isConfigured()).isTrue();
+		assertThat(hs.verify(token).email()).isEqualTo("x@y.z");
+	}
+
+	private static String hmac(String input, String secret) {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+			return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(mac.doFinal(input.getBytes(StandardCharsets.US_ASCII)));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.smartparking.smart_parking.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Local stand-in for a Supabase project's signing keys: an ES256 key pair exposed as a JWKS
+ * document, plus a minter for access tokens signed with it.
+ */
+public final class SupabaseTestTokens {
+
+	public static final String ISSUER = "https://test-project.supabase.co/auth/v1";
+	public static final String KID = "test-key";
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private final KeyPair keyPair;
+
+	public SupabaseTestTokens() {
+		try {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+			generator.initialize(new ECGenParameterSpec("secp256r1"));
+			this.keyPair = generator.generateKeyPair();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public String jwks() {
+		ECPublicKey key = (ECPublicKey) keyPair.getPublic();
+		return "{\"keys\":[{\"kty\":\"EC\",\"crv\":\"P-256\",\"use\":\"sig\",\"alg\":\"ES256\",\"kid\":\"" + KID + "\","
+			+ "\"x\":\"" + coordinate(key.getW().getAffineX().toByteArray()) + "\","
+			+ "\"y\":\"" + coordinate(key.getW().getAffineY().toByteArray()) + "\"}]}";
+	}
+
+	public SupabaseKeySet keySet() {
+		return SupabaseKeySet.fromJwks(jwks(), null);
+	}
+
+	public String mint(String email, Instant expiresAt) {
+		return mint("{\"sub\":\"user-1\",\"email\":\"" + email + "\",\"role\":\"authenticated\",\"aud\":\"authenticated\","
+			+ "\"iss\":\"" + ISSUER + "\",\"exp\":" + expiresAt.getEpochSecond() + "}");
+	}
+
+	public String mint(String payloadJson) {
+		String header = ENCODER.encodeToString(("{\"alg\":\"ES256\",\"typ\":\"JWT\",\"kid\":\"" + KID + "\"}")
+			.getBytes(StandardCharsets.UTF_8));
+		String payload = ENCODER.encodeToString(payloadJson.getBytes(StandardCharsets.UTF_8));
+		try {
+			Signature signer = Signature.getInstance("SHA256withECDSAinP1363Format");
+			signer.initSign(keyPair.getPrivate());
+			signer.update((header + "." + payload).getBytes(StandardCharsets.US_ASCII));
+			return header + "." + payload + "." + ENCODER.encodeToString(signer.sign());
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String coordinate(byte[] bigEndian) {
+		// JWK coordinates are fixed 32-byte unsigned values
+		byte[] out = new byte[32];
+		int length = Math.min(bigEndian.length, 32);
+		System.arraycopy(bigEndian, bigEndian.length - length, out, 32 - length, length);
+		return ENCODER.encodeToString(out);
+	}
+}
@@ -0,0 +1,81 @@
+package com.smartparking.smart_parking.service;
+
+import com.smartparking.smart_parking.model.ParkingRecord;
+import com.smartparking.smart_parking.repository.VehicleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class VehicleRegistryTests {
+
+	@Autowired
+	private ParkingServiceDB parkingService;
+
+	@Autowired
+	private VehicleRegistry vehicleRegistry;
+
+	@Autowired
+	private VehicleRepository vehicleRepo;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void repeatVisitsReuseOneRowAndRegularsSkipTheLookup() {
+		String plate = "REG-" + System.nanoTime();
+		double hitsBefore = hits();
+
+		for (int visit = 0; visit < 3; visit++) {
+			ParkingRecord record = parkingService.parkVehicle(plate, "BIKE");
+			parkingService.exitVehicleBySlot(record.getSlotNumber(), record.getFloorNumber());
+		}
+
+		assertThat(vehicleRepo.findAll()).filteredOn(v -> v.getLicensePlate().equals(plate)).singleElement()
+			.satisfies(v -> {
+				assertThat(v.getVisitCount()).isEqualTo(3);
+				assertThat(v.getVehicleType()).isEqualTo("BIKE");
+			});
+		assertThat(vehicleRegistry.isKnown(plate)).isTrue();
+		assertThat(hits() - hitsBefore).isEqualTo(2.0);
+	}
+
+	@Test
+	void concurrentFirstEntriesOfOnePlateShareOneRow() throws Exception {
+		String plate = "RACE-" + System.nanoTime();
+		TransactionStatus first = transactionManager.getTransaction(new DefaultTransactionDefinition());
+		vehicleRegistry.recordEntry(plate, "CAR", LocalDateTime.now());
+
+		// The second entry starts while the first insert is still uncommitted
+		CompletableFuture<Long> second = CompletableFuture.supplyAsync(() -> new TransactionTemplate(transactionManager)
+			.execute(status -> vehicleRegistry.recordEntry(plate, "CAR", LocalDateTime.now()).getId()));
+		Thread.sleep(200);
+		transactionManager.commit(first);
+
+		Long secondId = second.get(10, TimeUnit.SECONDS);
+		assertThat(vehicleRepo.findAll()).filteredOn(v -> v.getLicensePlate().equals(plate)).singleElement()
+			.satisfies(v -> {
+				assertThat(v.getId()).isEqualTo(secondId);
+				assertThat(v.getVisitCount()).isEqualTo(2);
+			});
+	}
+
+	private double hits() {
+		var counter = meterRegistry.find("parking.vehicles.registry").tag("result", "hit").counter();
+		return counter != null ? counter.count() : 0;
+	}
+}